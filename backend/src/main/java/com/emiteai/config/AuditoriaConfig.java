@@ -42,8 +42,9 @@ public class AuditoriaConfig implements WebMvcConfigurer {
                     "http://frontend:80",       // Para comunicação entre containers
                     "http://localhost"          // Para casos sem porta específica
                 )
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
+                .allowedMethods("GET", "HEAD", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
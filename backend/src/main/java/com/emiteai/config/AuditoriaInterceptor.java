@@ -3,6 +3,7 @@ package com.emiteai.config;
 import com.emiteai.service.AuditoriaService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
@@ -46,7 +47,7 @@ public class AuditoriaInterceptor implements HandlerInterceptor {
                         ContentCachingRequestWrapper wrapper = (ContentCachingRequestWrapper) request;
                         byte[] body = wrapper.getContentAsByteArray();
                         if (body.length > 0) {
-                            requestData.put("body", new String(body, StandardCharsets.UTF_8));
+                            requestData.put("body", corpoAuditavel(body, request.getContentType(), request.getHeader("Content-Encoding")));
                         }
                     }
                 }
@@ -79,7 +80,7 @@ public class AuditoriaInterceptor implements HandlerInterceptor {
                 ContentCachingResponseWrapper wrapper = (ContentCachingResponseWrapper) response;
                 byte[] body = wrapper.getContentAsByteArray();
                 if (body.length > 0) {
-                    String responseBody = new String(body, StandardCharsets.UTF_8);
+                    String responseBody = corpoAuditavel(body, response.getContentType(), response.getHeader("Content-Encoding"));
                     Map<String, Object> responseMap = new HashMap<>();
                     responseMap.put("status", response.getStatus());
                     responseMap.put("body", responseBody);
@@ -102,6 +103,17 @@ public class AuditoriaInterceptor implements HandlerInterceptor {
         }
     }
 
+    // Corpos binários (CBOR ou comprimidos) não são texto: gravá-los como String corromperia o registro de auditoria
+    private String corpoAuditavel(byte[] body, String contentType, String contentEncoding) {
+        if (contentEncoding != null && !contentEncoding.equalsIgnoreCase("identity")) {
+            return "[" + contentType + ", " + contentEncoding + ": " + body.length + " bytes]";
+        }
+        if (contentType != null && contentType.startsWith(MediaType.APPLICATION_CBOR_VALUE)) {
+            return "[" + contentType + ": " + body.length + " bytes]";
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
     private Map<String, String> getHeadersMap(HttpServletRequest request) {
         Map<String, String> headers = new HashMap<>();
         request.getHeaderNames().asIterator().forEachRemaining(headerName -> {
@@ -8,10 +8,17 @@ import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class ContentCachingFilter implements Filter {
 
+    // Respostas em streaming não podem ser mantidas inteiras em memória para auditoria
+    private static final List<String> ENDPOINTS_STREAMING = List.of(
+        "/api/pessoas/stream",
+        "/api/pessoas/eventos"
+    );
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -20,7 +27,7 @@ public class ContentCachingFilter implements Filter {
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
         // Apenas aplicar para endpoints de API
-        if (httpRequest.getRequestURI().startsWith("/api/")) {
+        if (httpRequest.getRequestURI().startsWith("/api/") && !isStreaming(httpRequest.getRequestURI())) {
             ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(httpRequest);
             ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(httpResponse);
 
@@ -34,4 +41,8 @@ public class ContentCachingFilter implements Filter {
             chain.doFilter(request, response);
         }
     }
+
+    private boolean isStreaming(String uri) {
+        return ENDPOINTS_STREAMING.contains(uri);
+    }
 }
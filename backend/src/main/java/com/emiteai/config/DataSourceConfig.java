@@ -0,0 +1,69 @@
+package com.emiteai.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Pools de conexão: "primaria" atende a API (JPA, Envers, Flyway) e "auditoria" só grava a
+ * auditoria de requisições, para que um pico de um lado não esgote as conexões do outro.
+ * Cada pool tem seu gerenciador de transações; o JPA continua sendo o padrão de @Transactional.
+ * Latência de aquisição e threads esperando por conexão, por pool: hikaricp.connections.acquire
+ * e hikaricp.connections.pending (tag pool); tempo de retenção por endpoint na API:
+ * datasource.conexao.retencao (RetencaoConexaoDataSource).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    // Com a réplica habilitada, o DataSource da API é o roteamento do ReplicaLeituraConfig
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "emiteai.replica.habilitada", havingValue = "false", matchIfMissing = true)
+    public DataSource dataSource(@Qualifier("dataSourcePrimaria") DataSource primaria, MeterRegistry meterRegistry) {
+        return new RetencaoConexaoDataSource(primaria, "primaria", meterRegistry);
+    }
+
+    @Bean
+    @ConfigurationProperties("emiteai.auditoria.pool")
+    public HikariDataSource dataSourceAuditoria(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("auditoria");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(customizer -> customizer.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public DataSourceTransactionManager auditoriaTransactionManager(@Qualifier("dataSourceAuditoria") DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+}
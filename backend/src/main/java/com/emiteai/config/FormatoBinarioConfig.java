@@ -0,0 +1,21 @@
+package com.emiteai.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Habilita respostas (e corpos de requisição) em CBOR para quem enviar Accept/Content-Type application/cbor.
+ * JSON continua sendo o padrão: o conversor CBOR só é escolhido quando o cliente pede esse formato.
+ */
+@Configuration
+public class FormatoBinarioConfig {
+
+    // Usa o builder do Spring Boot para o CBOR seguir as mesmas configurações do JSON (datas, módulos, spring.jackson.*)
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,69 @@
+package com.emiteai.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Leitura das próprias escritas com réplica: uma requisição de escrita devolve um cookie que
+ * manda as leituras do mesmo cliente para a primária enquanto a réplica pode estar atrasada.
+ * Dentro da própria requisição, o RoteamentoLeituraDataSource já lê da primária depois de escrever.
+ */
+public class LeituraAposEscritaFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "emiteai-leitura-primaria";
+
+    private static final Set<String> METODOS_LEITURA = Set.of(
+        HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final Duration janela;
+
+    public LeituraAposEscritaFilter(Duration janela) {
+        this.janela = janela;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean escrita = !METODOS_LEITURA.contains(request.getMethod());
+        if (escrita && !janela.isZero()) {
+            // Antes da cadeia: depois dela o corpo pode já ter sido enviado
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, "1")
+                .path("/")
+                .maxAge(janela)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build()
+                .toString());
+        }
+        RoteamentoLeituraDataSource.iniciarContexto(temCookie(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoteamentoLeituraDataSource.encerrarContexto();
+        }
+    }
+
+    private boolean temCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
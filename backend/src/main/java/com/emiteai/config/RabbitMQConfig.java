@@ -1,18 +1,77 @@
 package com.emiteai.config;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
 
 @Configuration
+@EnableScheduling // PessoaOutboxRelay
 @ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
 public class RabbitMQConfig {
 
     public static final String QUEUE_NAME = "csv_generation_queue";
 
+    // Cadastros aceitos com 202 e gravados depois pelo CadastroAssincronoConsumer
+    public static final String CADASTRO_QUEUE_NAME = "pessoa_cadastro_queue";
+
+    // Lotes de cadastro que não puderam ser gravados nem item a item; reenviar à fila principal depois de corrigir a causa
+    public static final String CADASTRO_DLQ_NAME = "pessoa_cadastro_queue.dlq";
+
+    // Alterações de pessoa para outros serviços; chaves pessoa.criacao, pessoa.atualizacao e pessoa.remocao
+    public static final String EXCHANGE_PESSOAS = "pessoa_events";
+
     @Bean
     public Queue queue() {
         return new Queue(QUEUE_NAME);
     }
+
+    @Bean
+    public Queue cadastroQueue() {
+        return QueueBuilder.durable(CADASTRO_QUEUE_NAME)
+            .deadLetterExchange("")
+            .deadLetterRoutingKey(CADASTRO_DLQ_NAME)
+            .build();
+    }
+
+    @Bean
+    public Queue cadastroDlq() {
+        return new Queue(CADASTRO_DLQ_NAME);
+    }
+
+    @Bean
+    public TopicExchange pessoaEventsExchange() {
+        return new TopicExchange(EXCHANGE_PESSOAS);
+    }
+
+    /**
+     * Entrega ao listener listas de até emiteai.cadastro-assincrono.lote mensagens, esperando
+     * no máximo espera-lote para completar cada uma; o ack é do lote inteiro. Um lote rejeitado
+     * vai para a fila de mensagens mortas em vez de voltar para a fila e travar o consumo.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory cadastroLoteContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${emiteai.cadastro-assincrono.lote:500}") int tamanhoLote,
+            @Value("${emiteai.cadastro-assincrono.espera-lote:500ms}") Duration esperaLote) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(tamanhoLote);
+        factory.setPrefetchCount(tamanhoLote);
+        factory.setReceiveTimeout(esperaLote.toMillis());
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
 }
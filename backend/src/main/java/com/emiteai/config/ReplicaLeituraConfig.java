@@ -0,0 +1,71 @@
+package com.emiteai.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de leitura (emiteai.replica.habilitada=true): a primária continua configurada em
+ * spring.datasource (pool do DataSourceConfig) e a réplica em emiteai.replica, com pool próprio. O DataSource
+ * usado pelo JPA, Envers e Flyway é o RoteamentoLeituraDataSource; o pool de auditoria
+ * (DataSourceConfig) grava sempre na primária.
+ */
+@Configuration
+@ConditionalOnProperty(name = "emiteai.replica.habilitada", havingValue = "true")
+public class ReplicaLeituraConfig {
+
+    @Bean
+    @ConfigurationProperties("emiteai.replica.hikari")
+    public HikariDataSource dataSourceReplica(
+            DataSourceProperties properties,
+            @Value("${emiteai.replica.url}") String url,
+            @Value("${emiteai.replica.username:${spring.datasource.username}}") String username,
+            @Value("${emiteai.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // A aplicação sobe mesmo com a réplica fora; as leituras caem na primária
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimaria") DataSource primaria,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${emiteai.replica.nova-tentativa:30s}") Duration novaTentativa) {
+        return new LazyConnectionDataSourceProxy(new RoteamentoLeituraDataSource(
+            new RetencaoConexaoDataSource(primaria, "primaria", meterRegistry),
+            new RetencaoConexaoDataSource(replica, "replica", meterRegistry),
+            novaTentativa, meterRegistry));
+    }
+
+    @Bean
+    public FilterRegistrationBean<LeituraAposEscritaFilter> leituraAposEscritaFilterRegistration(
+            @Value("${emiteai.replica.leitura-apos-escrita:5s}") Duration janela) {
+        FilterRegistrationBean<LeituraAposEscritaFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new LeituraAposEscritaFilter(janela));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,88 @@
+package com.emiteai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mede quanto tempo cada conexão fica fora do pool, do getConnection ao close, por endpoint
+ * (método e padrão da rota, ex.: "GET /api/pessoas/{id}"). Métrica datasource.conexao.retencao,
+ * com tags pool e endpoint; conexões obtidas fora de requisições HTTP ficam em "fora-de-requisicao".
+ */
+public class RetencaoConexaoDataSource extends DelegatingDataSource {
+
+    static final String METRICA = "datasource.conexao.retencao";
+    static final String FORA_DE_REQUISICAO = "fora-de-requisicao";
+
+    private final String pool;
+    private final MeterRegistry meterRegistry;
+
+    public RetencaoConexaoDataSource(DataSource alvo, String pool, MeterRegistry meterRegistry) {
+        super(alvo);
+        this.pool = pool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return medir(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return medir(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection medir(Connection conexao) {
+        long inicio = System.nanoTime();
+        String endpoint = endpointAtual();
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, metodo, args) -> switch (metodo.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> {
+                    if (metodo.getName().equals("close") && fechada.compareAndSet(false, true)) {
+                        retencao(endpoint).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                    }
+                    try {
+                        yield metodo.invoke(conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+            });
+    }
+
+    private Timer retencao(String endpoint) {
+        return Timer.builder(METRICA)
+            .description("Tempo entre obter e devolver uma conexão ao pool")
+            .tag("pool", pool)
+            .tag("endpoint", endpoint)
+            .register(meterRegistry);
+    }
+
+    // O padrão da rota já está disponível quando o controller consulta o banco
+    private static String endpointAtual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!(atributos instanceof ServletRequestAttributes servlet)) {
+            return FORA_DE_REQUISICAO;
+        }
+        HttpServletRequest request = servlet.getRequest();
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (padrao != null ? padrao : "desconhecido");
+    }
+}
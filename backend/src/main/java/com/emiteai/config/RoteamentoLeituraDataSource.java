@@ -0,0 +1,143 @@
+package com.emiteai.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Envia transações somente leitura (@Transactional(readOnly = true)) para a réplica e todo o
+ * resto para a primária. Deve ficar atrás de um LazyConnectionDataSourceProxy, para que a conexão
+ * só seja obtida depois que a transação já foi marcada como somente leitura.
+ *
+ * Dentro de um contexto de leitura (LeituraAposEscritaFilter), as leituras vão para a primária se
+ * o contexto pediu ou se a mesma thread já escreveu, evitando ler da réplica um dado que ela ainda
+ * não recebeu. Se a réplica não entrega conexão, a leitura cai na primária e a réplica fica fora
+ * por um intervalo antes da próxima tentativa.
+ *
+ * Cargas de caches e de índices em memória usam naPrimaria: o que elas leem fica valendo além
+ * da transação, e uma réplica atrasada deixaria o dado antigo (ou a linha ausente) em memória.
+ */
+@Slf4j
+public class RoteamentoLeituraDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Contexto> CONTEXTO = new ThreadLocal<>();
+
+    private final DataSource primaria;
+    private final DataSource replica;
+    private final long intervaloNovaTentativaMs;
+    private final AtomicLong replicaIndisponivelAte = new AtomicLong();
+    private final Counter leiturasNaPrimaria;
+
+    public RoteamentoLeituraDataSource(DataSource primaria, DataSource replica, Duration intervaloNovaTentativa,
+                                       MeterRegistry meterRegistry) {
+        this.primaria = primaria;
+        this.replica = replica;
+        this.intervaloNovaTentativaMs = intervaloNovaTentativa.toMillis();
+        this.leiturasNaPrimaria = Counter.builder("datasource.replica.fallback")
+            .description("Leituras enviadas à primária porque a réplica estava indisponível")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Abre o contexto de leitura da thread atual; leituraNaPrimaria faz todas as leituras irem
+     * para a primária. Precisa ser fechado com encerrarContexto.
+     */
+    public static void iniciarContexto(boolean leituraNaPrimaria) {
+        Contexto contexto = new Contexto();
+        contexto.leituraNaPrimaria = leituraNaPrimaria;
+        CONTEXTO.set(contexto);
+    }
+
+    public static void encerrarContexto() {
+        CONTEXTO.remove();
+    }
+
+    /**
+     * Executa a carga com todas as leituras, inclusive as somente leitura, na primária. Pode ser
+     * aninhado e usado dentro ou fora de um contexto de leitura, que é preservado.
+     */
+    public static <T> T naPrimaria(Supplier<T> carga) {
+        Contexto contexto = CONTEXTO.get();
+        boolean criado = contexto == null;
+        if (criado) {
+            contexto = new Contexto();
+            CONTEXTO.set(contexto);
+        }
+        contexto.primariaForcada++;
+        try {
+            return carga.get();
+        } finally {
+            contexto.primariaForcada--;
+            if (criado) {
+                CONTEXTO.remove();
+            }
+        }
+    }
+
+    public static void naPrimaria(Runnable carga) {
+        naPrimaria(() -> {
+            carga.run();
+            return null;
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!usarReplica()) {
+            return primaria.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            return primariaNoLugarDaReplica(e);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!usarReplica()) {
+            return primaria.getConnection(username, password);
+        }
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            return primariaNoLugarDaReplica(e);
+        }
+    }
+
+    private boolean usarReplica() {
+        Contexto contexto = CONTEXTO.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (contexto != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                contexto.leituraNaPrimaria = true; // Leituras seguintes desta requisição veem a escrita
+            }
+            return false;
+        }
+        if (contexto != null && (contexto.leituraNaPrimaria || contexto.primariaForcada > 0)) {
+            return false;
+        }
+        return System.currentTimeMillis() >= replicaIndisponivelAte.get();
+    }
+
+    private Connection primariaNoLugarDaReplica(SQLException erro) throws SQLException {
+        replicaIndisponivelAte.set(System.currentTimeMillis() + intervaloNovaTentativaMs);
+        leiturasNaPrimaria.increment();
+        log.warn("Réplica de leitura indisponível, usando a primária pelos próximos {} ms: {}",
+            intervaloNovaTentativaMs, erro.getMessage());
+        return primaria.getConnection();
+    }
+
+    private static final class Contexto {
+        private boolean leituraNaPrimaria;
+        private int primariaForcada;
+    }
+}
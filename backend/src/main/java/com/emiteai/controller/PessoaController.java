@@ -1,13 +1,47 @@
 package com.emiteai.controller;
 
+import com.emiteai.dtos.CadastroAssincronoDTO;
+import com.emiteai.dtos.FacetaEstadoDTO;
+import com.emiteai.dtos.FiltroBuscaDTO;
+import com.emiteai.dtos.PaginaMudancasDTO;
+import com.emiteai.dtos.PaginaPessoasDTO;
 import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.dtos.ResultadoBuscaDTO;
+import com.emiteai.dtos.ResultadoLoteDTO;
+import com.emiteai.dtos.SugestaoNomeDTO;
+import com.emiteai.service.AutocompleteNomeService;
+import com.emiteai.service.CadastroAssincronoProducer;
+import com.emiteai.service.CadastroAssincronoService;
+import com.emiteai.service.EventosPessoaService;
+import com.emiteai.service.FacetasService;
+import com.emiteai.service.IdempotenciaService;
+import com.emiteai.service.ListagemSerializadaCache;
 import com.emiteai.service.PessoaService;
+import com.emiteai.service.VersaoListagemService;
+import com.emiteai.util.CamposPessoa;
+import com.emiteai.util.EtagUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/pessoas")
@@ -18,34 +52,302 @@ public class PessoaController {
     @Autowired
     private PessoaService pessoaService;
 
+    @Autowired
+    private VersaoListagemService versaoListagemService;
+
+    @Autowired
+    private FacetasService facetasService;
+
+    @Autowired
+    private AutocompleteNomeService autocompleteNomeService;
+
+    @Autowired
+    private ListagemSerializadaCache listagemSerializadaCache;
+
+    @Autowired
+    private EventosPessoaService eventosPessoaService;
+
+    @Autowired
+    private CadastroAssincronoService cadastroAssincronoService;
+
+    @Autowired
+    private ObjectProvider<CadastroAssincronoProducer> cadastroAssincronoProducer;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
     @Operation(summary = "Cadastrar uma nova pessoa")
     @PostMapping
-    public PessoaDTO cadastrar(@RequestBody PessoaDTO pessoaDTO) {
-        return pessoaService.cadastrarPessoa(pessoaDTO);
+    public ResponseEntity<Object> cadastrar(
+            @RequestBody PessoaDTO pessoaDTO,
+            @Parameter(description = "respond-async: aceita o cadastro com 202 e grava depois, quando o modo assíncrono está habilitado")
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @Parameter(description = "Repetições com a mesma chave e o mesmo corpo recebem a resposta original")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String chaveIdempotencia) {
+        return idempotenciaService.executar(chaveIdempotencia, "POST /api/pessoas Prefer=" + prefer, pessoaDTO,
+                () -> cadastrar(pessoaDTO, prefer));
+    }
+
+    private ResponseEntity<Object> cadastrar(PessoaDTO pessoaDTO, String prefer) {
+        CadastroAssincronoProducer assincrono = cadastroAssincronoProducer.getIfAvailable();
+        if (assincrono != null && prefereAssincrono(prefer)) {
+            CadastroAssincronoDTO pedido = assincrono.enfileirar(pessoaDTO);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/pessoas/cadastros/" + pedido.getId()))
+                    .header("Preference-Applied", "respond-async")
+                    .body(pedido);
+        }
+        // Sem o modo assíncrono a preferência é ignorada (RFC 7240) e o cadastro é imediato
+        return ResponseEntity.ok(pessoaService.cadastrarPessoa(pessoaDTO));
+    }
+
+    @Operation(summary = "Situação de um cadastro assíncrono",
+               description = "PENDENTE enquanto o pedido está na fila; depois CRIADO, DUPLICADO ou INVALIDO")
+    @GetMapping("/cadastros/{id}")
+    public CadastroAssincronoDTO situacaoCadastro(@PathVariable String id) {
+        return cadastroAssincronoService.consultar(id);
+    }
+
+    @Operation(summary = "Cadastrar pessoas em lote",
+               description = "Retorna o resultado de cada item (CRIADO, ATUALIZADO, DUPLICADO ou INVALIDO) na ordem enviada")
+    @PostMapping("/lote")
+    public List<ResultadoLoteDTO> cadastrarLote(
+            @RequestBody List<PessoaDTO> pessoas,
+            @Parameter(description = "Atualizar pessoas cujo CPF já está cadastrado em vez de marcá-las como duplicadas")
+            @RequestParam(defaultValue = "false") boolean upsert) {
+        try {
+            return pessoaService.cadastrarLote(pessoas, upsert);
+        } catch (DataIntegrityViolationException e) {
+            // CPF gravado por outra requisição entre a verificação e o flush: a transação foi desfeita
+            // e, na nova tentativa, esse CPF aparece como DUPLICADO em vez de derrubar o lote
+            return pessoaService.cadastrarLote(pessoas, upsert);
+        }
     }
 
     @Operation(summary = "Listar todas as pessoas")
     @GetMapping
-    public List<PessoaDTO> listarTodas() {
-        return pessoaService.listarTodas();
+    public ResponseEntity<Object> listarTodas(
+            @Parameter(description = "Campos da resposta separados por vírgula (id, nome, telefone, cpf, endereco, versao); sem endereco a consulta não faz join")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        CamposPessoa campos = CamposPessoa.parse(fields);
+        boolean json = aceitaJson(request.getHeader(HttpHeaders.ACCEPT));
+        // Só a listagem completa em JSON sai comprimida (do cache serializado); o ETag muda com a representação
+        boolean gzip = campos.todos() && json && aceitaGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String versao = versaoListagemService.etag();
+        String etag = etagListagem(versao, campos, json, gzip);
+        // ETag verificado antes da consulta: um 304 não carrega nem serializa nenhuma pessoa
+        if (request.checkNotModified(etag)) {
+            return naoModificada(etag, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (campos.todos() && json) {
+            // Listagem completa em JSON: bytes já serializados da versão atual
+            ListagemSerializadaCache.Listagem listagem = listagemSerializadaCache.obter(versao, pessoaService::listarTodas);
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return resposta.body(gzip ? listagem.getGzip() : listagem.getJson());
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .body(moldar(pessoaService.listarTodas(campos), campos));
+    }
+
+    @Operation(summary = "Buscar várias pessoas por ID",
+               description = "Resolve os ids em uma consulta; o resultado segue a ordem enviada, com NAO_ENCONTRADO para ids inexistentes")
+    @GetMapping(params = "ids")
+    public List<ResultadoBuscaDTO> buscarPorIds(
+            @Parameter(description = "Ids separados por vírgula (ex.: ids=1,2,3)")
+            @RequestParam List<Long> ids) {
+        return pessoaService.buscarPorIds(ids);
+    }
+
+    @Operation(summary = "Buscar várias pessoas por CPF",
+               description = "Resolve os CPFs em uma consulta; o resultado segue a ordem enviada, com NAO_ENCONTRADO ou INVALIDO por CPF")
+    @PostMapping("/busca-cpfs")
+    public List<ResultadoBuscaDTO> buscarPorCpfs(@RequestBody List<String> cpfs) {
+        return pessoaService.buscarPorCpfs(cpfs);
+    }
+
+    @Operation(summary = "Listar pessoas paginadas por cursor",
+               description = "Paginação por keyset: envie o proximoCursor da resposta em 'after' para obter a página seguinte")
+    @GetMapping("/pagina")
+    public ResponseEntity<Object> listarPagina(
+            @Parameter(description = "Cursor retornado na página anterior (vazio para a primeira página)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Quantidade máxima de itens na página (padrão: 20, máximo: 100)")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Ordenação estável: id (padrão) ou nome")
+            @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Campos da resposta separados por vírgula (id, nome, telefone, cpf, endereco, versao); sem endereco a consulta não faz join")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        CamposPessoa campos = CamposPessoa.parse(fields);
+        String etag = etagListagem(versaoListagemService.etag(), campos,
+                aceitaJson(request.getHeader(HttpHeaders.ACCEPT)), false);
+        if (request.checkNotModified(etag)) {
+            return naoModificada(etag, HttpHeaders.ACCEPT);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(moldar(pessoaService.listarPagina(after, limit, sort, campos), campos));
+    }
+
+    @Operation(summary = "Buscar pessoas por nome, estado, município, bairro ou CEP",
+               description = "Filtros opcionais e combináveis; paginação por cursor como em /pagina (ordenada por id)")
+    @GetMapping("/busca")
+    public ResponseEntity<Object> buscar(
+            @Parameter(description = "Início do nome, sem diferenciar maiúsculas")
+            @RequestParam(required = false) String nome,
+            @Parameter(description = "UF (ex.: SP)")
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String municipio,
+            @RequestParam(required = false) String bairro,
+            @Parameter(description = "CEP com ou sem hífen")
+            @RequestParam(required = false) String cep,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Campos da resposta separados por vírgula (id, nome, telefone, cpf, endereco, versao); sem endereco a consulta não faz join")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        CamposPessoa campos = CamposPessoa.parse(fields);
+        String etag = etagListagem(versaoListagemService.etag(), campos,
+                aceitaJson(request.getHeader(HttpHeaders.ACCEPT)), false);
+        if (request.checkNotModified(etag)) {
+            return naoModificada(etag, HttpHeaders.ACCEPT);
+        }
+        FiltroBuscaDTO filtro = new FiltroBuscaDTO(nome, estado, municipio, bairro, cep);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(moldar(pessoaService.buscar(filtro, after, limit, campos), campos));
+    }
+
+    @Operation(summary = "Buscar pessoas por nome aproximado",
+               description = "Tolera trechos e erros de digitação (similaridade de trigramas); resultados do mais ao menos parecido, paginados por cursor")
+    @GetMapping("/busca-nome")
+    public ResponseEntity<Object> buscarPorNomeAproximado(
+            @Parameter(description = "Nome ou parte dele (mínimo de 3 caracteres)")
+            @RequestParam String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Campos da resposta separados por vírgula (id, nome, telefone, cpf, endereco, versao)")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        CamposPessoa campos = CamposPessoa.parse(fields);
+        String etag = etagListagem(versaoListagemService.etag(), campos,
+                aceitaJson(request.getHeader(HttpHeaders.ACCEPT)), false);
+        if (request.checkNotModified(etag)) {
+            return naoModificada(etag, HttpHeaders.ACCEPT);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(moldar(pessoaService.buscarPorNomeAproximado(q, after, limit), campos));
+    }
+
+    @Operation(summary = "Sugestões de nomes para autocomplete",
+               description = "Nomes que começam com o prefixo (sem diferenciar acentos e maiúsculas), em ordem alfabética; respondido da memória")
+    @GetMapping("/autocomplete")
+    public List<SugestaoNomeDTO> autocomplete(
+            @RequestParam String q,
+            @Parameter(description = "Máximo de sugestões (padrão: 10, máximo: 50)")
+            @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteNomeService.sugerir(q, limit);
+    }
+
+    @Operation(summary = "Contagem de pessoas por estado e município",
+               description = "Calculada em uma única consulta agregada e mantida em cache por alguns segundos")
+    @GetMapping("/facetas")
+    public List<FacetaEstadoDTO> facetas() {
+        return facetasService.porEstadoEMunicipio();
+    }
+
+    @Operation(summary = "Mudanças em pessoas desde uma revisão",
+               description = "Pessoas criadas, alteradas ou removidas depois da revisão informada, em ordem de revisão e paginadas por cursor; "
+                           + "ao fim das páginas, use revisaoAtual como desdeRevisao na próxima sincronização")
+    @GetMapping("/mudancas")
+    public PaginaMudancasDTO listarMudancas(
+            @Parameter(description = "Última revisão já sincronizada pelo cliente (0 para todas)")
+            @RequestParam(defaultValue = "0") long desdeRevisao,
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Tamanho da página (padrão: 500, máximo: 1000)")
+            @RequestParam(defaultValue = "500") int limit) {
+        return pessoaService.listarMudancas(desdeRevisao, after, limit);
+    }
+
+    @Operation(summary = "Acompanhar alterações de pessoas (Server-Sent Events)",
+               description = "Envia cada criação, atualização e remoção após o commit; o id do evento é a revisão. "
+                           + "Ao reconectar com Last-Event-ID, as alterações perdidas são reenviadas antes das novas")
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(
+            @Parameter(description = "Revisão do último evento recebido (enviado pelo EventSource ao reconectar)")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimaRevisao) {
+        return eventosPessoaService.assinar(ultimaRevisao);
+    }
+
+    @Operation(summary = "Exportar todas as pessoas em streaming (NDJSON)",
+               description = "Cada linha da resposta é um PessoaDTO; os dados são enviados à medida que são lidos do banco")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarStream() {
+        StreamingResponseBody corpo = saida -> pessoaService.exportarNdjson(saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
     }
 
     @Operation(summary = "Buscar pessoa por CPF")
     @GetMapping("/cpf/{cpf}")
-    public PessoaDTO buscarPorCpf(@PathVariable String cpf) {
-        return pessoaService.buscarPorCpf(cpf);
+    public ResponseEntity<Object> buscarPorCpf(
+            @PathVariable String cpf,
+            @Parameter(description = "Campos da resposta separados por vírgula (id, nome, telefone, cpf, endereco, versao)")
+            @RequestParam(required = false) String fields) {
+        return comEtag(pessoaService.buscarPorCpf(cpf), CamposPessoa.parse(fields));
+    }
+
+    @Operation(summary = "Verificar se o CPF já está cadastrado",
+               description = "Responde 200 se cadastrado e 404 caso contrário, sem corpo. Usa o índice em memória antes do banco")
+    @RequestMapping(value = "/cpf/{cpf}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> verificarCpf(@PathVariable String cpf) {
+        return pessoaService.cpfCadastrado(cpf)
+            ? ResponseEntity.ok().build()
+            : ResponseEntity.notFound().build();
     }
 
     @Operation(summary = "Buscar pessoa por ID")
     @GetMapping("/{id}")
-    public PessoaDTO buscarPorId(@PathVariable Long id) {
-        return pessoaService.buscarPorId(id);
+    public ResponseEntity<Object> buscarPorId(
+            @PathVariable Long id,
+            @Parameter(description = "Campos da resposta separados por vírgula (id, nome, telefone, cpf, endereco, versao)")
+            @RequestParam(required = false) String fields) {
+        return comEtag(pessoaService.buscarPorId(id), CamposPessoa.parse(fields));
     }
 
-    @Operation(summary = "Atualizar pessoa por ID")
+    @Operation(summary = "Atualizar pessoa por ID",
+               description = "Com If-Match, a atualização só ocorre se o ETag ainda for o atual (412 caso contrário)")
     @PutMapping("/{id}")
-    public PessoaDTO atualizar(@PathVariable Long id, @RequestBody PessoaDTO pessoaDTO) {
-        return pessoaService.atualizarPessoa(id, pessoaDTO);
+    public ResponseEntity<Object> atualizar(
+            @PathVariable Long id,
+            @RequestBody PessoaDTO pessoaDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "Repetições com a mesma chave e o mesmo corpo recebem a resposta original, sem 412")
+            @RequestHeader(value = IdempotenciaService.HEADER, required = false) String chaveIdempotencia) {
+        return idempotenciaService.executar(chaveIdempotencia, "PUT /api/pessoas/" + id + " If-Match=" + ifMatch, pessoaDTO,
+                () -> {
+                    PessoaDTO atualizada = pessoaService.atualizarPessoa(id, pessoaDTO, ifMatch);
+                    return ResponseEntity.ok().eTag(EtagUtils.etag(atualizada)).body(atualizada);
+                });
     }
 
     @Operation(summary = "Deletar pessoa por ID")
@@ -53,4 +355,92 @@ public class PessoaController {
     public void deletar(@PathVariable Long id) {
         pessoaService.deletar(id);
     }
+
+    // Com ETag na resposta, o Spring responde 304 a um If-None-Match igual sem serializar o corpo.
+    // O ETag é sempre o da pessoa inteira, para continuar valendo no If-Match do PUT
+    private ResponseEntity<Object> comEtag(PessoaDTO pessoa, CamposPessoa campos) {
+        return ResponseEntity.ok()
+                .eTag(EtagUtils.etag(pessoa))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(campos.todos() ? pessoa : campos.aplicar(pessoa));
+    }
+
+    // ETag de uma listagem na representação enviada: mesma versão com outro formato, outros campos ou
+    // outra codificação não pode ser confirmada por um 304 (ex.: "r10-abc-0-cbor", "r10-abc-0-gz")
+    private String etagListagem(String versao, CamposPessoa campos, boolean json, boolean gzip) {
+        StringBuilder etag = new StringBuilder(versao.length() + 32).append(versao, 0, versao.length() - 1);
+        if (!campos.todos()) {
+            etag.append("-f").append(campos.chave());
+        }
+        if (!json) {
+            etag.append("-cbor");
+        }
+        if (gzip) {
+            etag.append("-gz");
+        }
+        return etag.append('"').toString();
+    }
+
+    // O 304 leva o mesmo Vary do 200, para caches intermediários não reaproveitarem a resposta de outra representação
+    private ResponseEntity<Object> naoModificada(String etag, String... vary) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .varyBy(vary)
+                .build();
+    }
+
+    // Sem Accept, ou com um Accept que admite JSON, a listagem pode sair do cache serializado
+    private boolean aceitaJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            List<MediaType> tipos = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(tipos);
+            return tipos.isEmpty() || tipos.get(0).isCompatibleWith(MediaType.APPLICATION_JSON);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private boolean prefereAssincrono(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preferencia : prefer.split(",")) {
+            if (preferencia.trim().equalsIgnoreCase("respond-async")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacao : acceptEncoding.split(",")) {
+            String[] partes = codificacao.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // Sem "fields" a resposta é o próprio DTO; com ele, só as propriedades pedidas
+    private Object moldar(List<PessoaDTO> pessoas, CamposPessoa campos) {
+        return campos.todos() ? pessoas : campos.aplicar(pessoas);
+    }
+
+    private Object moldar(PaginaPessoasDTO pagina, CamposPessoa campos) {
+        if (campos.todos()) {
+            return pagina;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("itens", campos.aplicar(pagina.getItens()));
+        json.put("proximoCursor", pagina.getProximoCursor());
+        return json;
+    }
 }
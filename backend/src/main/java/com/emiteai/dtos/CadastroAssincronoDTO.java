@@ -0,0 +1,29 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CadastroAssincronoDTO {
+
+    public enum Status {
+        PENDENTE,
+        CRIADO,
+        DUPLICADO,
+        INVALIDO
+    }
+
+    private String id; // Identificador de acompanhamento devolvido no 202
+    private Status status;
+    private Long pessoaId;
+    private String mensagem;
+
+    public static CadastroAssincronoDTO pendente(String id) {
+        return new CadastroAssincronoDTO(id, Status.PENDENTE, null, null);
+    }
+}
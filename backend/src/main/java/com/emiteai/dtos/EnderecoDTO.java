@@ -1,6 +1,7 @@
 package com.emiteai.dtos;
 
 import com.emiteai.entities.Endereco;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -8,6 +9,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
+@AllArgsConstructor
 public class EnderecoDTO {
 
     private Long id;
@@ -17,6 +19,7 @@ public class EnderecoDTO {
     private String bairro;
     private String municipio;
     private String estado;
+    private Long versao;
 
     public EnderecoDTO(Endereco endereco) {
         this.id = endereco.getId();
@@ -26,5 +29,6 @@ public class EnderecoDTO {
         this.bairro = endereco.getBairro();
         this.municipio = endereco.getMunicipio();
         this.estado = endereco.getEstado();
+        this.versao = endereco.getVersao();
     }
 }
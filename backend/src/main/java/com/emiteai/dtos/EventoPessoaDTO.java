@@ -0,0 +1,30 @@
+package com.emiteai.dtos;
+
+import com.emiteai.events.PessoaAlteradaEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoPessoaDTO {
+
+    private long revisao;
+    private Long id;
+    private PessoaAlteradaEvent.Tipo tipo;
+    private PessoaDTO pessoa; // null na remoção
+
+    public EventoPessoaDTO(PessoaAlteradaEvent evento) {
+        this(evento.getRevisao(), evento.getId(), evento.getTipo(), evento.getAtual());
+    }
+
+    // Na retomada pelo feed de mudanças não se distingue criação de atualização
+    public EventoPessoaDTO(MudancaDTO mudanca) {
+        this(mudanca.getRevisao(), mudanca.getId(),
+             mudanca.getTipo() == MudancaDTO.Tipo.REMOCAO ? PessoaAlteradaEvent.Tipo.REMOCAO : PessoaAlteradaEvent.Tipo.ATUALIZACAO,
+             mudanca.getPessoa());
+    }
+}
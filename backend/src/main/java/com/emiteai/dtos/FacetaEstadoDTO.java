@@ -0,0 +1,19 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetaEstadoDTO {
+
+    private String estado;
+    private long total;
+    private List<FacetaMunicipioDTO> municipios;
+}
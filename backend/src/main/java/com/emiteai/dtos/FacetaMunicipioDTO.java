@@ -0,0 +1,16 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetaMunicipioDTO {
+
+    private String municipio;
+    private long total;
+}
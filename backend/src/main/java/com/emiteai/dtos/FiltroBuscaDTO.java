@@ -0,0 +1,19 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroBuscaDTO {
+
+    private String nome; // Prefixo, sem diferenciar maiúsculas
+    private String estado;
+    private String municipio;
+    private String bairro;
+    private String cep; // Com ou sem hífen
+}
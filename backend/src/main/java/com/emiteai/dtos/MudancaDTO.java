@@ -0,0 +1,23 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MudancaDTO {
+
+    public enum Tipo {
+        UPSERT,
+        REMOCAO
+    }
+
+    private long revisao;
+    private Long id;
+    private Tipo tipo;
+    private PessoaDTO pessoa; // Estado atual da pessoa; nulo em REMOCAO
+}
@@ -0,0 +1,23 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaMudancasDTO {
+
+    private List<MudancaDTO> itens;
+
+    // Cursor da próxima página desta sincronização (null na última)
+    private String proximoCursor;
+
+    // Revisão até a qual esta sincronização vai; usar em desdeRevisao na próxima quando proximoCursor for null
+    private long revisaoAtual;
+}
@@ -0,0 +1,20 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaPessoasDTO {
+
+    private List<PessoaDTO> itens;
+
+    // Cursor a ser enviado em "after" para buscar a próxima página (null quando não há mais itens)
+    private String proximoCursor;
+}
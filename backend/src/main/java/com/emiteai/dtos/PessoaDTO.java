@@ -15,12 +15,30 @@ public class PessoaDTO {
     private String telefone;
     private String cpf;
     private EnderecoDTO endereco;
+    private Long versao;
+
+    // Usado pelas consultas de projeção (PessoaRepository.SELECT_DTO); endereço nulo quando não há join
+    public PessoaDTO(Long id, String nome, String telefone, String cpf, Long versao,
+                     Long enderecoId, String numero, String complemento, String cep,
+                     String bairro, String municipio, String estado, Long enderecoVersao) {
+        this.id = id;
+        this.nome = nome;
+        this.telefone = telefone;
+        this.cpf = cpf;
+        this.versao = versao;
+
+        if (enderecoId != null) {
+            this.endereco = new EnderecoDTO(enderecoId, numero, complemento, cep,
+                bairro, municipio, estado, enderecoVersao);
+        }
+    }
 
     public PessoaDTO(Pessoa pessoa) {
         this.id = pessoa.getId();
         this.nome = pessoa.getNome();
         this.telefone = pessoa.getTelefone();
         this.cpf = pessoa.getCpf();
+        this.versao = pessoa.getVersao();
         
         if (pessoa.getEndereco() != null) {
             this.endereco = new EnderecoDTO(pessoa.getEndereco());
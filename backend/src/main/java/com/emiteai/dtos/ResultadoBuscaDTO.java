@@ -0,0 +1,24 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBuscaDTO {
+
+    public enum Status {
+        ENCONTRADO,
+        NAO_ENCONTRADO,
+        INVALIDO
+    }
+
+    private int indice; // Posição da chave na requisição
+    private String chave;
+    private Status status;
+    private PessoaDTO pessoa; // Nulo quando a chave não foi encontrada
+}
@@ -0,0 +1,26 @@
+package com.emiteai.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+
+    public enum Status {
+        CRIADO,
+        ATUALIZADO,
+        DUPLICADO,
+        INVALIDO
+    }
+
+    private int indice; // Posição do item na requisição
+    private String cpf;
+    private Status status;
+    private Long id;
+    private String mensagem;
+}
@@ -0,0 +1,61 @@
+package com.emiteai.entities;
+
+import com.emiteai.dtos.CadastroAssincronoDTO;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Resultado de um cadastro assíncrono. O id vem do pedido, então a entidade informa ao
+ * Spring Data que é nova para que o saveAll faça INSERT direto, sem SELECT antes.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "cadastro_assincrono")
+public class CadastroAssincrono implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CadastroAssincronoDTO.Status status;
+
+    @Column(name = "pessoa_id")
+    private Long pessoaId;
+
+    @Column(length = 500)
+    private String mensagem;
+
+    @Column(name = "concluido_em", nullable = false)
+    private Instant concluidoEm;
+
+    @Transient
+    private boolean novo = true;
+
+    public CadastroAssincrono(String id, CadastroAssincronoDTO.Status status, Long pessoaId, String mensagem) {
+        this.id = id;
+        this.status = status;
+        this.pessoaId = pessoaId;
+        this.mensagem = mensagem;
+        this.concluidoEm = Instant.now();
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        novo = false;
+    }
+}
@@ -9,7 +9,8 @@ import org.hibernate.envers.RevisionTimestamp;
 
 /**
  * Entidade customizada para revisões do Hibernate Envers
- * Resolve o problema da sequência padrão 'revinfo_seq' vs 'hibernate_sequence'
+ * Usa a sequência da própria tabela revinfo, um número por revisão: com blocos por instância, a
+ * ordem dos números deixaria de seguir a ordem dos commits, da qual o feed de mudanças depende
  */
 @Entity
 @RevisionEntity(CustomRevisionListener.class) // 🔧 Adicionar listener
@@ -20,7 +21,7 @@ public class CustomRevisionEntity {
     
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revinfo_seq")
-    @SequenceGenerator(name = "revinfo_seq", sequenceName = "hibernate_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "revinfo_seq", sequenceName = "revinfo_rev_seq", allocationSize = 1)
     @RevisionNumber
     @Column(name = "rev")
     private int id;
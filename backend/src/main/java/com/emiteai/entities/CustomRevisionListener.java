@@ -1,5 +1,6 @@
 package com.emiteai.entities;
 
+import com.emiteai.service.RevisaoTransacao;
 import jakarta.servlet.http.HttpServletRequest;
 import org.hibernate.envers.RevisionListener;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -14,6 +15,8 @@ public class CustomRevisionListener implements RevisionListener {
     @Override
     public void newRevision(Object revisionEntity) {
         CustomRevisionEntity customRevision = (CustomRevisionEntity) revisionEntity;
+        // Quem pediu a revisão da transação (eventos de pessoa) recebe o número quando ela for gravada
+        RevisaoTransacao.aoCriarRevisao(customRevision);
         
         try {
             // Capturar informações da requisição HTTP atual
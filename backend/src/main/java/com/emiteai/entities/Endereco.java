@@ -1,28 +1,73 @@
 package com.emiteai.entities;
 
+import com.emiteai.util.DocumentoUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
 
 @Entity
 @Getter
 @Setter
 @Audited
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Endereco {
 
+    // Tamanhos das colunas (V1__create_tables.sql), conferidos pelo PessoaService antes de gravar
+    public static final int TAMANHO_NUMERO = 50;
+    public static final int TAMANHO_COMPLEMENTO = 255;
+    public static final int TAMANHO_CEP = 10;
+    public static final int TAMANHO_BAIRRO = 255;
+    public static final int TAMANHO_MUNICIPIO = 255;
+    public static final int TAMANHO_ESTADO = 2;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "endereco_seq")
+    @SequenceGenerator(name = "endereco_seq", sequenceName = "endereco_id_seq", allocationSize = 50)
     private Long id;
 
+    @Column(length = TAMANHO_NUMERO)
     private String numero;
+
+    @Column(length = TAMANHO_COMPLEMENTO)
     private String complemento;
+
+    @Column(length = TAMANHO_CEP)
     private String cep;
+
+    // Forma numérica do CEP, derivada de cep
+    @NotAudited
+    @Column(name = "cep_numero")
+    private Integer cepNumero;
+
+    // Controle de concorrência otimista (ETag / If-Match); o Envers não audita este campo
+    @Version
+    private Long versao;
+
+    @Column(length = TAMANHO_BAIRRO)
     private String bairro;
+
+    @Column(length = TAMANHO_MUNICIPIO)
     private String municipio;
+
+    @Column(length = TAMANHO_ESTADO)
     private String estado;
 
+    // Fora do JSON: a pessoa já contém o endereço (as versões do Envers são serializadas pela pessoa)
+    @JsonIgnore
     @OneToOne
     @JoinColumn(name = "pessoa_id")
     private Pessoa pessoa;
+
+    @PrePersist
+    @PreUpdate
+    void normalizarCep() {
+        int numero = DocumentoUtils.parseCep(cep);
+        cepNumero = numero < 0 ? null : numero;
+    }
 }
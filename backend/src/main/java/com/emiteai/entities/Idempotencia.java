@@ -0,0 +1,76 @@
+package com.emiteai.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Idempotency-Key reservada ou concluída (ArmazenamentoIdempotenciaBanco). Sem status a
+ * requisição original ainda está em andamento, e detém a chave até bloqueadoAte; dono identifica
+ * essa requisição, e muda quando outra assume a chave.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "idempotencia")
+public class Idempotencia implements Persistable<String> {
+
+    @Id
+    @Column(length = 255)
+    private String chave;
+
+    @Column(nullable = false, length = 64)
+    private String impressao;
+
+    private Integer status;
+
+    @Column(length = 100)
+    private String etag;
+
+    @Column(length = 500)
+    private String location;
+
+    @Column(columnDefinition = "TEXT")
+    private String corpo;
+
+    @Column(name = "expira_em", nullable = false)
+    private Instant expiraEm;
+
+    @Column(name = "bloqueado_ate")
+    private Instant bloqueadoAte;
+
+    @Column(length = 36)
+    private String dono;
+
+    @Transient
+    private boolean novo = true;
+
+    public Idempotencia(String chave, String dono, String impressao, Instant expiraEm, Instant bloqueadoAte) {
+        this.chave = chave;
+        this.dono = dono;
+        this.impressao = impressao;
+        this.expiraEm = expiraEm;
+        this.bloqueadoAte = bloqueadoAte;
+    }
+
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        novo = false;
+    }
+}
@@ -1,27 +1,87 @@
 package com.emiteai.entities;
 
+import com.emiteai.service.IndiceCpfEntityListener;
+import com.emiteai.util.DocumentoUtils;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
+
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Getter
 @Setter
 @Audited
+@Cacheable
+// READ_WRITE: soft locks durante a transação garantem que nenhuma leitura veja dados não commitados
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@EntityListeners(IndiceCpfEntityListener.class)
 public class Pessoa {
 
+    // Tamanhos das colunas (V1__create_tables.sql), conferidos pelo PessoaService antes de gravar
+    public static final int TAMANHO_NOME = 255;
+    public static final int TAMANHO_TELEFONE = 50;
+    public static final int TAMANHO_CPF = 14;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pessoa_seq")
+    @SequenceGenerator(name = "pessoa_seq", sequenceName = "pessoa_id_seq", allocationSize = 50)
     private Long id;
 
+    @Column(length = TAMANHO_NOME)
     private String nome;
+
+    @Column(length = TAMANHO_TELEFONE)
     private String telefone;
 
-    @Column(unique = true)
+    @Column(unique = true, length = TAMANHO_CPF)
     private String cpf;
 
-    @OneToOne(mappedBy = "pessoa", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-    private Endereco endereco;
+    // Forma numérica do CPF, derivada de cpf; é a chave usada nas buscas
+    @NaturalId(mutable = true)
+    @NotAudited
+    @Column(name = "cpf_numero", unique = true)
+    private Long cpfNumero;
+
+    // Controle de concorrência otimista (ETag / If-Match); o Envers não audita este campo
+    @Version
+    private Long versao;
+
+    // Relação 1:1 mapeada como coleção de no máximo um elemento: o Hibernate não guarda no cache
+    // de segundo nível o lado inverso de um @OneToOne (cada leitura faria um SELECT por pessoa_id),
+    // enquanto coleções têm região de cache própria. Acesso apenas por getEndereco/setEndereco.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @OneToMany(mappedBy = "pessoa", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100)
+    private Set<Endereco> enderecos = new HashSet<>();
+
+    public Endereco getEndereco() {
+        return enderecos.isEmpty() ? null : enderecos.iterator().next();
+    }
+
+    public void setEndereco(Endereco endereco) {
+        enderecos.clear();
+        if (endereco != null) {
+            enderecos.add(endereco);
+        }
+    }
 
+    @PrePersist
+    @PreUpdate
+    void normalizarCpf() {
+        long numero = DocumentoUtils.parseCpf(cpf);
+        cpfNumero = numero == DocumentoUtils.INVALIDO ? null : numero;
+    }
 }
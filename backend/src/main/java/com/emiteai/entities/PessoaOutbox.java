@@ -0,0 +1,49 @@
+package com.emiteai.entities;
+
+import com.emiteai.events.PessoaAlteradaEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Evento de pessoa pendente de publicação no RabbitMQ (padrão outbox transacional).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "pessoa_outbox")
+public class PessoaOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pessoa_outbox_seq")
+    @SequenceGenerator(name = "pessoa_outbox_seq", sequenceName = "pessoa_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "pessoa_id", nullable = false)
+    private Long pessoaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PessoaAlteradaEvent.Tipo tipo;
+
+    @Column(nullable = false)
+    private long revisao;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    public PessoaOutbox(PessoaAlteradaEvent evento, String payload) {
+        this.pessoaId = evento.getId();
+        this.tipo = evento.getTipo();
+        this.revisao = evento.getRevisao();
+        this.payload = payload;
+        this.criadoEm = Instant.now();
+    }
+}
@@ -0,0 +1,38 @@
+package com.emiteai.events;
+
+import com.emiteai.dtos.PessoaDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Evento publicado pelo PessoaService a cada escrita de pessoa.
+ * Permite que índices, caches e notificações reajam às alterações sem acoplar o serviço a eles.
+ */
+@Getter
+@AllArgsConstructor
+public class PessoaAlteradaEvent {
+
+    public enum Tipo {
+        CRIACAO,
+        ATUALIZACAO,
+        REMOCAO
+    }
+
+    private final Tipo tipo;
+    private final Long id;
+    @Getter(AccessLevel.NONE)
+    private final LongSupplier revisao; // Revisão do Envers gravada pela transação, conhecida a partir do commit
+    private final PessoaDTO anterior;   // null na criação
+    private final PessoaDTO atual;      // null na remoção
+
+    public PessoaAlteradaEvent(Tipo tipo, Long id, long revisao, PessoaDTO anterior, PessoaDTO atual) {
+        this(tipo, id, () -> revisao, anterior, atual);
+    }
+
+    public long getRevisao() {
+        return revisao.getAsLong();
+    }
+}
@@ -0,0 +1,11 @@
+package com.emiteai.exception;
+
+/**
+ * Lançada quando uma Idempotency-Key é reutilizada com uma requisição diferente da original.
+ */
+public class IdempotenciaConflitanteException extends RuntimeException {
+
+    public IdempotenciaConflitanteException() {
+        super("Idempotency-Key já usada em outra requisição");
+    }
+}
@@ -0,0 +1,11 @@
+package com.emiteai.exception;
+
+/**
+ * Lançada quando a requisição original com a mesma Idempotency-Key não termina dentro da espera.
+ */
+public class IdempotenciaEmAndamentoException extends RuntimeException {
+
+    public IdempotenciaEmAndamentoException() {
+        super("Requisição com a mesma Idempotency-Key ainda em andamento");
+    }
+}
@@ -0,0 +1,11 @@
+package com.emiteai.exception;
+
+/**
+ * Lançada quando o If-Match enviado não corresponde à versão atual do recurso.
+ */
+public class VersaoDivergenteException extends RuntimeException {
+
+    public VersaoDivergenteException() {
+        super("A pessoa foi alterada desde a última leitura");
+    }
+}
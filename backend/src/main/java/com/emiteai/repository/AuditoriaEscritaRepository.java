@@ -0,0 +1,49 @@
+package com.emiteai.repository;
+
+import com.emiteai.entities.Auditoria;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+/**
+ * Gravação da auditoria pelo pool "auditoria" (DataSourceConfig), fora do EntityManager da API.
+ * As consultas continuam no AuditoriaRepository.
+ */
+@Repository
+public class AuditoriaEscritaRepository {
+
+    private static final String INSERT = """
+        INSERT INTO auditoria (timestamp_requisicao, metodo_http, endpoint, ip_origem, user_agent,
+                               dados_requisicao, status_resposta, dados_resposta, tempo_processamento,
+                               erro, usuario_identificado)
+        VALUES (:timestampRequisicao, :metodoHttp, :endpoint, :ipOrigem, :userAgent,
+                :dadosRequisicao, :statusResposta, :dadosResposta, :tempoProcessamento,
+                :erro, :usuarioIdentificado)
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public AuditoriaEscritaRepository(@Qualifier("dataSourceAuditoria") DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Transactional(transactionManager = "auditoriaTransactionManager")
+    public void inserir(Auditoria auditoria) {
+        jdbcTemplate.update(INSERT, new MapSqlParameterSource()
+            .addValue("timestampRequisicao", auditoria.getTimestampRequisicao())
+            .addValue("metodoHttp", auditoria.getMetodoHttp())
+            .addValue("endpoint", auditoria.getEndpoint())
+            .addValue("ipOrigem", auditoria.getIpOrigem())
+            .addValue("userAgent", auditoria.getUserAgent())
+            .addValue("dadosRequisicao", auditoria.getDadosRequisicao())
+            .addValue("statusResposta", auditoria.getStatusResposta())
+            .addValue("dadosResposta", auditoria.getDadosResposta())
+            .addValue("tempoProcessamento", auditoria.getTempoProcessamento())
+            .addValue("erro", auditoria.getErro())
+            .addValue("usuarioIdentificado", auditoria.getUsuarioIdentificado()));
+    }
+}
@@ -8,6 +8,10 @@ import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Consultas da auditoria, chamadas pelo AuditoriaService em transações somente leitura (que já
+ * dispensam o snapshot para dirty checking e o flush); as gravações ficam no AuditoriaEscritaRepository.
+ */
 public interface AuditoriaRepository extends JpaRepository<Auditoria, Long> {
 
     List<Auditoria> findByEndpointContainingIgnoreCase(String endpoint);
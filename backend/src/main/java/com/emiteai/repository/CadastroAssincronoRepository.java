@@ -0,0 +1,15 @@
+package com.emiteai.repository;
+
+import com.emiteai.entities.CadastroAssincrono;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CadastroAssincronoRepository extends JpaRepository<CadastroAssincrono, String> {
+
+    @Query("SELECT c.id FROM CadastroAssincrono c WHERE c.id IN :ids")
+    List<String> findIdsExistentes(@Param("ids") Collection<String> ids);
+}
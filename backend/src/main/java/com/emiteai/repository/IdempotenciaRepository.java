@@ -0,0 +1,45 @@
+package com.emiteai.repository;
+
+import com.emiteai.entities.Idempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface IdempotenciaRepository extends JpaRepository<Idempotencia, String> {
+
+    // Só o dono da reserva conclui: uma requisição cuja chave foi assumida por outra não grava nada
+    @Modifying
+    @Query("UPDATE Idempotencia i SET i.status = :status, i.etag = :etag, i.location = :location, i.corpo = :corpo " +
+           "WHERE i.chave = :chave AND i.dono = :dono AND i.status IS NULL")
+    int concluir(@Param("chave") String chave, @Param("dono") String dono, @Param("status") int status,
+                 @Param("etag") String etag, @Param("location") String location, @Param("corpo") String corpo);
+
+    // Renova o prazo das reservas que esta instância ainda está executando (donos são únicos entre instâncias)
+    @Modifying
+    @Query("UPDATE Idempotencia i SET i.bloqueadoAte = :ate WHERE i.dono IN :donos AND i.status IS NULL")
+    int renovar(@Param("donos") Collection<String> donos, @Param("ate") Instant ate);
+
+    // Assume uma chave em andamento cujo prazo venceu; só uma requisição consegue (0 linhas para as demais)
+    @Modifying
+    @Query("UPDATE Idempotencia i SET i.dono = :dono, i.bloqueadoAte = :ate WHERE i.chave = :chave AND i.status IS NULL " +
+           "AND (i.bloqueadoAte IS NULL OR i.bloqueadoAte < :agora)")
+    int assumir(@Param("chave") String chave, @Param("dono") String dono, @Param("agora") Instant agora,
+                @Param("ate") Instant ate);
+
+    @Modifying
+    @Query("DELETE FROM Idempotencia i WHERE i.chave = :chave AND i.dono = :dono AND i.status IS NULL")
+    int liberar(@Param("chave") String chave, @Param("dono") String dono);
+
+    // Apaga a chave só se ainda estiver vencida: outra requisição pode tê-la recriado nesse meio tempo
+    @Modifying
+    @Query("DELETE FROM Idempotencia i WHERE i.chave = :chave AND i.expiraEm < :agora")
+    int deleteVencida(@Param("chave") String chave, @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("DELETE FROM Idempotencia i WHERE i.expiraEm < :agora")
+    int deleteExpiradas(@Param("agora") Instant agora);
+}
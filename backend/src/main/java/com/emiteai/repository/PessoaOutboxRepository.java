@@ -0,0 +1,22 @@
+package com.emiteai.repository;
+
+import com.emiteai.entities.PessoaOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface PessoaOutboxRepository extends JpaRepository<PessoaOutbox, Long> {
+
+    // Trava o lote até o fim da transação do relay; linhas já travadas por outra instância
+    // são puladas (timeout -2 = SKIP LOCKED nos bancos que suportam)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM PessoaOutbox o ORDER BY o.id")
+    List<PessoaOutbox> findPendentes(Pageable pagina);
+}
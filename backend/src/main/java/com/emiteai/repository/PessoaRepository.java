@@ -1,14 +1,116 @@
 package com.emiteai.repository;
 
+import com.emiteai.dtos.PessoaDTO;
 import com.emiteai.entities.Pessoa;
+import com.emiteai.util.DocumentoUtils;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PessoaRepository extends JpaRepository<Pessoa, Long> {
+public interface PessoaRepository extends JpaRepository<Pessoa, Long>, PessoaRepositoryCustom {
 
-    Optional<Pessoa> findByCpf(String cpf);
+    // Linhas buscadas por ida ao banco ao percorrer o cursor JDBC do stream
+    String TAMANHO_FETCH_STREAM = "500";
 
-    boolean existsByCpf(String cpf);
+    @Transactional(readOnly = true)
+    boolean existsByCpfNumero(Long cpfNumero);
+
+    // Busca pela chave numérica: aceita o CPF com ou sem pontuação
+    default Optional<Pessoa> findByCpf(String cpf) {
+        long numero = DocumentoUtils.parseCpf(cpf);
+        return numero == DocumentoUtils.INVALIDO ? Optional.empty() : findByCpfNumero(numero);
+    }
+
+    default boolean existsByCpf(String cpf) {
+        long numero = DocumentoUtils.parseCpf(cpf);
+        return numero != DocumentoUtils.INVALIDO && existsByCpfNumero(numero);
+    }
+
+    // Retorna pares [cpfNumero, id] apenas dos CPFs já cadastrados
+    @Query("SELECT p.cpfNumero, p.id FROM Pessoa p WHERE p.cpfNumero IN :cpfs")
+    List<Object[]> findIdsByCpfNumeroIn(@Param("cpfs") Collection<Long> cpfs);
+
+    // Projeção das leituras: monta o PessoaDTO direto do resultado, com um único LEFT JOIN ao
+    // endereço, sem entidades gerenciadas nem snapshots de dirty checking
+    String SELECT_DTO = "SELECT new com.emiteai.dtos.PessoaDTO(" +
+        "p.id, p.nome, p.telefone, p.cpf, p.versao, " +
+        "e.id, e.numero, e.complemento, e.cep, e.bairro, e.municipio, e.estado, e.versao) " +
+        "FROM Pessoa p LEFT JOIN p.enderecos e ";
+
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    List<PessoaDTO> findTodasComoDTO();
+
+    // Chamadas fora de transação pelo PessoaService (só em miss do cache): somente leitura aqui
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + "WHERE p.id = :id")
+    Optional<PessoaDTO> findDTOById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_DTO + "WHERE p.cpfNumero = :cpf")
+    Optional<PessoaDTO> findDTOByCpfNumero(@Param("cpf") Long cpfNumero);
+
+    @Query(SELECT_DTO + "WHERE p.id IN :ids")
+    List<PessoaDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_DTO + "WHERE p.cpfNumero IN :cpfs")
+    List<PessoaDTO> findDTOsByCpfNumeroIn(@Param("cpfs") Collection<Long> cpfs);
+
+    // Pessoas por estado e município em uma única agregação: [estado, municipio, total]
+    @Query("SELECT e.estado, e.municipio, COUNT(e) FROM Endereco e " +
+           "WHERE e.estado IS NOT NULL GROUP BY e.estado, e.municipio ORDER BY e.estado, e.municipio")
+    List<Object[]> contarPorEstadoEMunicipio();
+
+    // Paginação por keyset: o custo de cada página não depende da posição na tabela.
+    // Como o endereço é no máximo um por pessoa, o join não multiplica linhas e o limite vai para o SQL
+    @Query(SELECT_DTO + "WHERE p.id > :after ORDER BY p.id")
+    List<PessoaDTO> findPaginaOrdenadaPorId(@Param("after") Long after, Pageable pageable);
+
+    @Query(SELECT_DTO + "ORDER BY p.nome, p.id")
+    List<PessoaDTO> findPrimeiraPaginaOrdenadaPorNome(Pageable pageable);
+
+    @Query(SELECT_DTO +
+           "WHERE p.nome > :nome OR (p.nome = :nome AND p.id > :id) ORDER BY p.nome, p.id")
+    List<PessoaDTO> findPaginaOrdenadaPorNome(@Param("nome") String nome, @Param("id") Long id, Pageable pageable);
+
+    // Pessoas alteradas (na própria linha ou no endereço) nas revisões do Envers até :ate, a partir do
+    // cursor (revApos, idApos), em ordem de revisão e id: [rev, pessoa_id]
+    @Query(value = "SELECT m.rev, m.pessoa_id FROM (" +
+                   "SELECT a.rev, a.id AS pessoa_id FROM pessoa_aud a WHERE a.rev >= :revApos AND a.rev <= :ate " +
+                   "UNION " +
+                   "SELECT e.rev, e.pessoa_id FROM endereco_aud e " +
+                   "WHERE e.rev >= :revApos AND e.rev <= :ate AND e.pessoa_id IS NOT NULL" +
+                   ") m WHERE m.rev > :revApos OR (m.rev = :revApos AND m.pessoa_id > :idApos) " +
+                   "ORDER BY m.rev, m.pessoa_id LIMIT :limite",
+           nativeQuery = true)
+    List<Object[]> findMudancas(@Param("revApos") long revApos, @Param("idApos") long idApos,
+                                @Param("ate") long ate, @Param("limite") int limite);
+
+    // Deve ser consumido dentro de uma transação e fechado ao final (try-with-resources)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TAMANHO_FETCH_STREAM),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    Stream<PessoaDTO> streamTodas();
+
+    // Usado na carga do autocomplete de nomes: [id, nome]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TAMANHO_FETCH_STREAM))
+    @Query("SELECT p.id, p.nome FROM Pessoa p WHERE p.nome IS NOT NULL")
+    Stream<Object[]> streamIdsENomes();
+
+    // Usado na carga do índice de CPFs em memória
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TAMANHO_FETCH_STREAM))
+    @Query("SELECT p.cpfNumero FROM Pessoa p WHERE p.cpfNumero IS NOT NULL")
+    Stream<Long> streamCpfsNumericos();
 
 }
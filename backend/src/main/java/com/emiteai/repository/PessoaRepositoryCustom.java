@@ -0,0 +1,34 @@
+package com.emiteai.repository;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.entities.Pessoa;
+import com.emiteai.util.CamposPessoa;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PessoaRepositoryCustom {
+
+    /**
+     * Busca pelo CPF numérico (natural id), resolvido pelo cache de segundo nível quando possível.
+     */
+    Optional<Pessoa> findByCpfNumero(Long cpfNumero);
+
+    /**
+     * Todas as pessoas ordenadas por id, consultando só as colunas dos campos pedidos.
+     */
+    List<PessoaDTO> findTodasComCampos(CamposPessoa campos);
+
+    /**
+     * Página por keyset (sort "id" ou "nome") consultando só as colunas dos campos pedidos.
+     * nomeApos nulo indica a primeira página ordenada por nome.
+     */
+    List<PessoaDTO> findPaginaComCampos(CamposPessoa campos, String sort, String nomeApos, Long idApos, int limite);
+
+    /**
+     * Busca com filtros opcionais (nulos são ignorados), paginada por id a partir de after.
+     * Os valores já devem vir normalizados: nome em minúsculas, estado em maiúsculas e CEP numérico.
+     */
+    List<PessoaDTO> buscar(CamposPessoa campos, String prefixoNome, String estado, String municipio,
+                           String bairro, Integer cep, Long after, int limite);
+}
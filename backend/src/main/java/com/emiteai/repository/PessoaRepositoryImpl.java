@@ -0,0 +1,163 @@
+package com.emiteai.repository;
+
+import com.emiteai.dtos.EnderecoDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.entities.Pessoa;
+import com.emiteai.util.CamposPessoa;
+import com.emiteai.util.CamposPessoa.Campo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementações do PessoaRepository que dependem da API nativa do Hibernate
+ * ou de JPQL montado em tempo de execução.
+ */
+public class PessoaRepositoryImpl implements PessoaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Pessoa> findByCpfNumero(Long cpfNumero) {
+        return entityManager.unwrap(Session.class)
+            .bySimpleNaturalId(Pessoa.class)
+            .loadOptional(cpfNumero);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PessoaDTO> findTodasComCampos(CamposPessoa campos) {
+        return consultar(campos, false, false, "", Map.of(), "p.id", null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PessoaDTO> findPaginaComCampos(CamposPessoa campos, String sort, String nomeApos, Long idApos,
+                                               int limite) {
+        if (!"nome".equals(sort)) {
+            return consultar(campos, false, false, "WHERE p.id > :id", Map.of("id", idApos), "p.id", limite);
+        }
+        // O nome entra na consulta mesmo sem ter sido pedido, porque forma o cursor da próxima página
+        if (nomeApos == null) {
+            return consultar(campos, true, false, "", Map.of(), "p.nome, p.id", limite);
+        }
+        return consultar(campos, true, false, "WHERE p.nome > :nome OR (p.nome = :nome AND p.id > :id)",
+            Map.of("nome", nomeApos, "id", idApos), "p.nome, p.id", limite);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PessoaDTO> buscar(CamposPessoa campos, String prefixoNome, String estado, String municipio,
+                                  String bairro, Integer cep, Long after, int limite) {
+        // Só entram no WHERE os filtros informados, para o banco escolher o índice de cada combinação
+        StringBuilder where = new StringBuilder("WHERE p.id > :after");
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("after", after);
+
+        if (prefixoNome != null) {
+            where.append(" AND LOWER(p.nome) LIKE :nome ESCAPE '\\'");
+            parametros.put("nome", escaparLike(prefixoNome) + "%");
+        }
+        if (estado != null) {
+            where.append(" AND e.estado = :estado");
+            parametros.put("estado", estado);
+        }
+        if (municipio != null) {
+            where.append(" AND e.municipio = :municipio");
+            parametros.put("municipio", municipio);
+        }
+        if (bairro != null) {
+            where.append(" AND e.bairro = :bairro");
+            parametros.put("bairro", bairro);
+        }
+        if (cep != null) {
+            where.append(" AND e.cepNumero = :cep");
+            parametros.put("cep", cep);
+        }
+        boolean filtraEndereco = estado != null || municipio != null || bairro != null || cep != null;
+        return consultar(campos, false, filtraEndereco, where.toString(), parametros, "p.id", limite);
+    }
+
+    /**
+     * Monta a projeção só com as colunas dos campos pedidos (o id sempre vem, pois é o cursor)
+     * e só faz o join com endereco quando algum campo ou filtro de endereço precisa dele.
+     */
+    private List<PessoaDTO> consultar(CamposPessoa campos, boolean comNome, boolean comJoin, String where,
+                                      Map<String, Object> parametros, String ordem, Integer limite) {
+        boolean nome = comNome || campos.contem(Campo.NOME);
+        boolean telefone = campos.contem(Campo.TELEFONE);
+        boolean cpf = campos.contem(Campo.CPF);
+        boolean versao = campos.contem(Campo.VERSAO);
+        boolean endereco = campos.contem(Campo.ENDERECO);
+
+        StringBuilder jpql = new StringBuilder("SELECT p.id");
+        if (nome) {
+            jpql.append(", p.nome");
+        }
+        if (telefone) {
+            jpql.append(", p.telefone");
+        }
+        if (cpf) {
+            jpql.append(", p.cpf");
+        }
+        if (versao) {
+            jpql.append(", p.versao");
+        }
+        if (endereco) {
+            jpql.append(", e.id, e.numero, e.complemento, e.cep, e.bairro, e.municipio, e.estado, e.versao");
+        }
+        jpql.append(" FROM Pessoa p ");
+        if (endereco || comJoin) {
+            jpql.append("LEFT JOIN p.enderecos e ");
+        }
+        jpql.append(where).append(" ORDER BY ").append(ordem);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parametros.forEach(query::setParameter);
+        if (limite != null) {
+            query.setMaxResults(limite);
+        }
+
+        List<Object[]> linhas = query.getResultList();
+        List<PessoaDTO> pessoas = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            int i = 0;
+            PessoaDTO pessoa = new PessoaDTO();
+            pessoa.setId((Long) linha[i++]);
+            if (nome) {
+                pessoa.setNome((String) linha[i++]);
+            }
+            if (telefone) {
+                pessoa.setTelefone((String) linha[i++]);
+            }
+            if (cpf) {
+                pessoa.setCpf((String) linha[i++]);
+            }
+            if (versao) {
+                pessoa.setVersao((Long) linha[i++]);
+            }
+            if (endereco && linha[i] != null) {
+                pessoa.setEndereco(new EnderecoDTO((Long) linha[i], (String) linha[i + 1], (String) linha[i + 2],
+                    (String) linha[i + 3], (String) linha[i + 4], (String) linha[i + 5], (String) linha[i + 6],
+                    (Long) linha[i + 7]));
+            }
+            pessoas.add(pessoa);
+        }
+        return pessoas;
+    }
+
+    // % e _ digitados pelo usuário são literais, não curingas
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
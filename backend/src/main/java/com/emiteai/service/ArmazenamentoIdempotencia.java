@@ -0,0 +1,40 @@
+package com.emiteai.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Guarda, por Idempotency-Key, a impressão da requisição e a resposta concluída, por tempo limitado.
+ * Em memória por padrão; no banco (emiteai.idempotencia.armazenamento=banco) quando há mais de uma instância.
+ */
+public interface ArmazenamentoIdempotencia {
+
+    @Getter
+    @AllArgsConstructor
+    class Resposta {
+        private final int status;
+        private final String etag;
+        private final String location;
+        private final String corpo; // JSON
+    }
+
+    /**
+     * Reserva a chave para esta requisição (retorno vazio: quem chamou deve executá-la e depois
+     * concluir ou liberar). Se a chave já foi concluída, devolve a resposta; se está em andamento,
+     * espera por ela até o limite. Lança IdempotenciaConflitanteException se a impressão difere
+     * e IdempotenciaEmAndamentoException se a espera se esgota.
+     * O dono identifica esta requisição, único entre todas as instâncias; concluir e liberar
+     * só têm efeito enquanto a reserva continua com ele.
+     */
+    Optional<Resposta> reservar(String chave, String dono, String impressao, Duration espera);
+
+    void concluir(String chave, String dono, Resposta resposta);
+
+    /**
+     * Desfaz a reserva de uma requisição que falhou; quem espera por ela tenta de novo.
+     */
+    void liberar(String chave, String dono);
+}
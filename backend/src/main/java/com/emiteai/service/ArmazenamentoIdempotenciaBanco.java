@@ -0,0 +1,175 @@
+package com.emiteai.service;
+
+import com.emiteai.entities.Idempotencia;
+import com.emiteai.exception.IdempotenciaConflitanteException;
+import com.emiteai.exception.IdempotenciaEmAndamentoException;
+import com.emiteai.repository.IdempotenciaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chaves de idempotência na tabela idempotencia, compartilhadas entre instâncias. A reserva é um
+ * INSERT pela chave primária; quem perde a corrida consulta a linha até a resposta ser gravada.
+ * A reserva em andamento vale até bloqueado_ate, renovado por esta instância enquanto executa:
+ * se ela cair, a próxima repetição assume a chave quando o prazo vence. Conclusão, liberação e
+ * renovação exigem o dono gravado na linha: a requisição original, se voltar depois de perder a
+ * chave, não sobrescreve a resposta nem apaga a reserva de quem a assumiu.
+ * Linhas vencidas são apagadas periodicamente pelas próprias reservas.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "emiteai.idempotencia.armazenamento", havingValue = "banco")
+public class ArmazenamentoIdempotenciaBanco implements ArmazenamentoIdempotencia {
+
+    // Intervalo entre consultas enquanto a requisição original está em andamento
+    private static final long INTERVALO_CONSULTA_MS = 50;
+
+    private final IdempotenciaRepository idempotenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration bloqueio;
+    private final AtomicLong proximaLimpeza = new AtomicLong();
+    // Donos das reservas desta instância ainda não concluídas nem liberadas
+    private final Set<String> emAndamento = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService renovacao;
+
+    public ArmazenamentoIdempotenciaBanco(IdempotenciaRepository idempotenciaRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${emiteai.idempotencia.ttl:24h}") Duration ttl,
+                                          @Value("${emiteai.idempotencia.bloqueio:30s}") Duration bloqueio) {
+        this.idempotenciaRepository = idempotenciaRepository;
+        // Cada operação é confirmada na hora, para ser vista pelas outras instâncias
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.bloqueio = bloqueio;
+        this.renovacao = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "idempotencia-renovacao");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Três renovações por prazo: uma falha isolada não deixa a chave vencer
+        long intervalo = Math.max(bloqueio.toMillis() / 3, 1);
+        renovacao.scheduleWithFixedDelay(this::renovar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<Resposta> reservar(String chave, String dono, String impressao, Duration espera) {
+        limparVencidas();
+        long limite = System.nanoTime() + espera.toNanos();
+        while (true) {
+            if (inserir(chave, dono, impressao)) {
+                emAndamento.add(dono);
+                return Optional.empty();
+            }
+            Idempotencia existente = transactionTemplate.execute(status -> idempotenciaRepository.findById(chave).orElse(null));
+            if (existente == null) {
+                continue; // Liberada entre o INSERT e a leitura
+            }
+            if (existente.getExpiraEm().isBefore(Instant.now())) {
+                transactionTemplate.executeWithoutResult(status -> idempotenciaRepository.deleteVencida(chave, Instant.now()));
+                continue;
+            }
+            if (!existente.getImpressao().equals(impressao)) {
+                throw new IdempotenciaConflitanteException();
+            }
+            if (existente.getStatus() != null) {
+                return Optional.of(new Resposta(existente.getStatus(), existente.getEtag(), existente.getLocation(), existente.getCorpo()));
+            }
+            if (assumirSeAbandonada(chave, dono)) {
+                emAndamento.add(dono);
+                return Optional.empty();
+            }
+            if (System.nanoTime() - limite >= 0) {
+                throw new IdempotenciaEmAndamentoException();
+            }
+            try {
+                Thread.sleep(INTERVALO_CONSULTA_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotenciaEmAndamentoException();
+            }
+        }
+    }
+
+    @Override
+    public void concluir(String chave, String dono, Resposta resposta) {
+        emAndamento.remove(dono);
+        Integer concluidas = transactionTemplate.execute(status -> idempotenciaRepository.concluir(
+            chave, dono, resposta.getStatus(), resposta.getEtag(), resposta.getLocation(), resposta.getCorpo()));
+        if (concluidas == null || concluidas == 0) {
+            log.warn("Resposta da chave de idempotência {} descartada: a reserva foi assumida por outra requisição", chave);
+        }
+    }
+
+    @Override
+    public void liberar(String chave, String dono) {
+        emAndamento.remove(dono);
+        transactionTemplate.executeWithoutResult(status -> idempotenciaRepository.liberar(chave, dono));
+    }
+
+    @PreDestroy
+    void fechar() {
+        renovacao.shutdownNow();
+    }
+
+    private boolean inserir(String chave, String dono, String impressao) {
+        try {
+            Instant agora = Instant.now();
+            transactionTemplate.executeWithoutResult(status -> idempotenciaRepository.saveAndFlush(
+                new Idempotencia(chave, dono, impressao, agora.plus(ttl), agora.plus(bloqueio))));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // Requisição em andamento cuja instância parou de renovar o prazo (caiu ou perdeu o banco)
+    private boolean assumirSeAbandonada(String chave, String dono) {
+        Instant agora = Instant.now();
+        Integer assumidas = transactionTemplate.execute(status ->
+            idempotenciaRepository.assumir(chave, dono, agora, agora.plus(bloqueio)));
+        return assumidas != null && assumidas == 1;
+    }
+
+    void renovar() {
+        if (emAndamento.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> donos = List.copyOf(emAndamento);
+            transactionTemplate.executeWithoutResult(status ->
+                idempotenciaRepository.renovar(donos, Instant.now().plus(bloqueio)));
+        } catch (RuntimeException e) {
+            // Tenta de novo no próximo ciclo; o prazo cobre algumas falhas seguidas
+            log.warn("Falha ao renovar chaves de idempotência em andamento: {}", e.getMessage());
+        }
+    }
+
+    // No máximo uma limpeza por minuto por instância
+    private void limparVencidas() {
+        long agora = System.currentTimeMillis();
+        long proxima = proximaLimpeza.get();
+        if (agora >= proxima && proximaLimpeza.compareAndSet(proxima, agora + 60_000)) {
+            transactionTemplate.executeWithoutResult(status -> idempotenciaRepository.deleteExpiradas(Instant.now()));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.emiteai.service;
+
+import com.emiteai.exception.IdempotenciaConflitanteException;
+import com.emiteai.exception.IdempotenciaEmAndamentoException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Chaves de idempotência em um cache Caffeine limitado por tamanho e TTL, válidas só nesta instância.
+ * Requisições concorrentes com a mesma chave esperam pelo futuro da primeira.
+ */
+@Component
+@ConditionalOnProperty(name = "emiteai.idempotencia.armazenamento", havingValue = "memoria", matchIfMissing = true)
+public class ArmazenamentoIdempotenciaMemoria implements ArmazenamentoIdempotencia {
+
+    private final Cache<String, Entrada> entradas;
+
+    public ArmazenamentoIdempotenciaMemoria(MeterRegistry meterRegistry,
+                                            @Value("${emiteai.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                                            @Value("${emiteai.idempotencia.ttl:24h}") Duration ttl) {
+        this.entradas = Caffeine.newBuilder()
+            .maximumSize(tamanhoMaximo)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entradas, "idempotencia");
+    }
+
+    @Override
+    public Optional<Resposta> reservar(String chave, String dono, String impressao, Duration espera) {
+        long limite = System.nanoTime() + espera.toNanos();
+        while (true) {
+            Entrada existente = entradas.asMap().putIfAbsent(chave, new Entrada(dono, impressao));
+            if (existente == null) {
+                return Optional.empty();
+            }
+            if (!existente.impressao.equals(impressao)) {
+                throw new IdempotenciaConflitanteException();
+            }
+            try {
+                Resposta resposta = existente.resposta.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (resposta != null) {
+                    return Optional.of(resposta);
+                }
+                // Liberada: a requisição original falhou e esta pode executar
+            } catch (TimeoutException e) {
+                throw new IdempotenciaEmAndamentoException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotenciaEmAndamentoException();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public void concluir(String chave, String dono, Resposta resposta) {
+        Entrada entrada = entradas.getIfPresent(chave);
+        if (entrada != null && entrada.dono.equals(dono)) {
+            entrada.resposta.complete(resposta);
+        }
+    }
+
+    @Override
+    public void liberar(String chave, String dono) {
+        Entrada entrada = entradas.getIfPresent(chave);
+        if (entrada != null && entrada.dono.equals(dono) && entradas.asMap().remove(chave, entrada)) {
+            entrada.resposta.complete(null);
+        }
+    }
+
+    private static final class Entrada {
+
+        private final String dono;
+        private final String impressao;
+        private final CompletableFuture<Resposta> resposta = new CompletableFuture<>();
+
+        private Entrada(String dono, String impressao) {
+            this.dono = dono;
+            this.impressao = impressao;
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package com.emiteai.service;
 
 import com.emiteai.entities.Auditoria;
+import com.emiteai.repository.AuditoriaEscritaRepository;
 import com.emiteai.repository.AuditoriaRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -20,6 +22,9 @@ public class AuditoriaService {
     @Autowired
     private AuditoriaRepository auditoriaRepository;
 
+    @Autowired
+    private AuditoriaEscritaRepository auditoriaEscritaRepository; // pool de conexões próprio
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -68,7 +73,7 @@ public class AuditoriaService {
                 auditoria.setErro(erro.getClass().getSimpleName() + ": " + erro.getMessage());
             }
             
-            auditoriaRepository.save(auditoria);
+            auditoriaEscritaRepository.inserir(auditoria);
             
         } catch (Exception e) {
             log.error("Erro ao registrar auditoria: {}", e.getMessage(), e);
@@ -89,24 +94,29 @@ public class AuditoriaService {
         return request.getRemoteAddr();
     }
 
+    @Transactional(readOnly = true)
     public List<Auditoria> buscarAuditoriasPorEndpoint(String endpoint) {
         return auditoriaRepository.findByEndpointContainingIgnoreCase(endpoint);
     }
 
+    @Transactional(readOnly = true)
     public List<Auditoria> buscarAuditoriasRecentes(int horas) {
         LocalDateTime inicio = LocalDateTime.now().minusHours(horas);
         return auditoriaRepository.findRecentAudits(inicio);
     }
 
+    @Transactional(readOnly = true)
     public List<Auditoria> buscarAuditoriasPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
         return auditoriaRepository.findByTimestampRequisicaoBetween(inicio, fim);
     }
 
+    @Transactional(readOnly = true)
     public Long contarRequisicoesUltimasHoras(int horas) {
         LocalDateTime inicio = LocalDateTime.now().minusHours(horas);
         return auditoriaRepository.countRequestsSince(inicio);
     }
 
+    @Transactional(readOnly = true)
     public List<Object[]> obterEstatisticasStatus(int horas) {
         LocalDateTime inicio = LocalDateTime.now().minusHours(horas);
         return auditoriaRepository.getStatusStatistics(inicio);
@@ -0,0 +1,435 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RoteamentoLeituraDataSource;
+import com.emiteai.dtos.SugestaoNomeDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.repository.PessoaRepository;
+import com.emiteai.util.NomeUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Autocomplete de nomes por prefixo, respondido de uma radix trie em memória sem acessar o banco.
+ * As chaves são os nomes normalizados (sem acentos, minúsculos); cada chave guarda os ids e nomes originais.
+ * Carregada na inicialização e mantida pelos eventos de escrita do PessoaService após o commit.
+ * Publica o tamanho estimado (pessoa.autocomplete.memoria) e o tempo de carga (pessoa.autocomplete.carga).
+ */
+@Service
+@Slf4j
+public class AutocompleteNomeService {
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    private final PessoaRepository pessoaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer tempoCarga;
+
+    // Leituras concorrentes; escritas (eventos e troca após recarga) exclusivas
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private RadixTrie trie = new RadixTrie();
+    private RadixTrie emConstrucao;
+    // Ids alterados por eventos durante a carga: a linha do snapshot, possivelmente anterior ao evento, é ignorada
+    private final Set<Long> alteradosNaCarga = new HashSet<>();
+
+    public AutocompleteNomeService(PessoaRepository pessoaRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.pessoaRepository = pessoaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.tempoCarga = Timer.builder("pessoa.autocomplete.carga")
+            .description("Tempo de construção da trie de nomes a partir do banco")
+            .register(meterRegistry);
+        Gauge.builder("pessoa.autocomplete.entradas", this, servico -> servico.lerTrie(RadixTrie::entradas))
+            .description("Pessoas indexadas no autocomplete")
+            .register(meterRegistry);
+        Gauge.builder("pessoa.autocomplete.nos", this, servico -> servico.lerTrie(RadixTrie::nos))
+            .description("Nós da trie de nomes")
+            .register(meterRegistry);
+        Gauge.builder("pessoa.autocomplete.memoria", this, servico -> servico.lerTrie(RadixTrie::bytesEstimados))
+            .description("Memória estimada da trie de nomes")
+            .baseUnit(BaseUnits.BYTES)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Até limite pessoas cujo nome normalizado começa com o prefixo, em ordem alfabética.
+     */
+    public List<SugestaoNomeDTO> sugerir(String prefixo, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new RuntimeException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        String chave = NomeUtils.normalizar(prefixo);
+        if (chave.isEmpty()) {
+            return List.of();
+        }
+        List<SugestaoNomeDTO> sugestoes = new ArrayList<>(limite);
+        lock.readLock().lock();
+        try {
+            trie.coletar(chave, limite, sugestoes);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return sugestoes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        RadixTrie nova = new RadixTrie();
+        lock.writeLock().lock();
+        try {
+            emConstrucao = nova;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // As sugestões continuam vindo da trie atual durante a carga; escritas concorrentes vão para as duas.
+        // A carga lê da primária, senão nomes que a réplica ainda não recebeu ficariam fora da trie.
+        long inicio = System.nanoTime();
+        RoteamentoLeituraDataSource.naPrimaria(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> linhas = pessoaRepository.streamIdsENomes()) {
+                for (Object[] linha : (Iterable<Object[]>) linhas::iterator) {
+                    Long id = (Long) linha[0];
+                    String nome = (String) linha[1];
+                    lock.writeLock().lock();
+                    try {
+                        if (!alteradosNaCarga.contains(id)) {
+                            nova.inserir(NomeUtils.normalizar(nome), id, nome);
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            }
+        }));
+
+        lock.writeLock().lock();
+        try {
+            trie = nova;
+            emConstrucao = null;
+            alteradosNaCarga.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        tempoCarga.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        log.info("Autocomplete de nomes carregado com {} pessoas ({} nós, ~{} KB) em {} ms",
+            nova.entradas(), nova.nos(), nova.bytesEstimados() / 1024, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPessoa(PessoaAlteradaEvent evento) {
+        lock.writeLock().lock();
+        try {
+            aplicar(trie, evento);
+            if (emConstrucao != null) {
+                // O evento já deixa a nova trie no estado atual da pessoa; linhas antigas dela são ignoradas
+                aplicar(emConstrucao, evento);
+                alteradosNaCarga.add(evento.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void aplicar(RadixTrie destino, PessoaAlteradaEvent evento) {
+        if (evento.getAnterior() != null) {
+            destino.remover(NomeUtils.normalizar(evento.getAnterior().getNome()), evento.getId());
+        }
+        if (evento.getAtual() != null && evento.getAtual().getNome() != null) {
+            String nome = evento.getAtual().getNome();
+            destino.inserir(NomeUtils.normalizar(nome), evento.getId(), nome);
+        }
+    }
+
+    private double lerTrie(ToLongFunction<RadixTrie> leitura) {
+        lock.readLock().lock();
+        try {
+            return leitura.applyAsLong(trie);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Radix trie (Patricia) compacta: cada aresta guarda um trecho do nome em vez de um caractere,
+     * então cadeias sem ramificação ocupam um único nó. Filhos ficam em array ordenado pelo primeiro
+     * caractere (busca binária), e os valores em arrays paralelos de ids e nomes. Não é thread-safe.
+     */
+    static final class RadixTrie {
+
+        private static final No[] SEM_FILHOS = new No[0];
+        private static final long[] SEM_IDS = new long[0];
+        private static final String[] SEM_NOMES = new String[0];
+
+        private static final class No {
+            char[] rotulo;
+            No[] filhos = SEM_FILHOS;
+            long[] ids = SEM_IDS;
+            String[] nomes = SEM_NOMES;
+
+            No(char[] rotulo) {
+                this.rotulo = rotulo;
+            }
+        }
+
+        private final No raiz = new No(new char[0]);
+        private long entradas;
+        private long nos = 1;
+
+        long entradas() {
+            return entradas;
+        }
+
+        long nos() {
+            return nos;
+        }
+
+        void inserir(String chave, long id, String nome) {
+            char[] texto = chave.toCharArray();
+            No no = raiz;
+            int posicao = 0;
+            while (posicao < texto.length) {
+                int indice = indiceFilho(no, texto[posicao]);
+                if (indice < 0) {
+                    No folha = new No(Arrays.copyOfRange(texto, posicao, texto.length));
+                    no.filhos = inserirFilho(no.filhos, -indice - 1, folha);
+                    nos++;
+                    no = folha;
+                    break;
+                }
+                No filho = no.filhos[indice];
+                int comum = prefixoComum(filho.rotulo, texto, posicao);
+                if (comum < filho.rotulo.length) {
+                    // Divide a aresta: o trecho comum vira um nó intermediário
+                    No meio = new No(Arrays.copyOf(filho.rotulo, comum));
+                    filho.rotulo = Arrays.copyOfRange(filho.rotulo, comum, filho.rotulo.length);
+                    meio.filhos = new No[]{filho};
+                    no.filhos[indice] = meio;
+                    nos++;
+                    filho = meio;
+                }
+                no = filho;
+                posicao += comum;
+            }
+            for (long existente : no.ids) {
+                if (existente == id) {
+                    return;
+                }
+            }
+            no.ids = Arrays.copyOf(no.ids, no.ids.length + 1);
+            no.ids[no.ids.length - 1] = id;
+            no.nomes = Arrays.copyOf(no.nomes, no.nomes.length + 1);
+            no.nomes[no.nomes.length - 1] = nome;
+            entradas++;
+        }
+
+        void remover(String chave, long id) {
+            char[] texto = chave.toCharArray();
+            No pai = null;
+            int indiceNoPai = -1;
+            No no = raiz;
+            int posicao = 0;
+            while (posicao < texto.length) {
+                int indice = indiceFilho(no, texto[posicao]);
+                if (indice < 0) {
+                    return;
+                }
+                No filho = no.filhos[indice];
+                int comum = prefixoComum(filho.rotulo, texto, posicao);
+                if (comum < filho.rotulo.length) {
+                    return;
+                }
+                pai = no;
+                indiceNoPai = indice;
+                no = filho;
+                posicao += comum;
+            }
+
+            int valor = -1;
+            for (int i = 0; i < no.ids.length; i++) {
+                if (no.ids[i] == id) {
+                    valor = i;
+                    break;
+                }
+            }
+            if (valor < 0) {
+                return;
+            }
+            no.ids = removerPosicao(no.ids, valor);
+            no.nomes = removerPosicao(no.nomes, valor);
+            entradas--;
+
+            // Mantém a trie compacta: remove folhas vazias e funde nós sem valor com um único filho
+            if (pai == null || no.ids.length > 0) {
+                return;
+            }
+            if (no.filhos.length == 0) {
+                pai.filhos = removerPosicao(pai.filhos, indiceNoPai);
+                nos--;
+                if (pai != raiz && pai.ids.length == 0 && pai.filhos.length == 1) {
+                    fundirComFilho(pai);
+                }
+            } else if (no.filhos.length == 1) {
+                fundirComFilho(no);
+            }
+        }
+
+        /**
+         * Adiciona ao destino, em ordem alfabética, até limite valores cujas chaves começam com o prefixo.
+         */
+        void coletar(String prefixo, int limite, List<SugestaoNomeDTO> destino) {
+            char[] texto = prefixo.toCharArray();
+            No no = raiz;
+            int posicao = 0;
+            while (posicao < texto.length) {
+                int indice = indiceFilho(no, texto[posicao]);
+                if (indice < 0) {
+                    return;
+                }
+                No filho = no.filhos[indice];
+                int comum = prefixoComum(filho.rotulo, texto, posicao);
+                // O prefixo pode terminar no meio da aresta; divergir antes disso significa nenhum resultado
+                if (comum < filho.rotulo.length && posicao + comum < texto.length) {
+                    return;
+                }
+                no = filho;
+                posicao += comum;
+            }
+            coletarSubarvore(no, limite, destino);
+        }
+
+        private void coletarSubarvore(No no, int limite, List<SugestaoNomeDTO> destino) {
+            for (int i = 0; i < no.ids.length && destino.size() < limite; i++) {
+                destino.add(new SugestaoNomeDTO(no.ids[i], no.nomes[i]));
+            }
+            for (No filho : no.filhos) {
+                if (destino.size() >= limite) {
+                    return;
+                }
+                coletarSubarvore(filho, limite, destino);
+            }
+        }
+
+        /**
+         * Estimativa do heap ocupado (JVM 64 bits com compressed oops), incluindo os nomes originais.
+         */
+        long bytesEstimados() {
+            return bytesEstimados(raiz);
+        }
+
+        private long bytesEstimados(No no) {
+            long total = 32 // objeto No: cabeçalho + 4 referências
+                + alinhar(16 + 2L * no.rotulo.length)
+                + (no.filhos.length > 0 ? alinhar(16 + 4L * no.filhos.length) : 0)
+                + (no.ids.length > 0 ? 16 + 8L * no.ids.length + alinhar(16 + 4L * no.nomes.length) : 0);
+            for (String nome : no.nomes) {
+                total += 24 + alinhar(16 + nome.length());
+            }
+            for (No filho : no.filhos) {
+                total += bytesEstimados(filho);
+            }
+            return total;
+        }
+
+        private static long alinhar(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+
+        private void fundirComFilho(No no) {
+            No filho = no.filhos[0];
+            char[] rotulo = Arrays.copyOf(no.rotulo, no.rotulo.length + filho.rotulo.length);
+            System.arraycopy(filho.rotulo, 0, rotulo, no.rotulo.length, filho.rotulo.length);
+            no.rotulo = rotulo;
+            no.filhos = filho.filhos;
+            no.ids = filho.ids;
+            no.nomes = filho.nomes;
+            nos--;
+        }
+
+        // Busca binária pelo primeiro caractere do rótulo; negativo indica o ponto de inserção
+        private static int indiceFilho(No no, char primeiro) {
+            int inicio = 0;
+            int fim = no.filhos.length - 1;
+            while (inicio <= fim) {
+                int meio = (inicio + fim) >>> 1;
+                char atual = no.filhos[meio].rotulo[0];
+                if (atual < primeiro) {
+                    inicio = meio + 1;
+                } else if (atual > primeiro) {
+                    fim = meio - 1;
+                } else {
+                    return meio;
+                }
+            }
+            return -(inicio + 1);
+        }
+
+        private static int prefixoComum(char[] rotulo, char[] texto, int posicao) {
+            int limite = Math.min(rotulo.length, texto.length - posicao);
+            int i = 0;
+            while (i < limite && rotulo[i] == texto[posicao + i]) {
+                i++;
+            }
+            return i;
+        }
+
+        private static No[] inserirFilho(No[] filhos, int posicao, No filho) {
+            No[] novos = new No[filhos.length + 1];
+            System.arraycopy(filhos, 0, novos, 0, posicao);
+            novos[posicao] = filho;
+            System.arraycopy(filhos, posicao, novos, posicao + 1, filhos.length - posicao);
+            return novos;
+        }
+
+        private static No[] removerPosicao(No[] valores, int posicao) {
+            if (valores.length == 1) {
+                return SEM_FILHOS;
+            }
+            No[] novos = new No[valores.length - 1];
+            System.arraycopy(valores, 0, novos, 0, posicao);
+            System.arraycopy(valores, posicao + 1, novos, posicao, valores.length - posicao - 1);
+            return novos;
+        }
+
+        private static long[] removerPosicao(long[] valores, int posicao) {
+            if (valores.length == 1) {
+                return SEM_IDS;
+            }
+            long[] novos = new long[valores.length - 1];
+            System.arraycopy(valores, 0, novos, 0, posicao);
+            System.arraycopy(valores, posicao + 1, novos, posicao, valores.length - posicao - 1);
+            return novos;
+        }
+
+        private static String[] removerPosicao(String[] valores, int posicao) {
+            if (valores.length == 1) {
+                return SEM_NOMES;
+            }
+            String[] novos = new String[valores.length - 1];
+            System.arraycopy(valores, 0, novos, 0, posicao);
+            System.arraycopy(valores, posicao + 1, novos, posicao, valores.length - posicao - 1);
+            return novos;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.emiteai.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Busca aproximada de pessoas por nome (trechos ou grafias erradas), ordenada pela similaridade
+ * de trigramas. Em produção é resolvida pelo pg_trgm; no perfil de testes (H2), por um índice em memória.
+ */
+public interface BuscaNomeAproximada {
+
+    @Getter
+    @AllArgsConstructor
+    class Resultado {
+        private final long id;
+        private final float similaridade;
+    }
+
+    /**
+     * Retorna até limite pessoas cuja similaridade com o termo atinge o mínimo configurado, em ordem
+     * decrescente de similaridade e crescente de id. Com cursor, começa logo após (similaridadeApos, idApos).
+     */
+    List<Resultado> buscar(String termo, Float similaridadeApos, Long idApos, int limite);
+}
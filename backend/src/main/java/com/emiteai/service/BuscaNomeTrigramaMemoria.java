@@ -0,0 +1,151 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RoteamentoLeituraDataSource;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.repository.PessoaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas em memória, equivalente ao pg_trgm, para bancos sem a extensão (H2 nos testes).
+ * Os trigramas seguem as regras do pg_trgm (minúsculas, palavras alfanuméricas com dois espaços antes e um
+ * depois); a similaridade é a fração dos trigramas do termo presentes no nome, aproximação do word_similarity.
+ * Carregado do banco na inicialização e mantido pelos eventos de alteração após o commit.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "emiteai.busca-nome.indice", havingValue = "memoria")
+public class BuscaNomeTrigramaMemoria implements BuscaNomeAproximada {
+
+    private static final Comparator<Resultado> ORDEM = Comparator
+        .comparing(Resultado::getSimilaridade, Comparator.reverseOrder())
+        .thenComparing(Resultado::getId);
+
+    private final PessoaRepository pessoaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double similaridadeMinima;
+
+    private final Map<String, Set<Long>> idsPorTrigrama = new ConcurrentHashMap<>();
+    private final Map<Long, String> nomes = new ConcurrentHashMap<>();
+
+    public BuscaNomeTrigramaMemoria(PessoaRepository pessoaRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${emiteai.busca-nome.similaridade-minima:0.5}") double similaridadeMinima) {
+        this.pessoaRepository = pessoaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.similaridadeMinima = similaridadeMinima;
+    }
+
+    @Override
+    public List<Resultado> buscar(String termo, Float similaridadeApos, Long idApos, int limite) {
+        Set<String> trigramasTermo = trigramas(termo);
+        if (trigramasTermo.isEmpty()) {
+            return List.of();
+        }
+        // Só são avaliados os ids que compartilham ao menos um trigrama com o termo
+        Map<Long, Integer> comuns = new HashMap<>();
+        for (String trigrama : trigramasTermo) {
+            for (Long id : idsPorTrigrama.getOrDefault(trigrama, Set.of())) {
+                comuns.merge(id, 1, Integer::sum);
+            }
+        }
+
+        Resultado cursor = similaridadeApos != null ? new Resultado(idApos, similaridadeApos) : null;
+        List<Resultado> resultados = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entrada : comuns.entrySet()) {
+            float similaridade = (float) entrada.getValue() / trigramasTermo.size();
+            Resultado resultado = new Resultado(entrada.getKey(), similaridade);
+            if (similaridade >= similaridadeMinima && (cursor == null || ORDEM.compare(resultado, cursor) > 0)) {
+                resultados.add(resultado);
+            }
+        }
+        resultados.sort(ORDEM);
+        return resultados.size() > limite ? new ArrayList<>(resultados.subList(0, limite)) : resultados;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        // Da primária, como as demais cargas de índices em memória: a réplica pode estar atrasada
+        Long total = RoteamentoLeituraDataSource.naPrimaria(() -> transactionTemplate.execute(status -> {
+            long contador = 0;
+            try (Stream<PessoaDTO> pessoas = pessoaRepository.streamTodas()) {
+                for (PessoaDTO pessoa : (Iterable<PessoaDTO>) pessoas::iterator) {
+                    indexar(pessoa.getId(), pessoa.getNome());
+                    contador++;
+                }
+            }
+            return contador;
+        }));
+        log.info("Índice de trigramas de nomes carregado com {} pessoas em {} ms", total, System.currentTimeMillis() - inicio);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPessoa(PessoaAlteradaEvent evento) {
+        remover(evento.getId());
+        if (evento.getAtual() != null) {
+            indexar(evento.getId(), evento.getAtual().getNome());
+        }
+    }
+
+    synchronized void indexar(Long id, String nome) {
+        if (id == null || nome == null) {
+            return;
+        }
+        remover(id);
+        nomes.put(id, nome);
+        for (String trigrama : trigramas(nome)) {
+            idsPorTrigrama.computeIfAbsent(trigrama, chave -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    synchronized void remover(Long id) {
+        String nome = nomes.remove(id);
+        if (nome == null) {
+            return;
+        }
+        for (String trigrama : trigramas(nome)) {
+            Set<Long> ids = idsPorTrigrama.get(trigrama);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    idsPorTrigrama.remove(trigrama);
+                }
+            }
+        }
+    }
+
+    static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (String palavra : texto.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            String comEspacos = "  " + palavra + " ";
+            for (int i = 0; i + 3 <= comEspacos.length(); i++) {
+                trigramas.add(comEspacos.substring(i, i + 3));
+            }
+        }
+        return trigramas;
+    }
+}
@@ -0,0 +1,58 @@
+package com.emiteai.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Busca aproximada pelo pg_trgm, usando o índice GIN idx_pessoa_nome_trgm (V11).
+ * word_similarity compara o termo com o trecho mais parecido do nome, então "silv" encontra "João da Silva".
+ */
+@Service
+@ConditionalOnProperty(name = "emiteai.busca-nome.indice", havingValue = "postgres", matchIfMissing = true)
+public class BuscaNomeTrigramaPostgres implements BuscaNomeAproximada {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${emiteai.busca-nome.similaridade-minima:0.5}")
+    private double similaridadeMinima;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Resultado> buscar(String termo, Float similaridadeApos, Long idApos, int limite) {
+        // O operador <% só é atendido pelo índice com o limiar da sessão; is_local = true vale até o fim da transação
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :limiar, true)")
+            .setParameter("limiar", String.valueOf(similaridadeMinima))
+            .getSingleResult();
+
+        String sql = "SELECT p.id, word_similarity(:termo, p.nome) AS similaridade FROM pessoa p " +
+                     "WHERE :termo <% p.nome " +
+                     (similaridadeApos != null
+                         ? "AND (word_similarity(:termo, p.nome) < :similaridade " +
+                           "OR (word_similarity(:termo, p.nome) = :similaridade AND p.id > :id)) "
+                         : "") +
+                     "ORDER BY similaridade DESC, p.id LIMIT :limite";
+
+        Query query = entityManager.createNativeQuery(sql)
+            .setParameter("termo", termo)
+            .setParameter("limite", limite);
+        if (similaridadeApos != null) {
+            query.setParameter("similaridade", similaridadeApos).setParameter("id", idApos);
+        }
+
+        List<Resultado> resultados = new ArrayList<>();
+        for (Object linha : query.getResultList()) {
+            Object[] colunas = (Object[]) linha;
+            resultados.add(new Resultado(((Number) colunas[0]).longValue(), ((Number) colunas[1]).floatValue()));
+        }
+        return resultados;
+    }
+}
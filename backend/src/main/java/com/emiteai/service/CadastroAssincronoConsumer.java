@@ -0,0 +1,77 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RabbitMQConfig;
+import com.emiteai.dtos.PessoaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Consome a fila de cadastros assíncronos em lotes (RabbitMQConfig.cadastroLoteContainerFactory).
+ * O lote é confirmado na fila só depois do commit. Se a gravação do lote falhar, os pedidos são
+ * gravados um a um e os que falham sozinhos ficam como INVALIDO; se nem isso for possível
+ * (ex.: banco fora), o lote vai para a fila de mensagens mortas em vez de voltar para a fila.
+ */
+@Service
+@Slf4j
+@ConditionalOnExpression("${spring.rabbitmq.enabled:true} and ${emiteai.cadastro-assincrono.habilitado:false}")
+public class CadastroAssincronoConsumer {
+
+    @Autowired
+    private CadastroAssincronoService cadastroAssincronoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RabbitListener(queues = RabbitMQConfig.CADASTRO_QUEUE_NAME, containerFactory = "cadastroLoteContainerFactory")
+    public void receberLote(List<Message> mensagens) {
+        List<String> ids = new ArrayList<>(mensagens.size());
+        List<PessoaDTO> pessoas = new ArrayList<>(mensagens.size());
+        for (Message mensagem : mensagens) {
+            ids.add(mensagem.getMessageProperties().getMessageId());
+            pessoas.add(ler(mensagem));
+        }
+        try {
+            cadastroAssincronoService.processarLote(ids, pessoas);
+        } catch (RuntimeException e) {
+            log.warn("Lote de {} cadastros assíncronos falhou, gravando um a um: {}", mensagens.size(), e.getMessage());
+            for (int i = 0; i < ids.size(); i++) {
+                processarSozinho(ids.get(i), pessoas.get(i));
+            }
+        }
+        log.debug("Lote de {} cadastros assíncronos processado", mensagens.size());
+    }
+
+    // Um pedido que não grava nem sozinho não pode derrubar os outros nem voltar para a fila
+    private void processarSozinho(String id, PessoaDTO pessoa) {
+        try {
+            cadastroAssincronoService.processarLote(List.of(id), Collections.singletonList(pessoa));
+        } catch (DataAccessException e) {
+            log.warn("Cadastro assíncrono {} rejeitado pelo banco: {}", id, e.getMessage());
+            cadastroAssincronoService.registrarInvalido(id, "Dados rejeitados pelo banco de dados");
+        } catch (RuntimeException e) {
+            log.warn("Cadastro assíncrono {} rejeitado: {}", id, e.getMessage());
+            cadastroAssincronoService.registrarInvalido(id, e.getMessage());
+        }
+    }
+
+    // Mensagem ilegível vira pessoa nula, registrada como INVALIDO
+    private PessoaDTO ler(Message mensagem) {
+        try {
+            return objectMapper.readValue(mensagem.getBody(), PessoaDTO.class);
+        } catch (IOException e) {
+            log.warn("Cadastro assíncrono {} ilegível: {}", mensagem.getMessageProperties().getMessageId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RabbitMQConfig;
+import com.emiteai.dtos.CadastroAssincronoDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Aceita cadastros para gravação posterior: valida, confere o CPF e enfileira o PessoaDTO,
+ * sem ocupar uma conexão do banco além da checagem do CPF. Opcional
+ * (emiteai.cadastro-assincrono.habilitado).
+ */
+@Service
+@ConditionalOnExpression("${spring.rabbitmq.enabled:true} and ${emiteai.cadastro-assincrono.habilitado:false}")
+public class CadastroAssincronoProducer {
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${emiteai.cadastro-assincrono.timeout-confirmacao:5s}")
+    private Duration timeoutConfirmacao = Duration.ofSeconds(5);
+
+    /**
+     * Enfileira o cadastro e devolve o identificador de acompanhamento. Só retorna depois
+     * que o broker confirma a mensagem.
+     */
+    public CadastroAssincronoDTO enfileirar(PessoaDTO pessoaDTO) {
+        pessoaService.validarCadastro(pessoaDTO);
+        String id = UUID.randomUUID().toString();
+        Message mensagem = MessageBuilder.withBody(serializar(pessoaDTO))
+            .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+            .setMessageId(id)
+            .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+            .build();
+        rabbitTemplate.invoke(operacoes -> {
+            operacoes.send(RabbitMQConfig.CADASTRO_QUEUE_NAME, mensagem);
+            operacoes.waitForConfirmsOrDie(timeoutConfirmacao.toMillis());
+            return null;
+        });
+        return CadastroAssincronoDTO.pendente(id);
+    }
+
+    private byte[] serializar(PessoaDTO pessoaDTO) {
+        try {
+            return objectMapper.writeValueAsBytes(pessoaDTO);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erro ao serializar pessoa", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.CadastroAssincronoDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.dtos.ResultadoLoteDTO;
+import com.emiteai.entities.CadastroAssincrono;
+import com.emiteai.repository.CadastroAssincronoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Grava os cadastros assíncronos retirados da fila e o resultado de cada um.
+ * A fila e o consumidor ficam no CadastroAssincronoProducer e no CadastroAssincronoConsumer.
+ */
+@Service
+public class CadastroAssincronoService {
+
+    // Coluna cadastro_assincrono.mensagem
+    private static final int TAMANHO_MENSAGEM = 500;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private CadastroAssincronoRepository cadastroRepository;
+
+    /**
+     * Situação do pedido; sem resultado gravado ele ainda está na fila.
+     */
+    @Transactional(readOnly = true)
+    public CadastroAssincronoDTO consultar(String id) {
+        return cadastroRepository.findById(id)
+            .map(cadastro -> new CadastroAssincronoDTO(cadastro.getId(), cadastro.getStatus(), cadastro.getPessoaId(), cadastro.getMensagem()))
+            .orElseGet(() -> CadastroAssincronoDTO.pendente(id));
+    }
+
+    /**
+     * Cadastra um lote de pedidos (pessoa nula = mensagem ilegível) pelo cadastro em lote e grava
+     * os resultados na mesma transação. Pedidos que já têm resultado, reentregues pela fila
+     * depois de um commit sem ack, são ignorados.
+     */
+    @Transactional
+    public void processarLote(List<String> ids, List<PessoaDTO> pessoas) {
+        Set<String> processados = new HashSet<>(cadastroRepository.findIdsExistentes(ids));
+        List<String> idsNovos = new ArrayList<>(ids.size());
+        List<PessoaDTO> novas = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (processados.add(ids.get(i))) {
+                idsNovos.add(ids.get(i));
+                novas.add(pessoas.get(i));
+            }
+        }
+        if (novas.isEmpty()) {
+            return;
+        }
+
+        List<ResultadoLoteDTO> resultados = pessoaService.cadastrarLote(novas, false);
+        List<CadastroAssincrono> registros = new ArrayList<>(resultados.size());
+        for (ResultadoLoteDTO resultado : resultados) {
+            registros.add(new CadastroAssincrono(idsNovos.get(resultado.getIndice()),
+                CadastroAssincronoDTO.Status.valueOf(resultado.getStatus().name()), resultado.getId(), resultado.getMensagem()));
+        }
+        cadastroRepository.saveAll(registros);
+    }
+
+    /**
+     * Registra como INVALIDO um pedido que o cadastro rejeitou com exceção (ex.: restrição do banco),
+     * para que ele saia da fila com um resultado. Um resultado já gravado é mantido.
+     */
+    @Transactional
+    public void registrarInvalido(String id, String mensagem) {
+        if (!cadastroRepository.existsById(id)) {
+            cadastroRepository.save(new CadastroAssincrono(id, CadastroAssincronoDTO.Status.INVALIDO, null,
+                mensagem != null && mensagem.length() > TAMANHO_MENSAGEM ? mensagem.substring(0, TAMANHO_MENSAGEM) : mensagem));
+        }
+    }
+}
@@ -4,12 +4,15 @@ import com.emiteai.entities.Pessoa;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
 import org.hibernate.envers.query.AuditEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -18,6 +21,10 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class EnversAuditService {
 
+    // Revisões recentes contadas em findVersaoRevisoes; cobre com folga as transações entre tirar
+    // o número da revisão e confirmar
+    private static final int JANELA_VERSAO = 10_000;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -34,7 +41,7 @@ public class EnversAuditService {
      */
     public Pessoa findPessoaAtRevision(Long pessoaId, Number revision) {
         AuditReader auditReader = AuditReaderFactory.get(entityManager);
-        return auditReader.find(Pessoa.class, pessoaId, revision);
+        return carregarEndereco(auditReader.find(Pessoa.class, pessoaId, revision));
     }
 
     /**
@@ -44,11 +51,12 @@ public class EnversAuditService {
     public List<Pessoa> findPessoasModifiedBetween(Date startDate, Date endDate) {
         AuditReader auditReader = AuditReaderFactory.get(entityManager);
         
-        return auditReader.createQuery()
+        List<Object[]> linhas = auditReader.createQuery()
                 .forRevisionsOfEntity(Pessoa.class, false, true)
                 .add(AuditEntity.revisionProperty("timestamp").between(
                     startDate.getTime(), endDate.getTime()))
                 .getResultList();
+        return carregarEnderecos(linhas);
     }
 
     /**
@@ -58,11 +66,13 @@ public class EnversAuditService {
     public List<Object[]> findPessoaHistoryWithRevisionInfo(Long pessoaId) {
         AuditReader auditReader = AuditReaderFactory.get(entityManager);
         
-        return auditReader.createQuery()
+        List<Object[]> historico = auditReader.createQuery()
                 .forRevisionsOfEntity(Pessoa.class, false, true)
                 .add(AuditEntity.id().eq(pessoaId))
                 .addOrder(AuditEntity.revisionNumber().desc())
                 .getResultList();
+        carregarEnderecos(historico);
+        return historico;
     }
 
     /**
@@ -72,11 +82,13 @@ public class EnversAuditService {
     public List<Object[]> findAllPessoaOperations() {
         AuditReader auditReader = AuditReaderFactory.get(entityManager);
         
-        return auditReader.createQuery()
+        List<Object[]> operacoes = auditReader.createQuery()
                 .forRevisionsOfEntity(Pessoa.class, false, true)
                 .addOrder(AuditEntity.revisionProperty("timestamp").desc())
                 .setMaxResults(100) // Limitar para performance
                 .getResultList();
+        carregarEnderecos(operacoes);
+        return operacoes;
     }
 
     /**
@@ -102,4 +114,67 @@ public class EnversAuditService {
         Number lastRevision = revisions.get(revisions.size() - 1);
         return auditReader.getRevisionDate(lastRevision);
     }
+
+    /**
+     * Revisão que a transação corrente vai gravar. O número só é conhecido no commit, quando o
+     * Envers cria a revisão: nada é persistido antes, e chamadas repetidas na transação são baratas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public RevisaoTransacao revisaoAtual() {
+        return RevisaoTransacao.daTransacao(entityManager.unwrap(SessionImplementor.class));
+    }
+
+    /**
+     * Número da revisão mais recente registrada (0 se ainda não houver revisões)
+     */
+    public long findLatestRevision() {
+        Number revisao = entityManager
+            .createQuery("SELECT MAX(r.id) FROM CustomRevisionEntity r", Number.class)
+            .getSingleResult();
+        return revisao != null ? revisao.longValue() : 0;
+    }
+
+    /**
+     * Versão do conjunto de revisões, para ETags: a revisão mais recente e quantas existem entre as
+     * JANELA_VERSAO últimas. Uma revisão confirmada depois de outra de número maior (transação que
+     * tirou o número antes e confirmou depois) não muda o máximo, mas muda a contagem: a versão muda
+     * a cada commit auditado, de qualquer instância.
+     */
+    public String findVersaoRevisoes() {
+        Object[] linha = entityManager
+            .createQuery("SELECT MAX(r.id), COUNT(r) FROM CustomRevisionEntity r " +
+                         "WHERE r.id > (SELECT MAX(u.id) - :janela FROM CustomRevisionEntity u)", Object[].class)
+            .setParameter("janela", JANELA_VERSAO)
+            .getSingleResult();
+        long maxima = linha[0] != null ? ((Number) linha[0]).longValue() : 0;
+        return maxima + "." + ((Number) linha[1]).longValue();
+    }
+
+    /**
+     * Revisão mais recente criada até o instante informado (epoch em milissegundos), 0 se não houver
+     */
+    public long findLatestRevisionAte(long timestamp) {
+        Number revisao = entityManager
+            .createQuery("SELECT MAX(r.id) FROM CustomRevisionEntity r WHERE r.timestamp <= :timestamp", Number.class)
+            .setParameter("timestamp", timestamp)
+            .getSingleResult();
+        return revisao != null ? revisao.longValue() : 0;
+    }
+
+    // O endereço das versões auditadas é carregado sob demanda pelo Envers e precisa da sessão
+    // aberta: sem open-in-view, ele é lido aqui, antes de a transação terminar
+    private Pessoa carregarEndereco(Pessoa pessoa) {
+        if (pessoa != null) {
+            pessoa.getEndereco();
+        }
+        return pessoa;
+    }
+
+    private List<Pessoa> carregarEnderecos(List<Object[]> linhas) {
+        List<Pessoa> pessoas = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            pessoas.add(carregarEndereco((Pessoa) linha[0]));
+        }
+        return pessoas;
+    }
 }
@@ -0,0 +1,320 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.EventoPessoaDTO;
+import com.emiteai.dtos.MudancaDTO;
+import com.emiteai.dtos.PaginaMudancasDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Alterações de pessoa enviadas por Server-Sent Events (GET /api/pessoas/eventos), após o commit.
+ * O id de cada evento é a revisão do Envers: ao reconectar com Last-Event-ID o assinante recebe
+ * antes o que perdeu (feed de mudanças mais os eventos recentes em memória) e depois o fluxo ao vivo.
+ * Os envios saem de um pool próprio, nunca da thread que fez a escrita. Cada assinante tem uma fila
+ * limitada; quem não a consome a tempo é desconectado e retoma pelo Last-Event-ID.
+ * A escrita no socket é bloqueante: o pool cresce sob demanda para um cliente lento não segurar os
+ * envios dos demais, e um envio que passa do prazo (emiteai.eventos.prazo-envio) descarta o assinante.
+ * A entrega é "ao menos uma vez": na retomada um evento pode chegar repetido.
+ */
+@Component
+@Slf4j
+public class EventosPessoaService {
+
+    private static final int TAMANHO_PAGINA_RETOMADA = 500;
+
+    private final PessoaService pessoaService;
+    private final int capacidadeFila;
+    private final int capacidadeRecentes;
+    private final Duration timeout;
+    private final long prazoEnvioNanos;
+    private final ExecutorService envio;
+    private final ScheduledExecutorService vigia;
+    private final Counter desconexoesFilaCheia;
+    private final Counter desconexoesEnvioLento;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    // Assinantes recusados pelo pool de envio, encerrados pelo vigia fora da thread de quem publicou
+    private final Queue<Assinante> paraEncerrar = new ConcurrentLinkedQueue<>();
+
+    // Cobre as revisões que o feed de mudanças ainda não entrega (emiteai.mudancas.atraso)
+    private final ArrayDeque<EventoPessoaDTO> recentes = new ArrayDeque<>();
+    private final Object trava = new Object();
+
+    public EventosPessoaService(PessoaService pessoaService,
+                                MeterRegistry meterRegistry,
+                                @Value("${emiteai.eventos.fila:256}") int capacidadeFila,
+                                @Value("${emiteai.eventos.recentes:1024}") int capacidadeRecentes,
+                                @Value("${emiteai.eventos.threads:2}") int threads,
+                                @Value("${emiteai.eventos.threads-maximo:64}") int threadsMaximo,
+                                @Value("${emiteai.eventos.prazo-envio:10s}") Duration prazoEnvio,
+                                @Value("${emiteai.eventos.timeout:30m}") Duration timeout) {
+        this.pessoaService = pessoaService;
+        this.capacidadeFila = capacidadeFila;
+        this.capacidadeRecentes = capacidadeRecentes;
+        this.timeout = timeout;
+        this.prazoEnvioNanos = prazoEnvio.toNanos();
+        AtomicInteger contador = new AtomicInteger();
+        // Sem fila de tarefas: com as threads ocupadas por envios lentos, a próxima tarefa ganha uma thread nova
+        this.envio = new ThreadPoolExecutor(threads, Math.max(threads, threadsMaximo), 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), tarefa -> {
+                Thread thread = new Thread(tarefa, "eventos-pessoa-" + contador.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.vigia = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "eventos-pessoa-prazo");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = Math.max(prazoEnvio.toMillis() / 2, 1);
+        vigia.scheduleWithFixedDelay(this::descartarEnviosAtrasados, intervalo, intervalo, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("pessoa.eventos.assinantes", assinantes, Set::size)
+            .description("Conexões abertas em /api/pessoas/eventos")
+            .register(meterRegistry);
+        this.desconexoesFilaCheia = Counter.builder("pessoa.eventos.desconexoes")
+            .description("Assinantes desconectados por não consumirem os eventos a tempo")
+            .tag("motivo", "fila-cheia")
+            .register(meterRegistry);
+        this.desconexoesEnvioLento = Counter.builder("pessoa.eventos.desconexoes")
+            .description("Assinantes desconectados por não consumirem os eventos a tempo")
+            .tag("motivo", "envio-lento")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Abre uma assinatura; com ultimaRevisao, reenvia antes as alterações posteriores a ela.
+     */
+    public SseEmitter assinar(Long ultimaRevisao) {
+        return assinar(ultimaRevisao, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter assinar(Long ultimaRevisao, SseEmitter emitter) {
+        if (ultimaRevisao != null && ultimaRevisao < 0) {
+            throw new RuntimeException("Revisão inválida");
+        }
+        // Durante a retomada o assinante já conta como agendado: os eventos ao vivo esperam na fila
+        Assinante assinante = new Assinante(emitter, capacidadeFila, ultimaRevisao != null);
+        List<EventoPessoaDTO> pendentes = List.of();
+        synchronized (trava) {
+            if (ultimaRevisao != null) {
+                pendentes = new ArrayList<>(recentes);
+            }
+            assinantes.add(assinante);
+        }
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(erro -> assinantes.remove(assinante));
+
+        if (ultimaRevisao != null) {
+            List<EventoPessoaDTO> recentesNaAssinatura = pendentes;
+            executar(assinante, () -> retomar(assinante, ultimaRevisao, recentesNaAssinatura));
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPessoa(PessoaAlteradaEvent evento) {
+        EventoPessoaDTO dto = new EventoPessoaDTO(evento);
+        List<Assinante> paraAgendar = new ArrayList<>(assinantes.size());
+        synchronized (trava) {
+            if (recentes.size() == capacidadeRecentes) {
+                recentes.removeFirst();
+            }
+            recentes.addLast(dto);
+            for (Assinante assinante : assinantes) {
+                if (!assinante.fila.offer(dto)) {
+                    assinante.descartado = true;
+                    desconexoesFilaCheia.increment();
+                }
+                paraAgendar.add(assinante);
+            }
+        }
+        for (Assinante assinante : paraAgendar) {
+            agendar(assinante);
+        }
+    }
+
+    private void retomar(Assinante assinante, long ultimaRevisao, List<EventoPessoaDTO> recentesNaAssinatura) {
+        try {
+            long ate;
+            String cursor = null;
+            do {
+                PaginaMudancasDTO pagina = pessoaService.listarMudancas(ultimaRevisao, cursor, TAMANHO_PAGINA_RETOMADA);
+                for (MudancaDTO mudanca : pagina.getItens()) {
+                    assinante.enviar(new EventoPessoaDTO(mudanca));
+                }
+                cursor = pagina.getProximoCursor();
+                ate = pagina.getRevisaoAtual();
+            } while (cursor != null);
+            for (EventoPessoaDTO evento : recentesNaAssinatura) {
+                if (evento.getRevisao() > ate) {
+                    assinante.enviar(evento);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Falha ao retomar assinatura de eventos de pessoa: {}", e.getMessage());
+            encerrar(assinante);
+            return;
+        }
+        drenar(assinante);
+    }
+
+    private void agendar(Assinante assinante) {
+        if (assinante.agendado.compareAndSet(false, true)) {
+            executar(assinante, () -> drenar(assinante));
+        }
+    }
+
+    private void executar(Assinante assinante, Runnable tarefa) {
+        try {
+            envio.execute(tarefa);
+        } catch (RejectedExecutionException e) {
+            // Esta pode ser a thread do commit de uma escrita: complete() fica com o vigia
+            assinante.descartado = true;
+            assinantes.remove(assinante);
+            paraEncerrar.add(assinante);
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        try {
+            EventoPessoaDTO evento;
+            while (!assinante.descartado && (evento = assinante.fila.poll()) != null) {
+                assinante.enviar(evento);
+            }
+        } catch (IOException | RuntimeException e) {
+            encerrar(assinante);
+            return;
+        }
+        if (assinante.descartado) {
+            encerrar(assinante);
+            return;
+        }
+        assinante.agendado.set(false);
+        // Evento que chegou entre o último poll e a liberação acima
+        if (!assinante.fila.isEmpty()) {
+            agendar(assinante);
+        }
+    }
+
+    // O emitter não é encerrado aqui: complete() esperaria a escrita presa terminar. A thread do envio é
+    // interrompida e encerra o assinante quando a escrita falhar ou voltar; até lá, nenhum evento novo vai para ele.
+    // Os recusados pelo pool não têm escrita em andamento e são encerrados aqui mesmo
+    void descartarEnviosAtrasados() {
+        Assinante recusado;
+        while ((recusado = paraEncerrar.poll()) != null) {
+            recusado.emitter.complete();
+        }
+        long agora = System.nanoTime();
+        for (Assinante assinante : assinantes) {
+            if (assinante.descartarSeAtrasado(agora, prazoEnvioNanos)) {
+                assinantes.remove(assinante);
+                desconexoesEnvioLento.increment();
+                assinante.interromperEscrita();
+            }
+        }
+    }
+
+    private void encerrar(Assinante assinante) {
+        assinantes.remove(assinante);
+        assinante.emitter.complete();
+    }
+
+    @PreDestroy
+    void fechar() {
+        vigia.shutdownNow();
+        envio.shutdownNow();
+        for (Assinante assinante : assinantes) {
+            assinante.emitter.complete();
+        }
+        assinantes.clear();
+        for (Assinante recusado : paraEncerrar) {
+            recusado.emitter.complete();
+        }
+        paraEncerrar.clear();
+    }
+
+    private static final class Assinante {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<EventoPessoaDTO> fila;
+        private final AtomicBoolean agendado;
+        // Fila cheia ou envio além do prazo: a thread do envio encerra o assinante
+        private volatile boolean descartado;
+        // Envio em andamento (escritor != null), protegido pelo monitor do assinante
+        private Thread escritor;
+        private long escrevendoDesde;
+
+        private Assinante(SseEmitter emitter, int capacidade, boolean agendado) {
+            this.emitter = emitter;
+            this.fila = new ArrayBlockingQueue<>(capacidade);
+            this.agendado = new AtomicBoolean(agendado);
+        }
+
+        private void enviar(EventoPessoaDTO evento) throws IOException {
+            if (descartado) {
+                throw new IOException("Assinante descartado");
+            }
+            synchronized (this) {
+                escritor = Thread.currentThread();
+                escrevendoDesde = System.nanoTime();
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                    .id(String.valueOf(evento.getRevisao()))
+                    .data(evento, MediaType.APPLICATION_JSON));
+            } finally {
+                synchronized (this) {
+                    escritor = null;
+                    // Uma interrupção do prazo que chegou depois da escrita não pode vazar para a próxima tarefa
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private synchronized boolean descartarSeAtrasado(long agora, long prazoNanos) {
+            if (escritor == null || agora - escrevendoDesde < prazoNanos) {
+                return false;
+            }
+            descartado = true;
+            return true;
+        }
+
+        private synchronized void interromperEscrita() {
+            if (escritor != null) {
+                escritor.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.FacetaEstadoDTO;
+import com.emiteai.dtos.FacetaMunicipioDTO;
+import com.emiteai.repository.PessoaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contagem de pessoas por estado e município para dashboards.
+ * O resultado vem de uma única agregação e fica em cache por um TTL curto: requisições
+ * repetidas (e concorrentes) dentro da janela não voltam ao banco.
+ */
+@Service
+public class FacetasService {
+
+    private static final String CHAVE = "estado-municipio";
+
+    private final PessoaRepository pessoaRepository;
+    private final Cache<String, List<FacetaEstadoDTO>> cache;
+
+    public FacetasService(PessoaRepository pessoaRepository, MeterRegistry meterRegistry,
+                          @Value("${emiteai.cache.facetas.ttl:30s}") Duration ttl) {
+        this.pessoaRepository = pessoaRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(1)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pessoa.facetas");
+    }
+
+    /**
+     * Estados em ordem alfabética, cada um com o total e a contagem por município.
+     * Pessoas sem endereço (ou sem estado) não entram nas contagens.
+     */
+    public List<FacetaEstadoDTO> porEstadoEMunicipio() {
+        return cache.get(CHAVE, chave -> carregar());
+    }
+
+    private List<FacetaEstadoDTO> carregar() {
+        List<FacetaEstadoDTO> estados = new ArrayList<>();
+        FacetaEstadoDTO atual = null;
+        // Linhas ordenadas por estado: basta agrupar as consecutivas
+        for (Object[] linha : pessoaRepository.contarPorEstadoEMunicipio()) {
+            String estado = (String) linha[0];
+            long total = ((Number) linha[2]).longValue();
+            if (atual == null || !atual.getEstado().equals(estado)) {
+                atual = new FacetaEstadoDTO(estado, 0, new ArrayList<>());
+                estados.add(atual);
+            }
+            atual.setTotal(atual.getTotal() + total);
+            atual.getMunicipios().add(new FacetaMunicipioDTO((String) linha[1], total));
+        }
+        for (FacetaEstadoDTO estado : estados) {
+            estado.getMunicipios().sort((a, b) -> Long.compare(b.getTotal(), a.getTotal()));
+        }
+        return estados;
+    }
+}
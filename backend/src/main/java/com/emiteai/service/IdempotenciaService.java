@@ -0,0 +1,137 @@
+package com.emiteai.service;
+
+import com.emiteai.service.ArmazenamentoIdempotencia.Resposta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key nas escritas de pessoa: a primeira requisição com uma chave executa e sua
+ * resposta 2xx fica guardada; repetições com o mesmo corpo recebem essa resposta sem passar pelo
+ * PessoaService, e repetições simultâneas esperam a primeira terminar. Respostas de erro não
+ * são guardadas, para que o cliente possa tentar de novo com a mesma chave.
+ */
+@Service
+public class IdempotenciaService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotent-Replayed";
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final ArmazenamentoIdempotencia armazenamento;
+    private final ObjectMapper objectMapper;
+    private final Duration espera;
+    private final Counter repeticoes;
+
+    public IdempotenciaService(ArmazenamentoIdempotencia armazenamento, ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${emiteai.idempotencia.espera:10s}") Duration espera) {
+        this.armazenamento = armazenamento;
+        this.objectMapper = objectMapper;
+        this.espera = espera;
+        this.repeticoes = Counter.builder("pessoa.idempotencia.repeticoes")
+            .description("Requisições respondidas com a resposta guardada de uma Idempotency-Key")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Executa a ação uma única vez por chave. A operação (método, caminho e cabeçalhos que mudam
+     * o resultado) entra na impressão junto com o corpo: a mesma chave com outra requisição dá 422.
+     * Sem chave, a ação é executada normalmente.
+     */
+    public ResponseEntity<Object> executar(String chave, String operacao, Object corpo,
+                                           Supplier<ResponseEntity<Object>> acao) {
+        if (chave == null) {
+            return acao.get();
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new RuntimeException("Idempotency-Key inválida: deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+
+        String dono = UUID.randomUUID().toString();
+        Optional<Resposta> guardada = armazenamento.reservar(chave, dono, impressao(operacao, corpo), espera);
+        if (guardada.isPresent()) {
+            repeticoes.increment();
+            return repetir(guardada.get());
+        }
+
+        ResponseEntity<Object> resposta;
+        try {
+            resposta = acao.get();
+        } catch (RuntimeException | Error e) {
+            armazenamento.liberar(chave, dono);
+            throw e;
+        }
+        if (resposta.getStatusCode().is2xxSuccessful()) {
+            armazenamento.concluir(chave, dono, guardar(resposta));
+        } else {
+            armazenamento.liberar(chave, dono);
+        }
+        return resposta;
+    }
+
+    private ResponseEntity<Object> repetir(Resposta resposta) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(resposta.getStatus())
+                .header(HEADER_REPETIDA, "true");
+        if (resposta.getEtag() != null) {
+            builder.header(HttpHeaders.ETAG, resposta.getEtag());
+        }
+        if (resposta.getLocation() != null) {
+            builder.location(URI.create(resposta.getLocation()));
+        }
+        try {
+            return builder.body(resposta.getCorpo() == null ? null : objectMapper.readTree(resposta.getCorpo()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta guardada inválida", e);
+        }
+    }
+
+    private Resposta guardar(ResponseEntity<Object> resposta) {
+        HttpHeaders headers = resposta.getHeaders();
+        URI location = headers.getLocation();
+        return new Resposta(
+                resposta.getStatusCode().value(),
+                headers.getETag(),
+                location == null ? null : location.toString(),
+                json(resposta.getBody()));
+    }
+
+    private String impressao(String operacao, Object corpo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operacao.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(corpo));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String json(Object corpo) {
+        if (corpo == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(corpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.emiteai.service;
+
+import com.emiteai.entities.Pessoa;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Registra no índice de CPFs toda pessoa gravada via JPA, inclusive escritas
+ * que não passam pelo PessoaService. Usa os callbacks "pre" porque o Hibernate
+ * só dispara os "post" no flush; um registro de transação desfeita vira apenas
+ * um falso positivo. Instanciado pelo Hibernate através do contêiner de beans do Spring.
+ */
+public class IndiceCpfEntityListener {
+
+    // Opcional: em testes de fatia JPA o índice não existe
+    @Autowired
+    private ObjectProvider<IndiceCpfService> indiceCpf;
+
+    @PrePersist
+    @PreUpdate
+    public void registrar(Pessoa pessoa) {
+        if (indiceCpf != null) {
+            indiceCpf.ifAvailable(indice -> indice.registrar(pessoa.getCpf()));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RoteamentoLeituraDataSource;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.repository.PessoaRepository;
+import com.emiteai.util.DocumentoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória (Bloom filter) dos CPFs cadastrados.
+ * Responde "certamente não cadastrado" sem ir ao banco; quando responde "talvez cadastrado"
+ * o chamador confirma no banco. A constraint UNIQUE de pessoa.cpf continua sendo a autoridade final.
+ */
+@Service
+@Slf4j
+public class IndiceCpfService {
+
+    private final PessoaRepository pessoaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacidade;
+    private final double taxaFalsoPositivo;
+
+    private final Object lockEscrita = new Object();
+    // Chave dos CPFs gravados pela transação corrente (CpfsDaTransacao), uma por instância do índice
+    private final Object chaveTransacao = new Object();
+    private volatile BloomFilter filtro;
+    private volatile BloomFilter emConstrucao;
+    private volatile boolean carregado;
+    private long removidosDesdeCarga;
+
+    public IndiceCpfService(PessoaRepository pessoaRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${emiteai.indice-cpf.capacidade:1000000}") int capacidade,
+                            @Value("${emiteai.indice-cpf.taxa-falso-positivo:0.01}") double taxaFalsoPositivo) {
+        this.pessoaRepository = pessoaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.capacidade = capacidade;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.filtro = new BloomFilter(capacidade, taxaFalsoPositivo);
+    }
+
+    /**
+     * Retorna false apenas quando o CPF certamente não está cadastrado.
+     * Antes da carga inicial terminar, sempre retorna true (o banco decide).
+     */
+    public boolean possivelmenteCadastrado(String cpf) {
+        return possivelmenteCadastrado(DocumentoUtils.parseCpf(cpf));
+    }
+
+    public boolean possivelmenteCadastrado(long cpf) {
+        if (!carregado || cpf < 0) {
+            return true;
+        }
+        return filtro.contem(cpf);
+    }
+
+    /**
+     * Registra o CPF gravado pela transação corrente: já, para que o filtro atual o veja, e de novo
+     * depois do commit. Um recarregamento que começou antes do commit não vê o CPF no snapshot, mas
+     * o filtro em construção (ou o que já o substituiu) o recebe nessa segunda vez.
+     */
+    public void registrar(String cpf) {
+        long chave = DocumentoUtils.parseCpf(cpf);
+        if (chave < 0) {
+            return;
+        }
+        adicionar(chave);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            CpfsDaTransacao daTransacao = (CpfsDaTransacao) TransactionSynchronizationManager.getResource(chaveTransacao);
+            if (daTransacao == null) {
+                daTransacao = new CpfsDaTransacao();
+                TransactionSynchronizationManager.bindResource(chaveTransacao, daTransacao);
+                TransactionSynchronizationManager.registerSynchronization(daTransacao);
+            }
+            daTransacao.cpfs.add(chave);
+        }
+    }
+
+    private void adicionar(long chave) {
+        synchronized (lockEscrita) {
+            filtro.adicionar(chave);
+            if (emConstrucao != null) {
+                emConstrucao.adicionar(chave);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        recarregar();
+    }
+
+    // Inserções chegam pelo IndiceCpfEntityListener; aqui só contabilizamos CPFs que deixaram de existir
+    @EventListener
+    public void aoAlterarPessoa(PessoaAlteradaEvent evento) {
+        if (evento.getAnterior() != null && cpfRemovido(evento)) {
+            registrarRemocao();
+        }
+    }
+
+    private boolean cpfRemovido(PessoaAlteradaEvent evento) {
+        return evento.getAtual() == null
+            || DocumentoUtils.parseCpf(evento.getAtual().getCpf()) != DocumentoUtils.parseCpf(evento.getAnterior().getCpf());
+    }
+
+    // Bloom filter não suporta remoção: após muitas remoções o filtro é reconstruído a partir do banco
+    private void registrarRemocao() {
+        boolean reconstruir;
+        synchronized (lockEscrita) {
+            removidosDesdeCarga++;
+            reconstruir = emConstrucao == null && removidosDesdeCarga > Math.max(1000, capacidade / 10);
+        }
+        if (reconstruir) {
+            CompletableFuture.runAsync(this::recarregar);
+        }
+    }
+
+    void recarregar() {
+        BloomFilter novo = new BloomFilter(capacidade, taxaFalsoPositivo);
+        synchronized (lockEscrita) {
+            if (emConstrucao != null) {
+                return;
+            }
+            emConstrucao = novo;
+        }
+
+        long inicio = System.currentTimeMillis();
+        try {
+            // Da primária: um CPF que a réplica ainda não recebeu seria um falso negativo do filtro
+            Long total = RoteamentoLeituraDataSource.naPrimaria(() -> transactionTemplate.execute(status -> {
+                long contador = 0;
+                try (Stream<Long> cpfs = pessoaRepository.streamCpfsNumericos()) {
+                    for (Long cpf : (Iterable<Long>) cpfs::iterator) {
+                        novo.adicionar(cpf);
+                        contador++;
+                    }
+                }
+                return contador;
+            }));
+
+            synchronized (lockEscrita) {
+                filtro = novo;
+                emConstrucao = null;
+                removidosDesdeCarga = 0;
+                carregado = true;
+            }
+            if (total != null && total > capacidade) {
+                log.warn("Índice de CPFs com {} entradas acima da capacidade {}: taxa de falso positivo maior que a configurada",
+                    total, capacidade);
+            }
+            log.info("Índice de CPFs carregado com {} entradas em {} ms", total, System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            synchronized (lockEscrita) {
+                emConstrucao = null;
+            }
+            log.error("Erro ao carregar índice de CPFs, consultas seguirão direto ao banco: {}", e.getMessage(), e);
+        }
+    }
+
+    private final class CpfsDaTransacao implements TransactionSynchronization {
+
+        private final List<Long> cpfs = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            for (long cpf : cpfs) {
+                adicionar(cpf);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(chaveTransacao);
+        }
+    }
+
+    /**
+     * Bloom filter sobre chaves long com bits em AtomicLongArray (leituras sem lock).
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long totalBits;
+        private final int funcoesHash;
+
+        BloomFilter(int capacidade, double taxaFalsoPositivo) {
+            long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+            int palavras = (int) Math.max(1, (m + 63) / 64);
+            this.bits = new AtomicLongArray(palavras);
+            this.totalBits = (long) palavras * 64;
+            this.funcoesHash = Math.max(1, (int) Math.round((double) m / capacidade * Math.log(2)));
+        }
+
+        void adicionar(long chave) {
+            long h1 = misturar(chave);
+            long h2 = misturar(h1) | 1;
+            for (int i = 0; i < funcoesHash; i++) {
+                long bit = Math.floorMod(h1 + i * h2, totalBits);
+                bits.getAndAccumulate((int) (bit >>> 6), 1L << bit, (atual, mascara) -> atual | mascara);
+            }
+        }
+
+        boolean contem(long chave) {
+            long h1 = misturar(chave);
+            long h2 = misturar(h1) | 1;
+            for (int i = 0; i < funcoesHash; i++) {
+                long bit = Math.floorMod(h1 + i * h2, totalBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Finalizador do SplitMix64: espalha bem chaves numéricas sequenciais
+        private static long misturar(long x) {
+            x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+            x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+            return x ^ (x >>> 31);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RoteamentoLeituraDataSource;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Resposta de GET /api/pessoas já serializada em JSON (e comprimida em gzip), chaveada pelo ETag
+ * da listagem. Enquanto o ETag não muda, uma nova chamada só escreve os bytes guardados:
+ * sem SQL, sem montar DTOs e sem Jackson. Guarda só a versão mais recente; qualquer escrita
+ * do PessoaService descarta a entrada após o commit e escritas fora dele são cobertas pelo TTL.
+ */
+@Component
+public class ListagemSerializadaCache {
+
+    @Getter
+    @AllArgsConstructor
+    public static class Listagem {
+        private final byte[] json;
+        private final byte[] gzip;
+    }
+
+    private final Cache<String, Listagem> porEtag;
+    private final ObjectMapper objectMapper;
+
+    public ListagemSerializadaCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                    @Value("${emiteai.cache.listagem.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.porEtag = Caffeine.newBuilder()
+            .maximumSize(1)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, porEtag, "pessoa.listagem");
+    }
+
+    /**
+     * Retorna a listagem do ETag informado, carregando e serializando uma única vez em caso de miss.
+     * O ETag deve ser obtido antes da carga, para que os dados nunca sejam mais antigos que a chave.
+     */
+    public Listagem obter(String etag, Supplier<List<PessoaDTO>> carga) {
+        return porEtag.get(etag, chave -> serializar(RoteamentoLeituraDataSource.naPrimaria(carga)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPessoa(PessoaAlteradaEvent evento) {
+        porEtag.invalidateAll();
+    }
+
+    private Listagem serializar(List<PessoaDTO> pessoas) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(pessoas);
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(comprimido)) {
+                gzip.write(json);
+            }
+            return new Listagem(json, comprimido.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
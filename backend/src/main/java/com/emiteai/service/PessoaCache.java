@@ -0,0 +1,80 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RoteamentoLeituraDataSource;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.util.DocumentoUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cache das consultas de pessoa por id e por CPF, com limite de tamanho e TTL.
+ * Misses concorrentes para a mesma chave aguardam uma única carga (single-flight do Caffeine).
+ * Entradas são invalidadas após o commit de qualquer escrita feita pelo PessoaService;
+ * escritas fora dele são cobertas pelo TTL.
+ * Os DTOs são compartilhados entre requisições e não devem ser alterados por quem os recebe.
+ */
+@Component
+public class PessoaCache {
+
+    private final Cache<Long, PessoaDTO> porId;
+    private final Cache<Long, PessoaDTO> porCpf;
+
+    public PessoaCache(MeterRegistry meterRegistry,
+                       @Value("${emiteai.cache.pessoa.tamanho-maximo:10000}") long tamanhoMaximo,
+                       @Value("${emiteai.cache.pessoa.ttl:10m}") Duration ttl) {
+        this.porId = criar(tamanhoMaximo, ttl);
+        this.porCpf = criar(tamanhoMaximo, ttl);
+        // Publica cache.gets{result=hit|miss}, cache.evictions, cache.size... no Micrometer
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "pessoa.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, porCpf, "pessoa.cpf");
+    }
+
+    private static Cache<Long, PessoaDTO> criar(long tamanhoMaximo, Duration ttl) {
+        return Caffeine.newBuilder()
+            .maximumSize(tamanhoMaximo)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Retorna a pessoa do cache ou executa a carga. Exceções da carga são propagadas e nada é armazenado.
+     * A carga lê da primária: uma réplica atrasada deixaria a versão antiga no cache até a expiração.
+     */
+    public PessoaDTO porId(Long id, Supplier<PessoaDTO> carga) {
+        return porId.get(id, chave -> RoteamentoLeituraDataSource.naPrimaria(carga));
+    }
+
+    public PessoaDTO porCpf(long cpf, Supplier<PessoaDTO> carga) {
+        return porCpf.get(cpf, chave -> RoteamentoLeituraDataSource.naPrimaria(carga));
+    }
+
+    public void invalidar(Long id, String... cpfs) {
+        if (id != null) {
+            porId.invalidate(id);
+        }
+        for (String cpf : cpfs) {
+            long numero = DocumentoUtils.parseCpf(cpf);
+            if (numero != DocumentoUtils.INVALIDO) {
+                porCpf.invalidate(numero);
+            }
+        }
+    }
+
+    // Após o commit, para que uma leitura concorrente não recoloque o valor antigo no cache
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPessoa(PessoaAlteradaEvent evento) {
+        invalidar(evento.getId(),
+            evento.getAnterior() != null ? evento.getAnterior().getCpf() : null,
+            evento.getAtual() != null ? evento.getAtual().getCpf() : null);
+    }
+}
@@ -0,0 +1,133 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RabbitMQConfig;
+import com.emiteai.entities.PessoaOutbox;
+import com.emiteai.repository.PessoaOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publica o outbox de pessoas na exchange RabbitMQConfig.EXCHANGE_PESSOAS, em ordem de id.
+ * Cada lote é travado, enviado por um único canal, confirmado pelo broker (publisher confirms)
+ * e só então apagado, tudo na mesma transação: se o broker recusar ou não responder, o lote
+ * continua no outbox para o próximo ciclo. A entrega é "ao menos uma vez"; o messageId é o id
+ * do outbox, para deduplicação no consumidor.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class PessoaOutboxRelay {
+
+    private final PessoaOutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration timeoutConfirmacao;
+
+    private final Counter publicados;
+    private final Timer tempoLote;
+    // Idade do evento mais antigo pendente na última leitura do outbox
+    private final AtomicLong atrasoMillis = new AtomicLong();
+
+    public PessoaOutboxRelay(PessoaOutboxRepository outboxRepository,
+                             RabbitTemplate rabbitTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${emiteai.outbox.lote:500}") int tamanhoLote,
+                             @Value("${emiteai.outbox.timeout-confirmacao:10s}") Duration timeoutConfirmacao) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.timeoutConfirmacao = timeoutConfirmacao;
+
+        this.publicados = Counter.builder("pessoa.outbox.publicados")
+            .description("Eventos de pessoa confirmados pelo broker")
+            .register(meterRegistry);
+        this.tempoLote = Timer.builder("pessoa.outbox.lote")
+            .description("Tempo de envio e confirmação de um lote do outbox")
+            .register(meterRegistry);
+        TimeGauge.builder("pessoa.outbox.atraso", atrasoMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+            .description("Idade do evento mais antigo ainda não publicado")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publica lotes até esvaziar o outbox. Falhas do broker são registradas e o lote é
+     * tentado de novo no próximo ciclo.
+     */
+    @Scheduled(fixedDelayString = "${emiteai.outbox.intervalo-ms:1000}")
+    public void publicarPendentes() {
+        try {
+            while (publicarLote() == tamanhoLote) {
+                // Lote cheio: provavelmente há mais pendentes
+            }
+        } catch (AmqpException e) {
+            log.warn("Falha ao publicar o outbox de pessoas, nova tentativa no próximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    int publicarLote() {
+        Integer quantidade = transactionTemplate.execute(status -> {
+            List<PessoaOutbox> lote = outboxRepository.findPendentes(PageRequest.of(0, tamanhoLote));
+            if (lote.isEmpty()) {
+                atrasoMillis.set(0);
+                return 0;
+            }
+            atrasoMillis.set(Math.max(0, Duration.between(lote.get(0).getCriadoEm(), Instant.now()).toMillis()));
+            tempoLote.record(() -> publicar(lote));
+            outboxRepository.deleteAllInBatch(lote);
+            return lote.size();
+        });
+        publicados.increment(quantidade);
+        return quantidade;
+    }
+
+    private void publicar(List<PessoaOutbox> lote) {
+        // Mesmo canal para o lote inteiro, para esperar todas as confirmações de uma vez
+        rabbitTemplate.invoke(operacoes -> {
+            for (PessoaOutbox evento : lote) {
+                operacoes.send(RabbitMQConfig.EXCHANGE_PESSOAS, chaveRoteamento(evento), mensagem(evento));
+            }
+            operacoes.waitForConfirmsOrDie(timeoutConfirmacao.toMillis());
+            return null;
+        });
+    }
+
+    // pessoa.criacao, pessoa.atualizacao, pessoa.remocao
+    static String chaveRoteamento(PessoaOutbox evento) {
+        return "pessoa." + evento.getTipo().name().toLowerCase(Locale.ROOT);
+    }
+
+    private Message mensagem(PessoaOutbox evento) {
+        return MessageBuilder.withBody(evento.getPayload().getBytes(StandardCharsets.UTF_8))
+            .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+            .setContentEncoding(StandardCharsets.UTF_8.name())
+            .setMessageId(String.valueOf(evento.getId()))
+            .setHeader("revisao", evento.getRevisao())
+            .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.EventoPessoaDTO;
+import com.emiteai.entities.PessoaOutbox;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.repository.PessoaOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Grava cada alteração de pessoa no outbox dentro da transação da escrita: o evento só existe
+ * se a escrita for confirmada, e não se perde se o RabbitMQ estiver fora. A publicação fica
+ * com o PessoaOutboxRelay. A linha é gravada no commit, quando a revisão do Envers já tem número.
+ * Existe sob a mesma condição do relay: sem RabbitMQ ninguém esvaziaria a tabela.
+ */
+@Service
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true", matchIfMissing = true)
+public class PessoaOutboxService {
+
+    @Autowired
+    private PessoaOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EnversAuditService enversAuditService;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void aoAlterarPessoa(PessoaAlteradaEvent evento) {
+        enversAuditService.revisaoAtual().aoResolver(revisao ->
+            outboxRepository.save(new PessoaOutbox(evento, serializar(new EventoPessoaDTO(evento)))));
+    }
+
+    private String serializar(EventoPessoaDTO evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erro ao serializar evento de pessoa", e);
+        }
+    }
+}
@@ -1,78 +1,721 @@
 package com.emiteai.service;
 
+import com.emiteai.dtos.EnderecoDTO;
+import com.emiteai.dtos.FiltroBuscaDTO;
+import com.emiteai.dtos.MudancaDTO;
+import com.emiteai.dtos.PaginaMudancasDTO;
+import com.emiteai.dtos.PaginaPessoasDTO;
 import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.dtos.ResultadoBuscaDTO;
+import com.emiteai.dtos.ResultadoLoteDTO;
 import com.emiteai.entities.Pessoa;
 import com.emiteai.entities.Endereco;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.exception.VersaoDivergenteException;
 import com.emiteai.repository.PessoaRepository;
+import com.emiteai.util.CamposPessoa;
+import com.emiteai.util.DocumentoUtils;
+import com.emiteai.util.EtagUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PessoaService {
 
+    public static final int LIMITE_MAXIMO_PAGINA = 100;
+
+    public static final int TAMANHO_MAXIMO_LOTE = 10_000;
+
+    public static final int LIMITE_MAXIMO_MUDANCAS = 1000;
+
+    // Itens enviados ao banco antes de cada flush/clear no cadastro em lote
+    private static final int TAMANHO_BLOCO_LOTE = 500;
+
+    // Abaixo disso quase todo nome compartilha algum trigrama com o termo
+    private static final int TAMANHO_MINIMO_TERMO_APROXIMADO = 3;
+
+    // Chaves por consulta IN na busca múltipla
+    private static final int TAMANHO_BLOCO_BUSCA = 1000;
+
+    // A cada N linhas exportadas a saída é descarregada
+    private static final int INTERVALO_DESCARGA_STREAM = 500;
+
+    // Campos de texto do cadastro e os tamanhos das colunas, na ordem de tamanhoExcedido
+    private static final String[] CAMPOS_TEXTO = {
+        "Nome", "Telefone", "CPF", "Número", "Complemento", "CEP", "Bairro", "Município", "Estado"};
+    private static final int[] TAMANHOS_TEXTO = {
+        Pessoa.TAMANHO_NOME, Pessoa.TAMANHO_TELEFONE, Pessoa.TAMANHO_CPF,
+        Endereco.TAMANHO_NUMERO, Endereco.TAMANHO_COMPLEMENTO, Endereco.TAMANHO_CEP,
+        Endereco.TAMANHO_BAIRRO, Endereco.TAMANHO_MUNICIPIO, Endereco.TAMANHO_ESTADO};
+
     @Autowired
     private PessoaRepository pessoaRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IndiceCpfService indiceCpf;
+
+    @Autowired
+    private PessoaCache pessoaCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BuscaNomeAproximada buscaNomeAproximada;
+
+    @Autowired
+    private EnversAuditService enversAuditService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${emiteai.busca-multipla.limite:1000}")
+    private int limiteBuscaMultipla = 1000;
+
+    // Revisões mais novas que isso ainda podem ter vizinhas anteriores em transações não confirmadas
+    @Value("${emiteai.mudancas.atraso:5s}")
+    private Duration atrasoMudancas = Duration.ofSeconds(5);
+
     @Transactional
     public PessoaDTO cadastrarPessoa(PessoaDTO pessoaDTO) {
-        if (pessoaRepository.existsByCpf(pessoaDTO.getCpf())) {
+        validarCpfNovo(pessoaDTO.getCpf());
+        Pessoa pessoa = new Pessoa();
+        copiarDados(pessoaDTO, pessoa);
+
+        pessoaRepository.save(pessoa);
+        PessoaDTO criada = new PessoaDTO(pessoa);
+        publicar(PessoaAlteradaEvent.Tipo.CRIACAO, pessoa.getId(), null, criada);
+        return criada;
+    }
+
+    /**
+     * Validações do cadastro sem gravar nada, para quem aceita o pedido antes de cadastrar
+     * (cadastro assíncrono). O CPF pode ser cadastrado por outro pedido até a gravação.
+     */
+    @Transactional(readOnly = true)
+    public void validarCadastro(PessoaDTO pessoaDTO) {
+        if (isBlank(pessoaDTO.getNome()) || isBlank(pessoaDTO.getCpf())) {
+            throw new RuntimeException("Nome e CPF são obrigatórios");
+        }
+        String tamanhoExcedido = tamanhoExcedido(pessoaDTO);
+        if (tamanhoExcedido != null) {
+            throw new RuntimeException(tamanhoExcedido);
+        }
+        validarCpfNovo(pessoaDTO.getCpf());
+    }
+
+    /**
+     * Primeiro campo maior que a sua coluna, como mensagem de erro, ou null se todos cabem.
+     */
+    private static String tamanhoExcedido(PessoaDTO dto) {
+        EnderecoDTO endereco = dto.getEndereco() != null ? dto.getEndereco() : new EnderecoDTO();
+        String[] valores = {dto.getNome(), dto.getTelefone(), dto.getCpf(), endereco.getNumero(), endereco.getComplemento(),
+            endereco.getCep(), endereco.getBairro(), endereco.getMunicipio(), endereco.getEstado()};
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] != null && valores[i].length() > TAMANHOS_TEXTO[i]) {
+                return CAMPOS_TEXTO[i] + " excede " + TAMANHOS_TEXTO[i] + " caracteres";
+            }
+        }
+        return null;
+    }
+
+    private void validarCpfNovo(String cpf) {
+        long numero = DocumentoUtils.parseCpfValido(cpf);
+        if (numero == DocumentoUtils.INVALIDO) {
+            throw new RuntimeException("CPF inválido");
+        }
+        if (cpfCadastrado(numero)) {
             throw new RuntimeException("CPF já cadastrado");
         }
-        Pessoa pessoa = new Pessoa();
-        pessoa.setNome(pessoaDTO.getNome());
-        pessoa.setTelefone(pessoaDTO.getTelefone());
-        pessoa.setCpf(pessoaDTO.getCpf());
-
-        // Criar endereço se fornecido
-        if (pessoaDTO.getEndereco() != null) {
-            Endereco endereco = new Endereco();
-            endereco.setCep(pessoaDTO.getEndereco().getCep());
-            endereco.setNumero(pessoaDTO.getEndereco().getNumero());
-            endereco.setComplemento(pessoaDTO.getEndereco().getComplemento());
-            endereco.setBairro(pessoaDTO.getEndereco().getBairro());
-            endereco.setMunicipio(pessoaDTO.getEndereco().getMunicipio());
-            endereco.setEstado(pessoaDTO.getEndereco().getEstado());
-            endereco.setPessoa(pessoa);
-            pessoa.setEndereco(endereco);
+    }
+
+    /**
+     * Verifica se o CPF já está cadastrado. O banco só é consultado quando o
+     * índice em memória não consegue descartar o CPF.
+     */
+    public boolean cpfCadastrado(String cpf) {
+        long numero = DocumentoUtils.parseCpf(cpf);
+        return numero != DocumentoUtils.INVALIDO && cpfCadastrado(numero);
+    }
+
+    private boolean cpfCadastrado(long cpf) {
+        return indiceCpf.possivelmenteCadastrado(cpf) && pessoaRepository.existsByCpfNumero(cpf);
+    }
+
+    /**
+     * Cadastra (ou atualiza, se upsert) várias pessoas em uma única transação.
+     * Os CPFs já existentes são verificados em uma só consulta e as escritas são
+     * enviadas em blocos, aproveitando o batching JDBC do Hibernate.
+     */
+    @Transactional
+    public List<ResultadoLoteDTO> cadastrarLote(List<PessoaDTO> pessoasDTO, boolean upsert) {
+        if (pessoasDTO == null || pessoasDTO.isEmpty()) {
+            throw new RuntimeException("Lote vazio");
+        }
+        if (pessoasDTO.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new RuntimeException("Lote excede o limite de " + TAMANHO_MAXIMO_LOTE + " pessoas");
         }
 
-        pessoaRepository.save(pessoa);
-        return new PessoaDTO(pessoa);
+        // CPFs validados uma única vez, antes de qualquer acesso ao banco
+        long[] cpfsNumericos = new long[pessoasDTO.size()];
+        Set<Long> cpfs = new HashSet<>();
+        for (int i = 0; i < pessoasDTO.size(); i++) {
+            PessoaDTO dto = pessoasDTO.get(i);
+            cpfsNumericos[i] = dto != null ? DocumentoUtils.parseCpfValido(dto.getCpf()) : DocumentoUtils.INVALIDO;
+            if (cpfsNumericos[i] != DocumentoUtils.INVALIDO && indiceCpf.possivelmenteCadastrado(cpfsNumericos[i])) {
+                cpfs.add(cpfsNumericos[i]);
+            }
+        }
+        Map<Long, Long> idsExistentes = new HashMap<>();
+        if (!cpfs.isEmpty()) {
+            for (Object[] linha : pessoaRepository.findIdsByCpfNumeroIn(cpfs)) {
+                idsExistentes.put((Long) linha[0], (Long) linha[1]);
+            }
+        }
+
+        List<ResultadoLoteDTO> resultados = new ArrayList<>(pessoasDTO.size());
+        Set<Long> cpfsNoLote = new HashSet<>();
+        for (int inicio = 0; inicio < pessoasDTO.size(); inicio += TAMANHO_BLOCO_LOTE) {
+            List<PessoaDTO> bloco = pessoasDTO.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_LOTE, pessoasDTO.size()));
+            processarBlocoLote(bloco, inicio, cpfsNumericos, upsert, idsExistentes, cpfsNoLote, resultados);
+
+            // Envia o bloco ao banco e libera as entidades da memória
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return resultados;
+    }
+
+    private void processarBlocoLote(List<PessoaDTO> bloco, int deslocamento, long[] cpfsNumericos, boolean upsert,
+                                    Map<Long, Long> idsExistentes, Set<Long> cpfsNoLote,
+                                    List<ResultadoLoteDTO> resultados) {
+        // Carrega de uma vez as pessoas do bloco que serão atualizadas
+        Map<Long, Pessoa> paraAtualizar = new HashMap<>();
+        if (upsert) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < bloco.size(); i++) {
+                Long id = idsExistentes.get(cpfsNumericos[deslocamento + i]);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+            if (!ids.isEmpty()) {
+                paraAtualizar = pessoaRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Pessoa::getId, Function.identity()));
+            }
+        }
+
+        for (int i = 0; i < bloco.size(); i++) {
+            PessoaDTO dto = bloco.get(i);
+            int indice = deslocamento + i;
+            String cpf = dto != null ? dto.getCpf() : null;
+            long cpfNumerico = cpfsNumericos[indice];
+
+            String tamanhoExcedido = dto != null ? tamanhoExcedido(dto) : null;
+
+            if (dto == null || isBlank(dto.getNome()) || isBlank(cpf)) {
+                resultados.add(new ResultadoLoteDTO(indice, cpf, ResultadoLoteDTO.Status.INVALIDO, null, "Nome e CPF são obrigatórios"));
+            } else if (tamanhoExcedido != null) {
+                // Recusado aqui: no flush, a coluna estourada derrubaria o lote inteiro
+                resultados.add(new ResultadoLoteDTO(indice, cpf, ResultadoLoteDTO.Status.INVALIDO, null, tamanhoExcedido));
+            } else if (cpfNumerico == DocumentoUtils.INVALIDO) {
+                resultados.add(new ResultadoLoteDTO(indice, cpf, ResultadoLoteDTO.Status.INVALIDO, null, "CPF inválido"));
+            } else if (!cpfsNoLote.add(cpfNumerico)) {
+                resultados.add(new ResultadoLoteDTO(indice, cpf, ResultadoLoteDTO.Status.DUPLICADO, null, "CPF repetido no lote"));
+            } else if (idsExistentes.containsKey(cpfNumerico)) {
+                Long id = idsExistentes.get(cpfNumerico);
+                Pessoa existente = paraAtualizar.get(id);
+                if (existente == null) {
+                    resultados.add(new ResultadoLoteDTO(indice, cpf, ResultadoLoteDTO.Status.DUPLICADO, id, "CPF já cadastrado"));
+                } else {
+                    PessoaDTO anterior = new PessoaDTO(existente);
+                    copiarDados(dto, existente);
+                    publicar(PessoaAlteradaEvent.Tipo.ATUALIZACAO, id, anterior, new PessoaDTO(existente));
+                    resultados.add(new ResultadoLoteDTO(indice, cpf, ResultadoLoteDTO.Status.ATUALIZADO, id, null));
+                }
+            } else {
+                Pessoa pessoa = new Pessoa();
+                copiarDados(dto, pessoa);
+                pessoaRepository.save(pessoa);
+                publicar(PessoaAlteradaEvent.Tipo.CRIACAO, pessoa.getId(), null, new PessoaDTO(pessoa));
+                resultados.add(new ResultadoLoteDTO(indice, cpf, ResultadoLoteDTO.Status.CRIADO, pessoa.getId(), null));
+            }
+        }
+    }
+
+    private boolean isBlank(String valor) {
+        return valor == null || valor.isBlank();
     }
 
+    @Transactional(readOnly = true)
     public List<PessoaDTO> listarTodas() {
-        return pessoaRepository.findAll()
-            .stream()
-            .map(PessoaDTO::new)
-            .collect(Collectors.toList());
+        return listarTodas(CamposPessoa.TODOS);
+    }
+
+    /**
+     * Lista todas as pessoas consultando só as colunas dos campos pedidos (sem join quando o endereço não é pedido).
+     */
+    @Transactional(readOnly = true)
+    public List<PessoaDTO> listarTodas(CamposPessoa campos) {
+        return campos.todos() ? pessoaRepository.findTodasComoDTO() : pessoaRepository.findTodasComCampos(campos);
+    }
+
+    /**
+     * Lista pessoas paginando por keyset (cursor) em vez de offset.
+     * Com ordenação por id o cursor é o próprio id; por nome é um token opaco com nome e id.
+     */
+    @Transactional(readOnly = true)
+    public PaginaPessoasDTO listarPagina(String after, int limit, String sort) {
+        return listarPagina(after, limit, sort, CamposPessoa.TODOS);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaPessoasDTO listarPagina(String after, int limit, String sort, CamposPessoa campos) {
+        if (limit < 1 || limit > LIMITE_MAXIMO_PAGINA) {
+            throw new RuntimeException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+        // Busca um item a mais para saber se existe próxima página
+        PageRequest pagina = PageRequest.of(0, limit + 1);
+
+        List<PessoaDTO> pessoas;
+        if ("id".equals(sort)) {
+            Long idApos = decodificarCursorId(after);
+            pessoas = campos.todos()
+                ? pessoaRepository.findPaginaOrdenadaPorId(idApos, pagina)
+                : pessoaRepository.findPaginaComCampos(campos, sort, null, idApos, limit + 1);
+        } else if ("nome".equals(sort)) {
+            String[] cursor = after == null || after.isBlank() ? null : decodificarCursor(after);
+            if (!campos.todos()) {
+                pessoas = pessoaRepository.findPaginaComCampos(campos, sort,
+                    cursor != null ? cursor[1] : null, cursor != null ? Long.valueOf(cursor[0]) : null, limit + 1);
+            } else if (cursor == null) {
+                pessoas = pessoaRepository.findPrimeiraPaginaOrdenadaPorNome(pagina);
+            } else {
+                pessoas = pessoaRepository.findPaginaOrdenadaPorNome(cursor[1], Long.valueOf(cursor[0]), pagina);
+            }
+        } else {
+            throw new RuntimeException("Ordenação inválida: " + sort);
+        }
+
+        String proximoCursor = null;
+        if (pessoas.size() > limit) {
+            pessoas = pessoas.subList(0, limit);
+            PessoaDTO ultima = pessoas.get(limit - 1);
+            proximoCursor = "id".equals(sort) ? String.valueOf(ultima.getId()) : codificarCursor(ultima.getId(), ultima.getNome());
+        }
+
+        return new PaginaPessoasDTO(pessoas, proximoCursor);
+    }
+
+    /**
+     * Busca pessoas pelos filtros informados, paginando por id (o cursor é o id da última pessoa).
+     * Nome é prefixo sem diferenciar maiúsculas; estado, município e bairro são exatos; CEP aceita hífen.
+     */
+    @Transactional(readOnly = true)
+    public PaginaPessoasDTO buscar(FiltroBuscaDTO filtro, String after, int limit) {
+        return buscar(filtro, after, limit, CamposPessoa.TODOS);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaPessoasDTO buscar(FiltroBuscaDTO filtro, String after, int limit, CamposPessoa campos) {
+        if (limit < 1 || limit > LIMITE_MAXIMO_PAGINA) {
+            throw new RuntimeException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+        Integer cep = null;
+        if (!isBlank(filtro.getCep())) {
+            int numero = DocumentoUtils.parseCep(filtro.getCep());
+            if (numero == DocumentoUtils.INVALIDO) {
+                throw new RuntimeException("CEP inválido");
+            }
+            cep = numero;
+        }
+        String nome = normalizar(filtro.getNome());
+        String estado = normalizar(filtro.getEstado());
+
+        List<PessoaDTO> pessoas = pessoaRepository.buscar(campos,
+            nome != null ? nome.toLowerCase(Locale.ROOT) : null,
+            estado != null ? estado.toUpperCase(Locale.ROOT) : null,
+            normalizar(filtro.getMunicipio()),
+            normalizar(filtro.getBairro()),
+            cep, decodificarCursorId(after), limit + 1);
+
+        String proximoCursor = null;
+        if (pessoas.size() > limit) {
+            pessoas = pessoas.subList(0, limit);
+            proximoCursor = String.valueOf(pessoas.get(limit - 1).getId());
+        }
+        return new PaginaPessoasDTO(pessoas, proximoCursor);
+    }
+
+    /**
+     * Busca por nome tolerante a trechos e erros de digitação, do mais ao menos parecido.
+     * O cursor codifica a similaridade e o id da última pessoa da página.
+     */
+    @Transactional(readOnly = true)
+    public PaginaPessoasDTO buscarPorNomeAproximado(String termo, String after, int limit) {
+        if (limit < 1 || limit > LIMITE_MAXIMO_PAGINA) {
+            throw new RuntimeException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+        String termoNormalizado = normalizar(termo);
+        if (termoNormalizado == null || termoNormalizado.length() < TAMANHO_MINIMO_TERMO_APROXIMADO) {
+            throw new RuntimeException("Informe ao menos " + TAMANHO_MINIMO_TERMO_APROXIMADO + " caracteres");
+        }
+
+        Float similaridadeApos = null;
+        Long idApos = null;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = decodificarCursor(after);
+            try {
+                similaridadeApos = Float.valueOf(cursor[1]);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Cursor inválido");
+            }
+            idApos = Long.valueOf(cursor[0]);
+        }
+
+        List<BuscaNomeAproximada.Resultado> resultados =
+            buscaNomeAproximada.buscar(termoNormalizado, similaridadeApos, idApos, limit + 1);
+        String proximoCursor = null;
+        if (resultados.size() > limit) {
+            resultados = resultados.subList(0, limit);
+            BuscaNomeAproximada.Resultado ultimo = resultados.get(limit - 1);
+            proximoCursor = codificarCursor(ultimo.getId(), Float.toString(ultimo.getSimilaridade()));
+        }
+        if (resultados.isEmpty()) {
+            return new PaginaPessoasDTO(List.of(), null);
+        }
+
+        // Uma consulta para a página inteira, reordenada pela similaridade
+        List<Long> ids = resultados.stream().map(BuscaNomeAproximada.Resultado::getId).collect(Collectors.toList());
+        Map<Long, PessoaDTO> porId = pessoaRepository.findDTOsByIdIn(ids).stream()
+            .collect(Collectors.toMap(PessoaDTO::getId, Function.identity()));
+        List<PessoaDTO> itens = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PessoaDTO pessoa = porId.get(id);
+            if (pessoa != null) {
+                itens.add(pessoa);
+            }
+        }
+        return new PaginaPessoasDTO(itens, proximoCursor);
+    }
+
+    /**
+     * Pessoas alteradas depois da revisão informada, em ordem de revisão, para sincronização incremental.
+     * Cada pessoa aparece uma vez por revisão em que mudou, com o estado atual (ou como REMOCAO se não
+     * existe mais). A primeira página fixa a revisão final da sincronização; o cursor a carrega junto com
+     * a posição, e ao terminar (proximoCursor nulo) o cliente guarda revisaoAtual para a próxima chamada.
+     */
+    @Transactional(readOnly = true)
+    public PaginaMudancasDTO listarMudancas(long desdeRevisao, String after, int limit) {
+        if (limit < 1 || limit > LIMITE_MAXIMO_MUDANCAS) {
+            throw new RuntimeException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_MUDANCAS);
+        }
+        if (desdeRevisao < 0) {
+            throw new RuntimeException("Revisão inválida");
+        }
+
+        long revApos = desdeRevisao;
+        long idApos = Long.MAX_VALUE; // nada da própria revisão de partida
+        long ate;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = decodificarCursor(after);
+            String[] revisoes = cursor[1].split(":", 2);
+            try {
+                revApos = Long.parseLong(revisoes[0]);
+                ate = Long.parseLong(revisoes[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Cursor inválido");
+            }
+            if (revApos < desdeRevisao || ate < revApos) {
+                throw new RuntimeException("Cursor inválido");
+            }
+            idApos = Long.parseLong(cursor[0]);
+        } else {
+            // Revisões recentes ficam de fora até que as anteriores a elas tenham sido confirmadas
+            long limiteTempo = System.currentTimeMillis() - atrasoMudancas.toMillis();
+            ate = Math.max(desdeRevisao, enversAuditService.findLatestRevisionAte(limiteTempo));
+        }
+
+        List<Object[]> linhas = ate > revApos || idApos != Long.MAX_VALUE
+            ? pessoaRepository.findMudancas(revApos, idApos, ate, limit + 1)
+            : List.of();
+        String proximoCursor = null;
+        if (linhas.size() > limit) {
+            linhas = linhas.subList(0, limit);
+            Object[] ultima = linhas.get(limit - 1);
+            proximoCursor = codificarCursor(((Number) ultima[1]).longValue(), ((Number) ultima[0]).longValue() + ":" + ate);
+        }
+        if (linhas.isEmpty()) {
+            return new PaginaMudancasDTO(List.of(), null, ate);
+        }
+
+        // Estado atual das pessoas da página em uma consulta
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Object[] linha : linhas) {
+            ids.add(((Number) linha[1]).longValue());
+        }
+        Map<Long, PessoaDTO> porId = pessoaRepository.findDTOsByIdIn(new ArrayList<>(ids)).stream()
+            .collect(Collectors.toMap(PessoaDTO::getId, Function.identity()));
+        List<MudancaDTO> itens = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            long revisao = ((Number) linha[0]).longValue();
+            Long id = ((Number) linha[1]).longValue();
+            PessoaDTO pessoa = porId.get(id);
+            MudancaDTO.Tipo tipo = pessoa != null ? MudancaDTO.Tipo.UPSERT : MudancaDTO.Tipo.REMOCAO;
+            itens.add(new MudancaDTO(revisao, id, tipo, pessoa));
+        }
+        return new PaginaMudancasDTO(itens, proximoCursor, ate);
+    }
+
+    private String normalizar(String valor) {
+        return isBlank(valor) ? null : valor.trim();
+    }
+
+    private Long decodificarCursorId(String after) {
+        if (after == null || after.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(after);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+
+    // Cursor opaco "id:valor", usado quando a ordenação não é só pelo id
+    private String codificarCursor(Long id, String valor) {
+        String cursor = id + ":" + valor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodificarCursor(String after) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            String[] partes = valor.split(":", 2);
+            if (partes.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            Long.parseLong(partes[0]);
+            return partes;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Exporta todas as pessoas em NDJSON (um PessoaDTO por linha) direto para a saída,
+     * percorrendo um cursor JDBC para manter o uso de memória constante. As linhas já chegam
+     * como DTOs, então nada fica retido no contexto de persistência.
+     */
+    @Transactional(readOnly = true)
+    public long exportarNdjson(OutputStream saida) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long total = 0;
+
+        try (Stream<PessoaDTO> pessoas = pessoaRepository.streamTodas();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(saida)) {
+            // O fechamento do generator não deve fechar a resposta HTTP
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<PessoaDTO> iterator = pessoas.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                total++;
+
+                // Primeira linha sai imediatamente; depois descarrega em blocos
+                if (total == 1 || total % INTERVALO_DESCARGA_STREAM == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return total;
     }
 
     public PessoaDTO buscarPorCpf(String cpf) {
-        Pessoa pessoa = pessoaRepository.findByCpf(cpf)
-            .orElseThrow(() -> new RuntimeException("Pessoa não encontrada"));
-        return new PessoaDTO(pessoa);
+        long numero = DocumentoUtils.parseCpf(cpf);
+        if (numero == DocumentoUtils.INVALIDO) {
+            throw new RuntimeException("Pessoa não encontrada");
+        }
+        return pessoaCache.porCpf(numero, () -> pessoaRepository.findDTOByCpfNumero(numero)
+            .orElseThrow(() -> new RuntimeException("Pessoa não encontrada")));
     }
 
     public PessoaDTO buscarPorId(Long id) {
-        Pessoa pessoa = pessoaRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Pessoa não encontrada"));
-        return new PessoaDTO(pessoa);
+        return pessoaCache.porId(id, () -> pessoaRepository.findDTOById(id)
+            .orElseThrow(() -> new RuntimeException("Pessoa não encontrada")));
+    }
+
+    /**
+     * Busca várias pessoas por id com consultas IN (em blocos), em vez de uma ida ao banco por id.
+     * O resultado segue a ordem da requisição, com NAO_ENCONTRADO para ids inexistentes.
+     */
+    @Transactional(readOnly = true)
+    public List<ResultadoBuscaDTO> buscarPorIds(List<Long> ids) {
+        validarTamanhoBusca(ids);
+
+        Set<Long> chaves = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                chaves.add(id);
+            }
+        }
+        Map<Long, PessoaDTO> encontradas = new HashMap<>();
+        for (List<Long> bloco : emBlocos(chaves)) {
+            for (PessoaDTO pessoa : pessoaRepository.findDTOsByIdIn(bloco)) {
+                encontradas.put(pessoa.getId(), pessoa);
+            }
+        }
+
+        List<ResultadoBuscaDTO> resultados = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            resultados.add(resultadoBusca(i, id != null ? id.toString() : null,
+                id != null, id != null ? encontradas.get(id) : null));
+        }
+        return resultados;
+    }
+
+    /**
+     * Busca várias pessoas por CPF (com ou sem pontuação) pela chave numérica, em consultas IN.
+     * CPFs em formato inválido são marcados como INVALIDO sem consultar o banco.
+     */
+    @Transactional(readOnly = true)
+    public List<ResultadoBuscaDTO> buscarPorCpfs(List<String> cpfs) {
+        validarTamanhoBusca(cpfs);
+
+        long[] numeros = new long[cpfs.size()];
+        Set<Long> chaves = new LinkedHashSet<>();
+        for (int i = 0; i < cpfs.size(); i++) {
+            numeros[i] = DocumentoUtils.parseCpf(cpfs.get(i));
+            if (numeros[i] != DocumentoUtils.INVALIDO) {
+                chaves.add(numeros[i]);
+            }
+        }
+        Map<Long, PessoaDTO> encontradas = new HashMap<>();
+        for (List<Long> bloco : emBlocos(chaves)) {
+            for (PessoaDTO pessoa : pessoaRepository.findDTOsByCpfNumeroIn(bloco)) {
+                encontradas.put(DocumentoUtils.parseCpf(pessoa.getCpf()), pessoa);
+            }
+        }
+
+        List<ResultadoBuscaDTO> resultados = new ArrayList<>(cpfs.size());
+        for (int i = 0; i < cpfs.size(); i++) {
+            boolean valido = numeros[i] != DocumentoUtils.INVALIDO;
+            resultados.add(resultadoBusca(i, cpfs.get(i), valido, valido ? encontradas.get(numeros[i]) : null));
+        }
+        return resultados;
+    }
+
+    private void validarTamanhoBusca(List<?> chaves) {
+        if (chaves == null || chaves.isEmpty()) {
+            throw new RuntimeException("Nenhuma chave informada");
+        }
+        if (chaves.size() > limiteBuscaMultipla) {
+            throw new RuntimeException("Busca excede o limite de " + limiteBuscaMultipla + " chaves");
+        }
+    }
+
+    private List<List<Long>> emBlocos(Set<Long> chaves) {
+        List<Long> todas = new ArrayList<>(chaves);
+        List<List<Long>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < todas.size(); inicio += TAMANHO_BLOCO_BUSCA) {
+            blocos.add(todas.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_BUSCA, todas.size())));
+        }
+        return blocos;
+    }
+
+    private ResultadoBuscaDTO resultadoBusca(int indice, String chave, boolean valida, PessoaDTO pessoa) {
+        ResultadoBuscaDTO.Status status = !valida ? ResultadoBuscaDTO.Status.INVALIDO
+            : pessoa == null ? ResultadoBuscaDTO.Status.NAO_ENCONTRADO
+            : ResultadoBuscaDTO.Status.ENCONTRADO;
+        return new ResultadoBuscaDTO(indice, chave, status, pessoa);
     }
 
     @Transactional
     public PessoaDTO atualizarPessoa(Long id, PessoaDTO dto) {
+        return atualizarPessoa(id, dto, null);
+    }
+
+    /**
+     * Atualiza a pessoa; se ifMatch for informado, só prossegue quando corresponde ao ETag atual.
+     * Sem lock de linha: uma escrita concorrente após a leitura é detectada pelo @Version no UPDATE.
+     */
+    @Transactional
+    public PessoaDTO atualizarPessoa(Long id, PessoaDTO dto, String ifMatch) {
+        if (dto.getCpf() != null && DocumentoUtils.parseCpfValido(dto.getCpf()) == DocumentoUtils.INVALIDO) {
+            throw new RuntimeException("CPF inválido");
+        }
         Pessoa pessoa = pessoaRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Pessoa não encontrada"));
 
+        PessoaDTO anterior = new PessoaDTO(pessoa);
+        if (ifMatch != null && !EtagUtils.corresponde(ifMatch, EtagUtils.etag(anterior))) {
+            throw new VersaoDivergenteException();
+        }
+        copiarDados(dto, pessoa);
+
+        pessoaRepository.save(pessoa);
+        // As versões só são incrementadas no flush; o DTO retornado precisa delas para o novo ETag
+        entityManager.flush();
+
+        PessoaDTO atualizada = new PessoaDTO(pessoa);
+        publicar(PessoaAlteradaEvent.Tipo.ATUALIZACAO, id, anterior, atualizada);
+        return atualizada;
+    }
+
+    @Transactional
+    public void deletar(Long id) {
+        pessoaRepository.findById(id).ifPresent(pessoa -> {
+            PessoaDTO anterior = new PessoaDTO(pessoa);
+            pessoaRepository.delete(pessoa);
+            publicar(PessoaAlteradaEvent.Tipo.REMOCAO, id, anterior, null);
+        });
+    }
+
+    private void publicar(PessoaAlteradaEvent.Tipo tipo, Long id, PessoaDTO anterior, PessoaDTO atual) {
+        RevisaoTransacao revisao = enversAuditService.revisaoAtual();
+        eventPublisher.publishEvent(new PessoaAlteradaEvent(tipo, id, revisao, anterior, atual));
+    }
+
+    private void copiarDados(PessoaDTO dto, Pessoa pessoa) {
         pessoa.setNome(dto.getNome());
         pessoa.setTelefone(dto.getTelefone());
         pessoa.setCpf(dto.getCpf());
 
-        // Atualizar endereço
+        // Criar ou atualizar endereço se fornecido
         if (dto.getEndereco() != null) {
             Endereco endereco = pessoa.getEndereco();
             if (endereco == null) {
@@ -88,13 +731,5 @@ public class PessoaService {
             endereco.setMunicipio(dto.getEndereco().getMunicipio());
             endereco.setEstado(dto.getEndereco().getEstado());
         }
-
-        pessoaRepository.save(pessoa);
-
-        return new PessoaDTO(pessoa);
-    }
-
-    public void deletar(Long id) {
-        pessoaRepository.deleteById(id);
     }
 }
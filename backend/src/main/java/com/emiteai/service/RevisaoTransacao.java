@@ -0,0 +1,111 @@
+package com.emiteai.service;
+
+import com.emiteai.entities.CustomRevisionEntity;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Revisão do Envers gravada pela transação corrente. O Envers só cria e numera a revisão no commit,
+ * depois do último flush; o número fica disponível a partir daí, ainda dentro da transação para os
+ * callbacks de aoResolver (ex.: o outbox) e depois do commit para quem guardou a instância.
+ * Uma instância por transação: todas as escritas dela (ex.: um lote inteiro) compartilham a revisão.
+ */
+public final class RevisaoTransacao implements LongSupplier {
+
+    private static final Object CHAVE = RevisaoTransacao.class;
+
+    private final List<LongConsumer> aoResolver = new ArrayList<>();
+    private CustomRevisionEntity entidade;
+    private Long numero;
+
+    private RevisaoTransacao() {
+    }
+
+    /**
+     * Revisão da transação corrente; na primeira chamada, agenda a resolução para o commit da sessão.
+     */
+    static RevisaoTransacao daTransacao(SessionImplementor sessao) {
+        RevisaoTransacao revisao = (RevisaoTransacao) TransactionSynchronizationManager.getResource(CHAVE);
+        if (revisao == null) {
+            revisao = new RevisaoTransacao();
+            TransactionSynchronizationManager.bindResource(CHAVE, revisao);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHAVE);
+                }
+            });
+            sessao.getActionQueue().registerProcess(revisao.resolucao(true));
+        }
+        return revisao;
+    }
+
+    /**
+     * Chamado pelo CustomRevisionListener quando o Envers cria a revisão da transação corrente.
+     */
+    public static void aoCriarRevisao(CustomRevisionEntity entidade) {
+        RevisaoTransacao revisao = (RevisaoTransacao) TransactionSynchronizationManager.getResource(CHAVE);
+        if (revisao != null) {
+            revisao.entidade = entidade;
+        }
+    }
+
+    /**
+     * Executa a ação com o número da revisão no commit, dentro da transação (a ação pode gravar entidades).
+     */
+    public void aoResolver(LongConsumer acao) {
+        if (numero != null) {
+            acao.accept(numero);
+        } else {
+            aoResolver.add(acao);
+        }
+    }
+
+    @Override
+    public long getAsLong() {
+        if (numero == null) {
+            throw new IllegalStateException("A revisão só é conhecida no commit da transação");
+        }
+        return numero;
+    }
+
+    // O processo do Envers é registrado no flush do commit, possivelmente depois deste:
+    // a primeira execução só volta ao fim da fila, para resolver depois que a revisão foi gravada
+    private BeforeTransactionCompletionProcess resolucao(boolean adiar) {
+        return sessao -> {
+            if (adiar) {
+                sessao.getActionQueue().registerProcess(resolucao(false));
+            } else {
+                resolver(sessao);
+            }
+        };
+    }
+
+    private void resolver(SessionImplementor sessao) {
+        // Sem alteração auditada (ex.: atualização sem mudanças) o Envers não cria revisão: vale a mais recente
+        numero = entidade != null ? entidade.getId() : ultimaRevisao(sessao);
+        if (aoResolver.isEmpty()) {
+            return;
+        }
+        for (LongConsumer acao : aoResolver) {
+            acao.accept(numero);
+        }
+        aoResolver.clear();
+        // O flush do commit já passou: o que as ações gravaram precisa ir para o banco agora
+        sessao.flush();
+    }
+
+    private static long ultimaRevisao(SessionImplementor sessao) {
+        Number revisao = sessao
+            .createQuery("SELECT MAX(r.id) FROM CustomRevisionEntity r", Number.class)
+            .getSingleResult();
+        return revisao != null ? revisao.longValue() : 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RoteamentoLeituraDataSource;
+import com.emiteai.events.PessoaAlteradaEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ETag das listagens de pessoas, derivado da versão das revisões do Envers (EnversAuditService.findVersaoRevisoes),
+ * que muda a cada commit auditado, de qualquer instância, mesmo quando a revisão confirmada tem número
+ * menor que a máxima já visível. A versão lida do banco é reaproveitada por um intervalo curto
+ * (emiteai.cache.listagem.revisao-ttl); para que as escritas desta instância mudem o ETag na hora, ele
+ * também carrega um contador de commits locais. As de outras instâncias aparecem ao fim do intervalo.
+ */
+@Service
+public class VersaoListagemService {
+
+    // Distingue instâncias e reinícios: contadores de processos diferentes não se confundem
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong commits = new AtomicLong();
+
+    @Autowired
+    private EnversAuditService enversAuditService;
+
+    @Value("${emiteai.cache.listagem.revisao-ttl:1s}")
+    private Duration ttlRevisao = Duration.ofSeconds(1);
+
+    private volatile RevisaoLida revisaoLida;
+
+    private static final class RevisaoLida {
+        private final String versao;
+        private final long lidaEmNanos;
+
+        private RevisaoLida(String versao, long lidaEmNanos) {
+            this.versao = versao;
+            this.lidaEmNanos = lidaEmNanos;
+        }
+    }
+
+    public String etag() {
+        return "\"r" + revisaoAtual() + "-" + instancia + "-" + commits.get() + "\"";
+    }
+
+    private String revisaoAtual() {
+        long agora = System.nanoTime();
+        RevisaoLida lida = revisaoLida;
+        if (lida != null && agora - lida.lidaEmNanos < ttlRevisao.toNanos()) {
+            return lida.versao;
+        }
+        // Da primária: com a versão atrasada da réplica, clientes com o corpo antigo receberiam 304
+        String versao = RoteamentoLeituraDataSource.naPrimaria(enversAuditService::findVersaoRevisoes);
+        revisaoLida = new RevisaoLida(versao, agora);
+        return versao;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarPessoa(PessoaAlteradaEvent evento) {
+        commits.incrementAndGet();
+    }
+}
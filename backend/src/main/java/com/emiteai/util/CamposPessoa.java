@@ -0,0 +1,138 @@
+package com.emiteai.util;
+
+import com.emiteai.dtos.PessoaDTO;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Campos de pessoa pedidos em "?fields=" (ex.: fields=id,nome,cpf).
+ * Define tanto as colunas consultadas no banco quanto as propriedades do JSON de resposta;
+ * "endereco" traz o endereço inteiro e é o único campo que exige o join.
+ */
+public final class CamposPessoa {
+
+    public enum Campo {
+        ID, NOME, TELEFONE, CPF, ENDERECO, VERSAO;
+
+        public String nome() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static final CamposPessoa TODOS = new CamposPessoa(EnumSet.allOf(Campo.class));
+
+    private final Set<Campo> campos;
+
+    private CamposPessoa(Set<Campo> campos) {
+        this.campos = campos;
+    }
+
+    /**
+     * Interpreta a lista separada por vírgulas; vazia ou nula significa todos os campos.
+     */
+    public static CamposPessoa parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return TODOS;
+        }
+        Set<Campo> campos = EnumSet.noneOf(Campo.class);
+        for (String nome : fields.split(",")) {
+            String valor = nome.trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            try {
+                campos.add(Campo.valueOf(valor.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Campo inválido: " + valor + ". Use: " + disponiveis());
+            }
+        }
+        if (campos.isEmpty()) {
+            return TODOS;
+        }
+        return campos.size() == Campo.values().length ? TODOS : new CamposPessoa(campos);
+    }
+
+    public boolean contem(Campo campo) {
+        return campos.contains(campo);
+    }
+
+    public boolean todos() {
+        return campos.size() == Campo.values().length;
+    }
+
+    /**
+     * Identificação curta e estável dos campos pedidos (ex.: "id.nome"), na ordem do enum.
+     */
+    public String chave() {
+        StringBuilder chave = new StringBuilder();
+        for (Campo campo : campos) {
+            if (!chave.isEmpty()) {
+                chave.append('.');
+            }
+            chave.append(campo.nome());
+        }
+        return chave.toString();
+    }
+
+    /**
+     * Monta o JSON de uma pessoa só com os campos pedidos, na ordem do PessoaDTO.
+     */
+    public Map<String, Object> aplicar(PessoaDTO pessoa) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (Campo campo : campos) {
+            json.put(campo.nome(), valor(pessoa, campo));
+        }
+        return json;
+    }
+
+    public List<Map<String, Object>> aplicar(List<PessoaDTO> pessoas) {
+        List<Map<String, Object>> json = new ArrayList<>(pessoas.size());
+        for (PessoaDTO pessoa : pessoas) {
+            json.add(aplicar(pessoa));
+        }
+        return json;
+    }
+
+    private static Object valor(PessoaDTO pessoa, Campo campo) {
+        return switch (campo) {
+            case ID -> pessoa.getId();
+            case NOME -> pessoa.getNome();
+            case TELEFONE -> pessoa.getTelefone();
+            case CPF -> pessoa.getCpf();
+            case VERSAO -> pessoa.getVersao();
+            case ENDERECO -> pessoa.getEndereco();
+        };
+    }
+
+    private static String disponiveis() {
+        StringBuilder nomes = new StringBuilder();
+        for (Campo campo : Campo.values()) {
+            if (!nomes.isEmpty()) {
+                nomes.append(", ");
+            }
+            nomes.append(campo.nome());
+        }
+        return nomes.toString();
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof CamposPessoa camposPessoa && campos.equals(camposPessoa.campos);
+    }
+
+    @Override
+    public int hashCode() {
+        return campos.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return campos.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.emiteai.util;
+
+/**
+ * Conversão e validação de CPF e CEP para a forma numérica.
+ * Os métodos percorrem a entrada caractere a caractere, sem regex nem
+ * Strings intermediárias, e podem ser chamados em laços de lote sem gerar lixo.
+ * Pontos, hífens e espaços são ignorados; qualquer outro caractere invalida o valor.
+ */
+public final class DocumentoUtils {
+
+    public static final long INVALIDO = -1;
+
+    private DocumentoUtils() {
+    }
+
+    /**
+     * Extrai os 11 dígitos do CPF como long, sem verificar os dígitos verificadores.
+     * Retorna {@link #INVALIDO} se não houver exatamente 11 dígitos.
+     */
+    public static long parseCpf(CharSequence cpf) {
+        return parseDigitos(cpf, 11);
+    }
+
+    /**
+     * Como {@link #parseCpf(CharSequence)}, mas também exige dígitos verificadores corretos.
+     */
+    public static long parseCpfValido(CharSequence cpf) {
+        long valor = parseCpf(cpf);
+        return valor != INVALIDO && cpfValido(valor) ? valor : INVALIDO;
+    }
+
+    /**
+     * Valida os dígitos verificadores de um CPF em forma numérica.
+     * Sequências de dígitos repetidos (000.000.000-00, 111.111.111-11...) são rejeitadas.
+     */
+    public static boolean cpfValido(long cpf) {
+        if (cpf < 0 || cpf > 99_999_999_999L || cpf % 11_111_111_111L == 0) {
+            return false;
+        }
+        int dv2 = (int) (cpf % 10);
+        int dv1 = (int) (cpf / 10 % 10);
+        long base = cpf / 100;
+
+        // Dígito i (da direita para a esquerda, começando em 0) tem peso i+2 no primeiro DV e i+3 no segundo
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int i = 0; i < 9; i++) {
+            int digito = (int) (base % 10);
+            soma1 += digito * (i + 2);
+            soma2 += digito * (i + 3);
+            base /= 10;
+        }
+        int esperado1 = digitoVerificador(soma1);
+        int esperado2 = digitoVerificador(soma2 + esperado1 * 2);
+        return dv1 == esperado1 && dv2 == esperado2;
+    }
+
+    /**
+     * Extrai os 8 dígitos do CEP como int. Retorna -1 se não houver exatamente 8 dígitos.
+     */
+    public static int parseCep(CharSequence cep) {
+        return (int) parseDigitos(cep, 8);
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private static long parseDigitos(CharSequence texto, int quantidade) {
+        if (texto == null) {
+            return INVALIDO;
+        }
+        long valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > quantidade) {
+                    return INVALIDO;
+                }
+                valor = valor * 10 + (c - '0');
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return INVALIDO;
+            }
+        }
+        return digitos == quantidade ? valor : INVALIDO;
+    }
+}
@@ -0,0 +1,43 @@
+package com.emiteai.util;
+
+import com.emiteai.dtos.PessoaDTO;
+
+/**
+ * Montagem e comparação de ETags das pessoas.
+ * O ETag forte de uma pessoa é "id-versaoPessoa-versaoEndereco" (sem o último trecho quando não há endereço).
+ */
+public final class EtagUtils {
+
+    private EtagUtils() {
+    }
+
+    public static String etag(PessoaDTO pessoa) {
+        StringBuilder etag = new StringBuilder(32).append('"')
+            .append(pessoa.getId()).append('-').append(versao(pessoa.getVersao()));
+        if (pessoa.getEndereco() != null) {
+            etag.append('-').append(versao(pessoa.getEndereco().getVersao()));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Compara um cabeçalho If-Match com o ETag atual usando comparação forte (RFC 9110):
+     * aceita "*" e listas separadas por vírgula; ETags fracos (W/) nunca correspondem.
+     */
+    public static boolean corresponde(String ifMatch, String etagAtual) {
+        if (ifMatch == null) {
+            return false;
+        }
+        for (String candidato : ifMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || valor.equals(etagAtual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long versao(Long versao) {
+        return versao != null ? versao : 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.emiteai.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de nomes para comparação: "  JOÃO  da Silva" e "joao da silva" viram a mesma chave.
+ */
+public final class NomeUtils {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private NomeUtils() {
+    }
+
+    /**
+     * Remove acentos, converte para minúsculas e reduz espaços consecutivos a um só.
+     * Retorna string vazia para null.
+     */
+    public static String normalizar(String nome) {
+        if (nome == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(nome, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
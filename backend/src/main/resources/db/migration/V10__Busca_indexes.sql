@@ -0,0 +1,15 @@
+-- Migration V10: Índices para a busca de pessoas (GET /api/pessoas/busca) e para as facetas
+
+-- Prefixo de nome sem diferenciar maiúsculas: LOWER(nome) LIKE 'ana%'
+-- text_pattern_ops permite usar o índice em LIKE com prefixo independentemente da collation
+CREATE INDEX IF NOT EXISTS idx_pessoa_nome_lower ON pessoa (lower(nome) text_pattern_ops);
+
+-- Filtro por estado ou estado + município; também atende o GROUP BY das facetas (index-only scan)
+CREATE INDEX IF NOT EXISTS idx_endereco_estado_municipio ON endereco (estado, municipio);
+
+CREATE INDEX IF NOT EXISTS idx_endereco_bairro ON endereco (bairro);
+
+-- O filtro por CEP usa idx_endereco_cep_numero (V8)
+
+COMMENT ON INDEX idx_pessoa_nome_lower IS 'Busca de pessoas por prefixo do nome';
+COMMENT ON INDEX idx_endereco_estado_municipio IS 'Busca e contagem de pessoas por estado e município';
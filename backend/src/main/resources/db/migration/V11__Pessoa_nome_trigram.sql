@@ -0,0 +1,9 @@
+-- Migration V11: Busca aproximada de nomes com pg_trgm
+-- LIKE '%trecho%' e nomes com erro de digitação não usam índice B-tree; o índice GIN de trigramas
+-- atende os operadores %, <% e <<% do pg_trgm (GET /api/pessoas/busca-nome)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_pessoa_nome_trgm ON pessoa USING gin (nome gin_trgm_ops);
+
+COMMENT ON INDEX idx_pessoa_nome_trgm IS 'Busca aproximada de pessoas por nome (similaridade de trigramas)';
@@ -0,0 +1,9 @@
+-- Migration V12: Feed de mudanças por revisão (GET /api/pessoas/mudancas)
+-- A consulta percorre as tabelas de auditoria por (rev, pessoa) a partir da última revisão
+-- sincronizada; com a pessoa no índice a página sai ordenada sem ler as linhas auditadas
+
+CREATE INDEX IF NOT EXISTS idx_pessoa_aud_rev_id ON pessoa_aud (rev, id);
+CREATE INDEX IF NOT EXISTS idx_endereco_aud_rev_pessoa ON endereco_aud (rev, pessoa_id);
+
+COMMENT ON INDEX idx_pessoa_aud_rev_id IS 'Pessoas alteradas a partir de uma revisão';
+COMMENT ON INDEX idx_endereco_aud_rev_pessoa IS 'Endereços alterados a partir de uma revisão, por pessoa';
@@ -0,0 +1,17 @@
+-- Migration V13: Outbox de eventos de pessoa
+-- Cada escrita de pessoa grava aqui, na mesma transação, o evento a publicar no RabbitMQ;
+-- o relay lê em ordem de id, publica em lotes com confirmação do broker e apaga o que publicou
+
+CREATE SEQUENCE IF NOT EXISTS pessoa_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS pessoa_outbox (
+    id BIGINT PRIMARY KEY,
+    pessoa_id BIGINT NOT NULL,
+    tipo VARCHAR(20) NOT NULL,
+    revisao BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    criado_em TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+COMMENT ON TABLE pessoa_outbox IS 'Eventos de pessoa ainda não confirmados pelo RabbitMQ';
+COMMENT ON COLUMN pessoa_outbox.payload IS 'EventoPessoaDTO em JSON, corpo da mensagem publicada';
@@ -0,0 +1,12 @@
+-- Migration V14: Resultado dos cadastros assíncronos (POST /api/pessoas com Prefer: respond-async)
+-- Gravado pelo consumidor da fila na mesma transação das pessoas; pedido sem linha aqui ainda está pendente
+
+CREATE TABLE IF NOT EXISTS cadastro_assincrono (
+    id VARCHAR(36) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    pessoa_id BIGINT,
+    mensagem VARCHAR(500),
+    concluido_em TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+COMMENT ON TABLE cadastro_assincrono IS 'Resultado de cada cadastro assíncrono, consultado por GET /api/pessoas/cadastros/{id}';
@@ -0,0 +1,17 @@
+-- Migration V15: Chaves de idempotência compartilhadas entre instâncias
+-- Usada com emiteai.idempotencia.armazenamento=banco; a chave primária garante que só uma
+-- requisição por Idempotency-Key executa, e as demais leem a resposta gravada aqui
+
+CREATE TABLE IF NOT EXISTS idempotencia (
+    chave VARCHAR(255) PRIMARY KEY,
+    impressao VARCHAR(64) NOT NULL,
+    status INTEGER,
+    etag VARCHAR(100),
+    location VARCHAR(500),
+    corpo TEXT,
+    expira_em TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotencia_expira_em ON idempotencia (expira_em);
+
+COMMENT ON COLUMN idempotencia.status IS 'Status HTTP da resposta; nulo enquanto a requisição original está em andamento';
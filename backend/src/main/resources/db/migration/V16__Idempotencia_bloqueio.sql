@@ -0,0 +1,7 @@
+-- Migration V16: Prazo de posse das chaves de idempotência em andamento
+-- A instância que executa a requisição renova o prazo; se ela cair, outra requisição com a mesma
+-- chave assume a execução quando o prazo vence, em vez de esperar o fim do TTL
+
+ALTER TABLE idempotencia ADD COLUMN IF NOT EXISTS bloqueado_ate TIMESTAMP WITH TIME ZONE;
+
+COMMENT ON COLUMN idempotencia.bloqueado_ate IS 'Até quando a requisição em andamento detém a chave; vencido, outra requisição pode assumi-la';
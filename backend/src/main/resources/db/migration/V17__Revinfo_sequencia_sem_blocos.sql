@@ -0,0 +1,8 @@
+-- Migration V17: Números de revisão tirados um a um da sequência
+-- Com blocos de 50 por instância, uma instância podia confirmar a revisão 7 depois que outra já
+-- tinha confirmado a 51, e o feed de mudanças (que avança por número de revisão) perdia a 7.
+-- Todas as instâncias precisam estar na versão com allocationSize = 1 da CustomRevisionEntity.
+
+-- Começa depois do último bloco já reservado, que ainda pode estar em uso
+SELECT setval('revinfo_rev_seq', (SELECT last_value FROM revinfo_rev_seq) + 49, true);
+ALTER SEQUENCE revinfo_rev_seq INCREMENT BY 1;
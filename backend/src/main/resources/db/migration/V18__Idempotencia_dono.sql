@@ -0,0 +1,7 @@
+-- Migration V18: Dono da reserva de idempotência
+-- Gravado por quem insere ou assume a chave; conclusão, liberação e renovação exigem o mesmo dono,
+-- para que a requisição que perdeu a chave (prazo vencido) não mexa na reserva de quem a assumiu
+
+ALTER TABLE idempotencia ADD COLUMN IF NOT EXISTS dono VARCHAR(36);
+
+COMMENT ON COLUMN idempotencia.dono IS 'Requisição que detém a reserva em andamento; muda quando outra requisição a assume';
@@ -0,0 +1,6 @@
+-- Migration V6: Índice para paginação por keyset ordenada por nome
+-- A ordenação por id já é atendida pela chave primária
+
+CREATE INDEX IF NOT EXISTS idx_pessoa_nome_id ON pessoa(nome, id);
+
+COMMENT ON INDEX idx_pessoa_nome_id IS 'Suporte à listagem paginada de pessoas ordenada por nome';
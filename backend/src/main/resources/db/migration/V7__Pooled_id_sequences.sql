@@ -0,0 +1,19 @@
+-- Migration V7: Sequências com alocação em blocos para pessoa, endereco e revinfo
+-- O Hibernate (otimizador pooled-lo) reserva 50 ids por nextval, o que elimina
+-- uma ida ao banco por INSERT e permite o batching JDBC (impossível com IDENTITY)
+
+CREATE SEQUENCE IF NOT EXISTS pessoa_id_seq;
+CREATE SEQUENCE IF NOT EXISTS endereco_id_seq;
+CREATE SEQUENCE IF NOT EXISTS revinfo_rev_seq;
+
+-- O incremento deve ser igual ao allocationSize das entidades
+ALTER SEQUENCE pessoa_id_seq INCREMENT BY 50;
+ALTER SEQUENCE endereco_id_seq INCREMENT BY 50;
+ALTER SEQUENCE revinfo_rev_seq INCREMENT BY 50;
+
+-- Alinhar com os dados existentes: o próximo nextval retorna o maior id + 1
+SELECT setval('pessoa_id_seq', COALESCE((SELECT MAX(id) FROM pessoa), 0) + 1, false);
+SELECT setval('endereco_id_seq', COALESCE((SELECT MAX(id) FROM endereco), 0) + 1, false);
+SELECT setval('revinfo_rev_seq', COALESCE((SELECT MAX(rev) FROM revinfo), 0) + 1, false);
+
+COMMENT ON SEQUENCE revinfo_rev_seq IS 'Números de revisão do Envers (substitui hibernate_sequence)';
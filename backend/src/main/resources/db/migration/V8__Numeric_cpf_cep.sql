@@ -0,0 +1,35 @@
+-- Migration V8: CPF e CEP normalizados em colunas numéricas
+-- As colunas texto continuam guardando o valor informado; as numéricas são a chave
+-- de busca (8 bytes em vez de até 14 caracteres) e igualam "123.456.789-09" a "12345678909"
+
+ALTER TABLE pessoa ADD COLUMN IF NOT EXISTS cpf_numero BIGINT;
+ALTER TABLE endereco ADD COLUMN IF NOT EXISTS cep_numero INTEGER;
+
+-- Backfill: apenas valores com a quantidade exata de dígitos
+UPDATE pessoa
+   SET cpf_numero = CAST(regexp_replace(cpf, '[^0-9]', '', 'g') AS BIGINT)
+ WHERE cpf_numero IS NULL
+   AND length(regexp_replace(cpf, '[^0-9]', '', 'g')) = 11;
+
+UPDATE endereco
+   SET cep_numero = CAST(regexp_replace(cep, '[^0-9]', '', 'g') AS INTEGER)
+ WHERE cep_numero IS NULL
+   AND length(regexp_replace(cep, '[^0-9]', '', 'g')) = 8;
+
+-- O mesmo CPF pode existir com e sem pontuação nos dados antigos: nesse caso o índice
+-- é criado sem unicidade e as duplicatas precisam ser resolvidas manualmente
+DO $$
+BEGIN
+    IF EXISTS (SELECT cpf_numero FROM pessoa WHERE cpf_numero IS NOT NULL
+               GROUP BY cpf_numero HAVING COUNT(*) > 1) THEN
+        RAISE WARNING 'CPFs duplicados após normalização; idx_pessoa_cpf_numero criado sem UNIQUE';
+        CREATE INDEX IF NOT EXISTS idx_pessoa_cpf_numero ON pessoa(cpf_numero);
+    ELSE
+        CREATE UNIQUE INDEX IF NOT EXISTS idx_pessoa_cpf_numero ON pessoa(cpf_numero);
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_endereco_cep_numero ON endereco(cep_numero);
+
+COMMENT ON COLUMN pessoa.cpf_numero IS 'CPF normalizado (somente dígitos) usado nas buscas';
+COMMENT ON COLUMN endereco.cep_numero IS 'CEP normalizado (somente dígitos)';
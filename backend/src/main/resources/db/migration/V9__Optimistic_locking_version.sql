@@ -0,0 +1,8 @@
+-- Migration V9: Coluna de versão para controle de concorrência otimista
+-- Usada pelo Hibernate (@Version) e na composição dos ETags das pessoas
+
+ALTER TABLE pessoa ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE endereco ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN pessoa.versao IS 'Versão para lock otimista, incrementada a cada UPDATE';
+COMMENT ON COLUMN endereco.versao IS 'Versão para lock otimista, incrementada a cada UPDATE';
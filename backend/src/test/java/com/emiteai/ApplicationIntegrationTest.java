@@ -4,6 +4,7 @@ import com.emiteai.dtos.PessoaDTO;
 import com.emiteai.entities.Pessoa;
 import com.emiteai.repository.PessoaRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,7 +50,7 @@ class ApplicationIntegrationTest {
         PessoaDTO pessoaDTO = new PessoaDTO();
         pessoaDTO.setNome("João Silva");
         pessoaDTO.setTelefone("(11) 99999-9999");
-        pessoaDTO.setCpf("123.456.789-00");
+        pessoaDTO.setCpf("123.456.789-09");
 
         // When - Cadastrar pessoa
         mockMvc.perform(post("/api/pessoas")
@@ -57,11 +58,11 @@ class ApplicationIntegrationTest {
                 .content(objectMapper.writeValueAsString(pessoaDTO)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.nome").value("João Silva"))
-                .andExpect(jsonPath("$.cpf").value("123.456.789-00"));
+                .andExpect(jsonPath("$.cpf").value("123.456.789-09"));
 
         // Then - Verificar se foi salvo no banco
-        assertTrue(pessoaRepository.existsByCpf("123.456.789-00"));
-        Pessoa savedPessoa = pessoaRepository.findByCpf("123.456.789-00").orElse(null);
+        assertTrue(pessoaRepository.existsByCpf("123.456.789-09"));
+        Pessoa savedPessoa = pessoaRepository.findByCpf("123.456.789-09").orElse(null);
         assertNotNull(savedPessoa);
         assertEquals("João Silva", savedPessoa.getNome());
     }
@@ -87,6 +88,40 @@ class ApplicationIntegrationTest {
                 .andExpect(jsonPath("$.nome").value("Maria Santos"));
     }
 
+    @Test
+    void testAtualizarPessoa_IfMatch() throws Exception {
+        // Given
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Carla Dias");
+        pessoa.setCpf("111.444.777-35");
+        pessoa = pessoaRepository.saveAndFlush(pessoa);
+
+        String etag = mockMvc.perform(get("/api/pessoas/{id}", pessoa.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        PessoaDTO alteracao = new PessoaDTO();
+        alteracao.setNome("Carla Dias Souza");
+        alteracao.setCpf("111.444.777-35");
+
+        // When & Then - Primeira atualização com o ETag lido gera um novo ETag
+        String novoEtag = mockMvc.perform(put("/api/pessoas/{id}", pessoa.getId())
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(alteracao)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, novoEtag);
+
+        // When & Then - Reusar o ETag antigo falha sem alterar o registro
+        alteracao.setNome("Outro Nome");
+        mockMvc.perform(put("/api/pessoas/{id}", pessoa.getId())
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(alteracao)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testListarPessoas_IntegrationFlow() throws Exception {
         // Given - Salvar múltiplas pessoas
@@ -108,18 +143,40 @@ class ApplicationIntegrationTest {
                 .andExpect(jsonPath("$[1].nome").exists());
     }
 
+    @Test
+    void testListarPessoas_NegociaCbor() throws Exception {
+        // Given
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Ana Cbor");
+        pessoa.setCpf("529.982.247-25");
+        pessoaRepository.save(pessoa);
+
+        // When
+        byte[] corpo = mockMvc.perform(get("/api/pessoas").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then - o mesmo conteúdo do JSON, decodificado de CBOR; sem Accept a resposta continua JSON
+        PessoaDTO[] pessoas = new ObjectMapper(new CBORFactory()).readValue(corpo, PessoaDTO[].class);
+        assertEquals(1, pessoas.length);
+        assertEquals("Ana Cbor", pessoas[0].getNome());
+        mockMvc.perform(get("/api/pessoas"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void testCadastrarPessoa_CpfDuplicado() throws Exception {
         // Given - Salvar pessoa com CPF
         Pessoa pessoa = new Pessoa();
         pessoa.setNome("Primeira Pessoa");
-        pessoa.setCpf("555.555.555-55");
+        pessoa.setCpf("529.982.247-25");
         pessoaRepository.save(pessoa);
 
         // When - Tentar cadastrar com mesmo CPF
         PessoaDTO pessoaDTO = new PessoaDTO();
         pessoaDTO.setNome("Segunda Pessoa");
-        pessoaDTO.setCpf("555.555.555-55");
+        pessoaDTO.setCpf("529.982.247-25");
 
         // Then - Deve retornar erro
         mockMvc.perform(post("/api/pessoas")
@@ -0,0 +1,121 @@
+package com.emiteai.benchmark;
+
+import com.emiteai.entities.Endereco;
+import com.emiteai.entities.Pessoa;
+import com.emiteai.repository.PessoaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compara tamanho da resposta e latência da listagem (GET /api/pessoas) completa
+ * com a mesma listagem restrita por ?fields=id,nome,cpf, que dispensa o join com endereco.
+ * Executar com: ./gradlew benchmark
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class PessoaCamposBenchmarkTest {
+
+    private static final int TOTAL_PESSOAS = 5_000;
+    private static final int REPETICOES = 30;
+    private static final String CAMPOS = "id,nome,cpf";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        pessoaRepository.deleteAll();
+        pessoaRepository.saveAll(gerarPessoas());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pessoaRepository.deleteAll();
+    }
+
+    @Test
+    void compararListagemCompletaComFields() throws Exception {
+        // Aquecimento da JVM, do pool de conexões e dos planos de consulta
+        for (int i = 0; i < 5; i++) {
+            listar(null);
+            listar(CAMPOS);
+        }
+
+        long bytesCompleto = 0;
+        long bytesCampos = 0;
+        long nanosCompleto = 0;
+        long nanosCampos = 0;
+        for (int i = 0; i < REPETICOES; i++) {
+            long inicio = System.nanoTime();
+            bytesCompleto = listar(null);
+            nanosCompleto += System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            bytesCampos = listar(CAMPOS);
+            nanosCampos += System.nanoTime() - inicio;
+        }
+
+        double msCompleto = nanosCompleto / 1e6 / REPETICOES;
+        double msCampos = nanosCampos / 1e6 / REPETICOES;
+        System.out.printf("Listagem completa:    %,d bytes, %.1f ms%n", bytesCompleto, msCompleto);
+        System.out.printf("Listagem com fields:  %,d bytes, %.1f ms (fields=%s)%n", bytesCampos, msCampos, CAMPOS);
+        System.out.printf("Redução do payload:   %.1fx; ganho de latência: %.1fx%n",
+            (double) bytesCompleto / bytesCampos, msCompleto / msCampos);
+
+        assertTrue(bytesCampos * 2 < bytesCompleto, "Com fields a resposta deve ter menos da metade do tamanho");
+    }
+
+    private long listar(String fields) throws Exception {
+        var requisicao = get("/api/pessoas");
+        if (fields != null) {
+            requisicao.param("fields", fields);
+        }
+        return mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    private List<Pessoa> gerarPessoas() {
+        List<Pessoa> pessoas = new ArrayList<>(TOTAL_PESSOAS);
+        for (int i = 0; i < TOTAL_PESSOAS; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Pessoa " + i);
+            pessoa.setTelefone("11999999999");
+            pessoa.setCpf(String.format("%011d", 10_000_000_000L + i));
+
+            Endereco endereco = new Endereco();
+            endereco.setNumero(String.valueOf(i));
+            endereco.setComplemento("Apto " + i % 100);
+            endereco.setCep("01310100");
+            endereco.setBairro("Bela Vista");
+            endereco.setMunicipio("São Paulo");
+            endereco.setEstado("SP");
+            endereco.setPessoa(pessoa);
+            pessoa.setEndereco(endereco);
+            pessoas.add(pessoa);
+        }
+        return pessoas;
+    }
+}
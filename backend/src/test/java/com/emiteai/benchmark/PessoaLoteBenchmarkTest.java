@@ -0,0 +1,121 @@
+package com.emiteai.benchmark;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.repository.PessoaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compara o throughput (pessoas/s) do cadastro individual (POST /api/pessoas)
+ * com o cadastro em lote (POST /api/pessoas/lote).
+ * Executar com: ./gradlew benchmark
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class PessoaLoteBenchmarkTest {
+
+    private static final int TOTAL_PESSOAS = 2_000;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        pessoaRepository.deleteAll();
+    }
+
+    @Test
+    void compararCadastroIndividualComLote() throws Exception {
+        // Aquecimento da JVM e do pool de conexões
+        cadastrarIndividualmente(gerarPessoas(200, 0));
+        cadastrarEmLote(gerarPessoas(200, 200));
+        pessoaRepository.deleteAll();
+
+        long inicioIndividual = System.nanoTime();
+        cadastrarIndividualmente(gerarPessoas(TOTAL_PESSOAS, 1_000));
+        double segundosIndividual = (System.nanoTime() - inicioIndividual) / 1e9;
+
+        long inicioLote = System.nanoTime();
+        cadastrarEmLote(gerarPessoas(TOTAL_PESSOAS, 1_000 + TOTAL_PESSOAS));
+        double segundosLote = (System.nanoTime() - inicioLote) / 1e9;
+
+        double taxaIndividual = TOTAL_PESSOAS / segundosIndividual;
+        double taxaLote = TOTAL_PESSOAS / segundosLote;
+        System.out.printf("Cadastro individual: %.0f pessoas/s%n", taxaIndividual);
+        System.out.printf("Cadastro em lote:    %.0f pessoas/s%n", taxaLote);
+        System.out.printf("Ganho do lote:       %.1fx%n", taxaLote / taxaIndividual);
+
+        assertEquals(2L * TOTAL_PESSOAS, pessoaRepository.count());
+        assertTrue(taxaLote > taxaIndividual, "O cadastro em lote deve ser mais rápido que o individual");
+    }
+
+    private void cadastrarIndividualmente(List<PessoaDTO> pessoas) throws Exception {
+        for (PessoaDTO pessoa : pessoas) {
+            mockMvc.perform(post("/api/pessoas")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(pessoa)))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private void cadastrarEmLote(List<PessoaDTO> pessoas) throws Exception {
+        mockMvc.perform(post("/api/pessoas/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pessoas)))
+                .andExpect(status().isOk());
+    }
+
+    private List<PessoaDTO> gerarPessoas(int quantidade, int inicio) {
+        List<PessoaDTO> pessoas = new ArrayList<>(quantidade);
+        for (int i = inicio; i < inicio + quantidade; i++) {
+            PessoaDTO dto = new PessoaDTO();
+            dto.setNome("Pessoa " + i);
+            dto.setTelefone("11999999999");
+            dto.setCpf(cpfValido(i));
+            pessoas.add(dto);
+        }
+        return pessoas;
+    }
+
+    // Base de 9 dígitos seguida dos dígitos verificadores calculados
+    private String cpfValido(int base) {
+        String digitos = String.format("%09d", base + 100_000_000);
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int i = 0; i < 9; i++) {
+            int digito = digitos.charAt(i) - '0';
+            soma1 += digito * (10 - i);
+            soma2 += digito * (11 - i);
+        }
+        int dv1 = soma1 % 11 < 2 ? 0 : 11 - soma1 % 11;
+        soma2 += dv1 * 2;
+        int dv2 = soma2 % 11 < 2 ? 0 : 11 - soma2 % 11;
+        return digitos + dv1 + dv2;
+    }
+}
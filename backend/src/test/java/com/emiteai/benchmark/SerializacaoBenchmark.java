@@ -0,0 +1,121 @@
+package com.emiteai.benchmark;
+
+import com.emiteai.dtos.AuditoriaDTO;
+import com.emiteai.dtos.EnderecoDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark JMH: tempo de codificação e decodificação de listas de PessoaDTO e AuditoriaDTO
+ * em JSON e em CBOR, com ObjectMappers montados como os da aplicação.
+ * Executado por SerializacaoBenchmarkTest (./gradlew benchmark).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    static final int TAMANHO_LISTA = 1_000;
+
+    @Param({"json", "cbor"})
+    public String formato;
+
+    private ObjectMapper mapper;
+    private JavaType tipoPessoas;
+    private JavaType tipoAuditorias;
+    private List<PessoaDTO> pessoas;
+    private List<AuditoriaDTO> auditorias;
+    private byte[] pessoasCodificadas;
+    private byte[] auditoriasCodificadas;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(formato);
+        tipoPessoas = mapper.getTypeFactory().constructCollectionType(List.class, PessoaDTO.class);
+        tipoAuditorias = mapper.getTypeFactory().constructCollectionType(List.class, AuditoriaDTO.class);
+        pessoas = gerarPessoas(TAMANHO_LISTA);
+        auditorias = gerarAuditorias(TAMANHO_LISTA);
+        pessoasCodificadas = mapper.writeValueAsBytes(pessoas);
+        auditoriasCodificadas = mapper.writeValueAsBytes(auditorias);
+    }
+
+    @Benchmark
+    public byte[] codificarPessoas() throws IOException {
+        return mapper.writeValueAsBytes(pessoas);
+    }
+
+    @Benchmark
+    public List<PessoaDTO> decodificarPessoas() throws IOException {
+        return mapper.readValue(pessoasCodificadas, tipoPessoas);
+    }
+
+    @Benchmark
+    public byte[] codificarAuditorias() throws IOException {
+        return mapper.writeValueAsBytes(auditorias);
+    }
+
+    @Benchmark
+    public List<AuditoriaDTO> decodificarAuditorias() throws IOException {
+        return mapper.readValue(auditoriasCodificadas, tipoAuditorias);
+    }
+
+    // Mesma configuração do Spring Boot (módulos conhecidos e datas ISO-8601) que a aplicação usa
+    static ObjectMapper mapper(String formato) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("cbor".equals(formato)) {
+            builder.factory(new CBORFactory());
+        }
+        return builder.build();
+    }
+
+    static List<PessoaDTO> gerarPessoas(int quantidade) {
+        List<PessoaDTO> pessoas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            PessoaDTO pessoa = new PessoaDTO();
+            pessoa.setId((long) i + 1);
+            pessoa.setNome("Pessoa de Teste " + i);
+            pessoa.setTelefone("(11) 99999-" + String.format("%04d", i % 10_000));
+            pessoa.setCpf(String.format("%03d.%03d.%03d-%02d", i % 1000, i / 1000, i % 997, i % 100));
+            pessoa.setVersao(3L);
+            pessoa.setEndereco(new EnderecoDTO((long) i + 1, String.valueOf(i), "Apto " + i % 100, "01310-100",
+                "Bela Vista", "São Paulo", "SP", 1L));
+            pessoas.add(pessoa);
+        }
+        return pessoas;
+    }
+
+    static List<AuditoriaDTO> gerarAuditorias(int quantidade) {
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<AuditoriaDTO> auditorias = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            AuditoriaDTO auditoria = new AuditoriaDTO();
+            auditoria.setId((long) i + 1);
+            auditoria.setTimestampRequisicao(inicio.plusSeconds(i));
+            auditoria.setMetodoHttp(i % 3 == 0 ? "POST" : "GET");
+            auditoria.setEndpoint("/api/pessoas/" + i);
+            auditoria.setIpOrigem("10.0.0." + i % 255);
+            auditoria.setUserAgent("Mozilla/5.0 (X11; Linux x86_64)");
+            auditoria.setDadosRequisicao("{\"method\":\"GET\",\"uri\":\"/api/pessoas/" + i + "\"}");
+            auditoria.setStatusResposta(200);
+            auditoria.setDadosResposta("{\"status\":200,\"body\":\"{\\\"id\\\":" + i + "}\"}");
+            auditoria.setTempoProcessamento((long) i % 50);
+            auditorias.add(auditoria);
+        }
+        return auditorias;
+    }
+}
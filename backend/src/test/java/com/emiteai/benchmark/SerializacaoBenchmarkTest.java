@@ -0,0 +1,54 @@
+package com.emiteai.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara JSON e CBOR para listas de PessoaDTO e AuditoriaDTO: bytes trafegados
+ * e tempos de codificação/decodificação medidos pelo SerializacaoBenchmark (JMH).
+ * Executar com: ./gradlew benchmark
+ */
+@Tag("benchmark")
+class SerializacaoBenchmarkTest {
+
+    @Test
+    void compararJsonComCbor() throws Exception {
+        int tamanho = SerializacaoBenchmark.TAMANHO_LISTA;
+        for (String formato : List.of("json", "cbor")) {
+            ObjectMapper mapper = SerializacaoBenchmark.mapper(formato);
+            System.out.printf("%s: %,d bytes para %d pessoas, %,d bytes para %d auditorias%n", formato,
+                mapper.writeValueAsBytes(SerializacaoBenchmark.gerarPessoas(tamanho)).length, tamanho,
+                mapper.writeValueAsBytes(SerializacaoBenchmark.gerarAuditorias(tamanho)).length, tamanho);
+        }
+
+        Options opcoes = new OptionsBuilder()
+            .include(SerializacaoBenchmark.class.getName() + "\\.")
+            .build();
+        Collection<RunResult> resultados = new Runner(opcoes).run();
+
+        for (RunResult resultado : resultados) {
+            System.out.printf("%-22s %-4s %,10.1f %s%n",
+                resultado.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                resultado.getParams().getParam("formato"),
+                resultado.getPrimaryResult().getScore(),
+                resultado.getPrimaryResult().getScoreUnit());
+        }
+
+        assertEquals(8, resultados.size());
+        ObjectMapper json = SerializacaoBenchmark.mapper("json");
+        ObjectMapper cbor = SerializacaoBenchmark.mapper("cbor");
+        assertTrue(cbor.writeValueAsBytes(SerializacaoBenchmark.gerarPessoas(tamanho)).length
+            < json.writeValueAsBytes(SerializacaoBenchmark.gerarPessoas(tamanho)).length,
+            "CBOR deve ocupar menos bytes que JSON");
+    }
+}
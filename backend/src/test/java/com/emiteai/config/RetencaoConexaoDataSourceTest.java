@@ -0,0 +1,67 @@
+package com.emiteai.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetencaoConexaoDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetencaoConexaoDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new RetencaoConexaoDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:retencao;DB_CLOSE_DELAY=-1", "sa", ""), "primaria", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testRetencaoPorEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pessoas/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/pessoas/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Connection conexao = dataSource.getConnection();
+        conexao.createStatement().execute("SELECT 1");
+        Thread.sleep(20);
+        conexao.close();
+        conexao.close(); // Segundo close não conta de novo
+
+        Timer retencao = meterRegistry.get(RetencaoConexaoDataSource.METRICA)
+            .tag("pool", "primaria")
+            .tag("endpoint", "GET /api/pessoas/{id}")
+            .timer();
+        assertEquals(1, retencao.count());
+        assertTrue(retencao.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertTrue(conexao.isClosed());
+    }
+
+    @Test
+    void testRetencaoForaDeRequisicao() throws Exception {
+        try (Connection conexao = dataSource.getConnection()) {
+            assertEquals(conexao, conexao);
+        }
+
+        assertEquals(1, meterRegistry.get(RetencaoConexaoDataSource.METRICA)
+            .tag("endpoint", RetencaoConexaoDataSource.FORA_DE_REQUISICAO)
+            .timer().count());
+    }
+}
@@ -0,0 +1,163 @@
+package com.emiteai.config;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.repository.PessoaRepository;
+import com.emiteai.service.IndiceCpfService;
+import com.emiteai.service.PessoaCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Roteamento entre dois bancos H2 em memória: cada um tem uma tabela origem com o próprio nome.
+ */
+class RoteamentoLeituraDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DriverManagerDataSource primaria;
+    private DriverManagerDataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        primaria = banco("primaria");
+        replica = banco("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RoteamentoLeituraDataSource.encerrarContexto();
+        new JdbcTemplate(primaria).execute("DROP TABLE origem");
+        new JdbcTemplate(replica).execute("DROP TABLE origem");
+    }
+
+    @Test
+    void testLeituraVaiParaReplicaEEscritaParaPrimaria() {
+        DataSource dataSource = roteamento(replica);
+
+        assertEquals("replica", ler(dataSource, true));
+        assertEquals("primaria", ler(dataSource, false));
+    }
+
+    @Test
+    void testLeituraAposEscritaNoMesmoContextoVaiParaPrimaria() {
+        DataSource dataSource = roteamento(replica);
+        RoteamentoLeituraDataSource.iniciarContexto(false);
+
+        assertEquals("replica", ler(dataSource, true));
+        ler(dataSource, false);
+        assertEquals("primaria", ler(dataSource, true));
+
+        RoteamentoLeituraDataSource.encerrarContexto();
+        assertEquals("replica", ler(dataSource, true));
+    }
+
+    @Test
+    void testReplicaIndisponivelUsaPrimaria() {
+        DataSource dataSource = roteamento(new DriverManagerDataSource("jdbc:invalido:replica"));
+
+        assertEquals("primaria", ler(dataSource, true));
+        assertEquals("primaria", ler(dataSource, true));
+        // A segunda leitura já nem tenta a réplica
+        assertEquals(1.0, meterRegistry.get("datasource.replica.fallback").counter().count());
+    }
+
+    @Test
+    void testFiltroComCookieLeDaPrimariaEEscritaDevolveCookie() throws Exception {
+        DataSource dataSource = roteamento(replica);
+        LeituraAposEscritaFilter filtro = new LeituraAposEscritaFilter(Duration.ofSeconds(5));
+        AtomicReference<String> origem = new AtomicReference<>();
+        FilterChain chain = (request, response) -> origem.set(ler(dataSource, true));
+
+        MockHttpServletResponse respostaEscrita = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("POST", "/api/pessoas"), respostaEscrita, chain);
+        Cookie cookie = respostaEscrita.getCookie(LeituraAposEscritaFilter.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(5, cookie.getMaxAge());
+
+        MockHttpServletRequest leitura = new MockHttpServletRequest("GET", "/api/pessoas");
+        leitura.setCookies(cookie);
+        filtro.doFilter(leitura, new MockHttpServletResponse(), chain);
+        assertEquals("primaria", origem.get());
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/pessoas"), new MockHttpServletResponse(), chain);
+        assertEquals("replica", origem.get());
+    }
+
+    @Test
+    void testNaPrimariaLeDaPrimariaEPreservaOContexto() {
+        DataSource dataSource = roteamento(replica);
+
+        assertEquals("primaria", RoteamentoLeituraDataSource.naPrimaria(() -> ler(dataSource, true)));
+        // A carga aninhada não desfaz a externa
+        assertEquals("primaria", RoteamentoLeituraDataSource.naPrimaria(() -> {
+            RoteamentoLeituraDataSource.naPrimaria(() -> ler(dataSource, true));
+            return ler(dataSource, true);
+        }));
+        assertEquals("replica", ler(dataSource, true));
+
+        // Dentro de um contexto de leitura, o contexto segue valendo depois da carga
+        RoteamentoLeituraDataSource.iniciarContexto(false);
+        assertEquals("primaria", RoteamentoLeituraDataSource.naPrimaria(() -> ler(dataSource, true)));
+        assertEquals("replica", ler(dataSource, true));
+    }
+
+    @Test
+    void testCargasDeCacheEDeIndiceNaoLeemDaReplicaAtrasada() {
+        DataSource dataSource = roteamento(replica);
+
+        PessoaDTO pessoa = new PessoaCache(meterRegistry, 10, Duration.ofMinutes(1)).porId(1L, () -> {
+            PessoaDTO carregada = new PessoaDTO();
+            carregada.setNome(ler(dataSource, true));
+            return carregada;
+        });
+        assertEquals("primaria", pessoa.getNome());
+
+        // A réplica ainda não recebeu o segundo CPF
+        PessoaRepository pessoaRepository = mock(PessoaRepository.class);
+        when(pessoaRepository.streamCpfsNumericos()).thenAnswer(invocation ->
+            "primaria".equals(new JdbcTemplate(dataSource).queryForObject("SELECT nome FROM origem", String.class))
+                ? Stream.of(11144477735L, 52998224725L)
+                : Stream.of(11144477735L));
+        IndiceCpfService indiceCpf = new IndiceCpfService(pessoaRepository, new DataSourceTransactionManager(dataSource), 1000, 0.01);
+        indiceCpf.carregar();
+        assertTrue(indiceCpf.possivelmenteCadastrado(52998224725L));
+    }
+
+    private DataSource roteamento(DataSource replica) {
+        return new LazyConnectionDataSourceProxy(
+            new RoteamentoLeituraDataSource(primaria, replica, Duration.ofMinutes(1), meterRegistry));
+    }
+
+    private String ler(DataSource dataSource, boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    private static DriverManagerDataSource banco(String nome) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE origem (nome VARCHAR(20))");
+        jdbc.update("INSERT INTO origem VALUES (?)", nome);
+        return dataSource;
+    }
+}
@@ -2,11 +2,15 @@ package com.emiteai.controller;
 
 import com.emiteai.entities.Auditoria;
 import com.emiteai.service.AuditoriaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
@@ -14,6 +18,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -61,6 +66,24 @@ class AuditoriaControllerTest {
         verify(auditoriaService).buscarAuditoriasRecentes(24);
     }
 
+    @Test
+    void testBuscarAuditoriasRecentes_EmCbor() throws Exception {
+        // Given
+        when(auditoriaService.buscarAuditoriasRecentes(24)).thenReturn(List.of(sampleAuditoria));
+
+        // When
+        byte[] corpo = mockMvc.perform(get("/api/auditoria/recentes")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode auditorias = new ObjectMapper(new CBORFactory()).readTree(corpo);
+        assertEquals(1, auditorias.size());
+        assertEquals("/api/pessoas", auditorias.get(0).get("endpoint").asText());
+    }
+
     @Test
     void testBuscarAuditoriasRecentes_ComParametroPadrao() throws Exception {
         // Given
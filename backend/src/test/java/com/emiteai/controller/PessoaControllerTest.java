@@ -1,22 +1,60 @@
 package com.emiteai.controller;
 
+import com.emiteai.dtos.CadastroAssincronoDTO;
+import com.emiteai.dtos.FacetaEstadoDTO;
+import com.emiteai.dtos.FacetaMunicipioDTO;
+import com.emiteai.dtos.MudancaDTO;
+import com.emiteai.dtos.PaginaMudancasDTO;
+import com.emiteai.dtos.PaginaPessoasDTO;
 import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.dtos.ResultadoBuscaDTO;
+import com.emiteai.dtos.ResultadoLoteDTO;
+import com.emiteai.dtos.SugestaoNomeDTO;
+import com.emiteai.service.AutocompleteNomeService;
 import com.emiteai.service.AuditoriaService;
+import com.emiteai.service.CadastroAssincronoProducer;
+import com.emiteai.service.CadastroAssincronoService;
+import com.emiteai.service.EventosPessoaService;
+import com.emiteai.exception.VersaoDivergenteException;
+import com.emiteai.service.FacetasService;
+import com.emiteai.service.IdempotenciaService;
+import com.emiteai.service.ListagemSerializadaCache;
 import com.emiteai.service.PessoaService;
+import com.emiteai.service.VersaoListagemService;
+import com.emiteai.util.CamposPessoa;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +71,30 @@ class PessoaControllerTest {
     @MockBean
     private AuditoriaService auditoriaService; // Mock do serviço de auditoria
 
+    @MockBean
+    private VersaoListagemService versaoListagemService;
+
+    @MockBean
+    private EventosPessoaService eventosPessoaService;
+
+    @MockBean
+    private CadastroAssincronoService cadastroAssincronoService;
+
+    @MockBean
+    private CadastroAssincronoProducer cadastroAssincronoProducer;
+
+    @MockBean
+    private FacetasService facetasService;
+
+    @MockBean
+    private AutocompleteNomeService autocompleteNomeService;
+
+    @MockBean
+    private ListagemSerializadaCache listagemSerializadaCache;
+
+    @MockBean
+    private IdempotenciaService idempotenciaService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -45,6 +107,20 @@ class PessoaControllerTest {
         pessoaDTO.setNome("João Silva");
         pessoaDTO.setTelefone("(11) 99999-9999");
         pessoaDTO.setCpf("123.456.789-00");
+        pessoaDTO.setVersao(2L);
+
+        when(versaoListagemService.etag()).thenReturn("\"r10-abc-0\"");
+        // Cache sempre em miss: serializa o que o serviço devolver
+        when(listagemSerializadaCache.obter(any(), any())).thenAnswer(invocation -> {
+            Supplier<List<PessoaDTO>> carga = invocation.getArgument(1);
+            byte[] json = objectMapper.writeValueAsBytes(carga.get());
+            return new ListagemSerializadaCache.Listagem(json, gzip(json));
+        });
+        // Idempotência transparente: executa a ação a cada chamada
+        when(idempotenciaService.executar(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Supplier<ResponseEntity<Object>> acao = invocation.getArgument(3);
+            return acao.get();
+        });
     }
 
     @Test
@@ -79,6 +155,145 @@ class PessoaControllerTest {
         verify(pessoaService).cadastrarPessoa(any(PessoaDTO.class));
     }
 
+    @Test
+    void testCadastrar_RespondAsyncAceitaCom202() throws Exception {
+        // Given
+        when(cadastroAssincronoProducer.enfileirar(any(PessoaDTO.class))).thenReturn(CadastroAssincronoDTO.pendente("abc-123"));
+
+        // When & Then
+        mockMvc.perform(post("/api/pessoas")
+                .header("Prefer", "respond-async, wait=0")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pessoaDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/pessoas/cadastros/abc-123"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.id").value("abc-123"))
+                .andExpect(jsonPath("$.status").value("PENDENTE"));
+
+        verify(pessoaService, never()).cadastrarPessoa(any(PessoaDTO.class));
+    }
+
+    @Test
+    void testCadastrar_RepassaIdempotencyKey() throws Exception {
+        // Given
+        doReturn(ResponseEntity.ok().header(IdempotenciaService.HEADER_REPETIDA, "true").body(pessoaDTO))
+                .when(idempotenciaService).executar(eq("chave-1"), eq("POST /api/pessoas Prefer=null"), any(PessoaDTO.class), any());
+
+        // When & Then
+        mockMvc.perform(post("/api/pessoas")
+                .header("Idempotency-Key", "chave-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pessoaDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.nome").value("João Silva"));
+
+        verify(pessoaService, never()).cadastrarPessoa(any(PessoaDTO.class));
+    }
+
+    @Test
+    void testSituacaoCadastro_Success() throws Exception {
+        // Given
+        when(cadastroAssincronoService.consultar("abc-123")).thenReturn(
+            new CadastroAssincronoDTO("abc-123", CadastroAssincronoDTO.Status.CRIADO, 7L, null));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/cadastros/abc-123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CRIADO"))
+                .andExpect(jsonPath("$.pessoaId").value(7));
+    }
+
+    @Test
+    void testCadastrarLote_Success() throws Exception {
+        // Given
+        List<ResultadoLoteDTO> resultados = List.of(
+            new ResultadoLoteDTO(0, "123.456.789-00", ResultadoLoteDTO.Status.CRIADO, 1L, null),
+            new ResultadoLoteDTO(1, "123.456.789-00", ResultadoLoteDTO.Status.DUPLICADO, null, "CPF repetido no lote"));
+        when(pessoaService.cadastrarLote(anyList(), eq(true))).thenReturn(resultados);
+
+        // When & Then
+        mockMvc.perform(post("/api/pessoas/lote")
+                .param("upsert", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(pessoaDTO, pessoaDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CRIADO"))
+                .andExpect(jsonPath("$[1].status").value("DUPLICADO"))
+                .andExpect(jsonPath("$[1].mensagem").value("CPF repetido no lote"));
+
+        verify(pessoaService).cadastrarLote(argThat(lista -> lista.size() == 2), eq(true));
+    }
+
+    @Test
+    void testCadastrarLote_CpfGravadoPorOutraRequisicaoRepeteOLote() throws Exception {
+        // Given: a primeira tentativa esbarra no índice único no flush
+        List<ResultadoLoteDTO> resultados = List.of(
+            new ResultadoLoteDTO(0, "123.456.789-00", ResultadoLoteDTO.Status.DUPLICADO, 7L, "CPF já cadastrado"));
+        when(pessoaService.cadastrarLote(anyList(), eq(false)))
+            .thenThrow(new DataIntegrityViolationException("idx_pessoa_cpf_numero"))
+            .thenReturn(resultados);
+
+        // When & Then
+        mockMvc.perform(post("/api/pessoas/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(pessoaDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DUPLICADO"));
+
+        verify(pessoaService, times(2)).cadastrarLote(anyList(), eq(false));
+    }
+
+    @Test
+    void testBuscarPorIds_Success() throws Exception {
+        // Given
+        pessoaDTO.setId(1L);
+        when(pessoaService.buscarPorIds(List.of(1L, 2L))).thenReturn(List.of(
+            new ResultadoBuscaDTO(0, "1", ResultadoBuscaDTO.Status.ENCONTRADO, pessoaDTO),
+            new ResultadoBuscaDTO(1, "2", ResultadoBuscaDTO.Status.NAO_ENCONTRADO, null)));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].pessoa.id").value(1))
+                .andExpect(jsonPath("$[1].status").value("NAO_ENCONTRADO"))
+                .andExpect(jsonPath("$[1].pessoa").isEmpty());
+
+        verify(pessoaService, never()).listarTodas(any());
+    }
+
+    @Test
+    void testBuscarPorCpfs_Success() throws Exception {
+        // Given
+        when(pessoaService.buscarPorCpfs(List.of("123.456.789-09", "x"))).thenReturn(List.of(
+            new ResultadoBuscaDTO(0, "123.456.789-09", ResultadoBuscaDTO.Status.ENCONTRADO, pessoaDTO),
+            new ResultadoBuscaDTO(1, "x", ResultadoBuscaDTO.Status.INVALIDO, null)));
+
+        // When & Then
+        mockMvc.perform(post("/api/pessoas/busca-cpfs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of("123.456.789-09", "x"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].pessoa.nome").value(pessoaDTO.getNome()))
+                .andExpect(jsonPath("$[1].status").value("INVALIDO"));
+    }
+
+    @Test
+    void testBuscarPorCpfs_LimiteExcedido() throws Exception {
+        // Given
+        when(pessoaService.buscarPorCpfs(anyList()))
+            .thenThrow(new RuntimeException("Busca excede o limite de 1000 chaves"));
+
+        // When & Then
+        mockMvc.perform(post("/api/pessoas/busca-cpfs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"1\"]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testListarTodas_Success() throws Exception {
         // Given
@@ -98,13 +313,235 @@ class PessoaControllerTest {
         // When & Then
         mockMvc.perform(get("/api/pessoas"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"r10-abc-0\""))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].nome").value("João"))
                 .andExpect(jsonPath("$[1].nome").value("Maria"));
 
+        verify(listagemSerializadaCache).obter(eq("\"r10-abc-0\""), any());
         verify(pessoaService).listarTodas();
     }
 
+    @Test
+    void testListarTodas_GzipDoCache() throws Exception {
+        // Given
+        when(pessoaService.listarTodas()).thenReturn(List.of(pessoaDTO));
+
+        // When
+        byte[] corpo = mockMvc.perform(get("/api/pessoas").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"r10-abc-0-gz\""))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept-Encoding"))))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(corpo))) {
+            PessoaDTO[] pessoas = objectMapper.readValue(entrada, PessoaDTO[].class);
+            assertEquals("João Silva", pessoas[0].getNome());
+        }
+    }
+
+    @Test
+    void testListarTodas_FieldsOuCborNaoUsamCache() throws Exception {
+        // Given
+        when(pessoaService.listarTodas(CamposPessoa.parse("id"))).thenReturn(List.of(pessoaDTO));
+        when(pessoaService.listarTodas(CamposPessoa.TODOS)).thenReturn(List.of(pessoaDTO));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas").param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"r10-abc-0-fid\""))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].nome").doesNotExist());
+        mockMvc.perform(get("/api/pessoas").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"r10-abc-0-cbor\""))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+
+        verify(listagemSerializadaCache, never()).obter(any(), any());
+    }
+
+    @Test
+    void testListarPagina_Success() throws Exception {
+        // Given
+        PaginaPessoasDTO pagina = new PaginaPessoasDTO(List.of(pessoaDTO), "1");
+        when(pessoaService.listarPagina("0", 1, "nome", CamposPessoa.TODOS)).thenReturn(pagina);
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/pagina")
+                .param("after", "0")
+                .param("limit", "1")
+                .param("sort", "nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1))
+                .andExpect(jsonPath("$.itens[0].nome").value("João Silva"))
+                .andExpect(jsonPath("$.proximoCursor").value("1"));
+
+        verify(pessoaService).listarPagina("0", 1, "nome", CamposPessoa.TODOS);
+    }
+
+    @Test
+    void testListarPagina_Fields() throws Exception {
+        // Given
+        CamposPessoa campos = CamposPessoa.parse("id,nome");
+        when(pessoaService.listarPagina(null, 20, "id", campos)).thenReturn(new PaginaPessoasDTO(List.of(pessoaDTO), "1"));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/pagina")
+                .param("fields", "id,nome"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].id").value(1))
+                .andExpect(jsonPath("$.itens[0].nome").value("João Silva"))
+                .andExpect(jsonPath("$.itens[0].cpf").doesNotExist())
+                .andExpect(jsonPath("$.itens[0].endereco").doesNotExist())
+                .andExpect(jsonPath("$.proximoCursor").value("1"));
+    }
+
+    @Test
+    void testListarPagina_FieldInvalido() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/pagina")
+                .param("fields", "id,salario"))
+                .andExpect(status().isBadRequest());
+
+        verify(pessoaService, never()).listarPagina(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void testListarPagina_ParametrosPadrao() throws Exception {
+        // Given
+        when(pessoaService.listarPagina(null, 20, "id", CamposPessoa.TODOS)).thenReturn(new PaginaPessoasDTO(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/pagina"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(0));
+
+        verify(pessoaService).listarPagina(null, 20, "id", CamposPessoa.TODOS);
+    }
+
+    @Test
+    void testBuscar_Success() throws Exception {
+        // Given
+        when(pessoaService.buscar(any(), isNull(), eq(20), eq(CamposPessoa.TODOS))).thenReturn(new PaginaPessoasDTO(List.of(pessoaDTO), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/busca")
+                .param("nome", "jo")
+                .param("estado", "SP")
+                .param("cep", "01001-000"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"r10-abc-0\""))
+                .andExpect(jsonPath("$.itens[0].nome").value("João Silva"));
+
+        verify(pessoaService).buscar(argThat(filtro -> "jo".equals(filtro.getNome())
+            && "SP".equals(filtro.getEstado()) && "01001-000".equals(filtro.getCep())
+            && filtro.getMunicipio() == null), isNull(), eq(20), eq(CamposPessoa.TODOS));
+    }
+
+    @Test
+    void testBuscarPorNomeAproximado_Success() throws Exception {
+        // Given
+        when(pessoaService.buscarPorNomeAproximado("silv", null, 20))
+            .thenReturn(new PaginaPessoasDTO(List.of(pessoaDTO), "MTowLjg"));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/busca-nome").param("q", "silv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].nome").value("João Silva"))
+                .andExpect(jsonPath("$.proximoCursor").value("MTowLjg"));
+    }
+
+    @Test
+    void testAutocomplete_Success() throws Exception {
+        // Given
+        when(autocompleteNomeService.sugerir("jo", 5)).thenReturn(List.of(new SugestaoNomeDTO(1L, "João Silva")));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/autocomplete").param("q", "jo").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].nome").value("João Silva"));
+
+        verifyNoInteractions(pessoaService);
+    }
+
+    @Test
+    void testListarMudancas_Success() throws Exception {
+        // Given
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setId(1L);
+        pessoa.setNome("João Silva");
+        when(pessoaService.listarMudancas(10L, null, 500)).thenReturn(new PaginaMudancasDTO(List.of(
+            new MudancaDTO(12, 1L, MudancaDTO.Tipo.UPSERT, pessoa),
+            new MudancaDTO(13, 2L, MudancaDTO.Tipo.REMOCAO, null)), null, 13));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/mudancas").param("desdeRevisao", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].tipo").value("UPSERT"))
+                .andExpect(jsonPath("$.itens[0].pessoa.nome").value("João Silva"))
+                .andExpect(jsonPath("$.itens[1].tipo").value("REMOCAO"))
+                .andExpect(jsonPath("$.itens[1].id").value(2))
+                .andExpect(jsonPath("$.revisaoAtual").value(13));
+    }
+
+    @Test
+    void testFacetas_Success() throws Exception {
+        // Given
+        when(facetasService.porEstadoEMunicipio()).thenReturn(List.of(
+            new FacetaEstadoDTO("SP", 3, List.of(new FacetaMunicipioDTO("São Paulo", 3)))));
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/facetas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].estado").value("SP"))
+                .andExpect(jsonPath("$[0].total").value(3))
+                .andExpect(jsonPath("$[0].municipios[0].municipio").value("São Paulo"));
+
+        verifyNoInteractions(pessoaService);
+    }
+
+    @Test
+    void testEventos_RetomaPeloLastEventId() throws Exception {
+        // Given
+        when(eventosPessoaService.assinar(12L)).thenReturn(new SseEmitter());
+
+        // When & Then
+        mockMvc.perform(get("/api/pessoas/eventos")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "12"))
+                .andExpect(request().asyncStarted());
+
+        verify(eventosPessoaService).assinar(12L);
+    }
+
+    @Test
+    void testExportarStream_Success() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream saida = invocation.getArgument(0);
+            saida.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(pessoaService).exportarNdjson(any(OutputStream.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/pessoas/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        verify(pessoaService).exportarNdjson(any(OutputStream.class));
+    }
+
     @Test
     void testBuscarPorCpf_Success() throws Exception {
         // Given
@@ -134,6 +571,26 @@ class PessoaControllerTest {
         verify(pessoaService).buscarPorCpf(cpf);
     }
 
+    @Test
+    void testVerificarCpf_Cadastrado() throws Exception {
+        when(pessoaService.cpfCadastrado("12345678909")).thenReturn(true);
+
+        mockMvc.perform(head("/api/pessoas/cpf/{cpf}", "12345678909"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+
+        verify(pessoaService).cpfCadastrado("12345678909");
+        verify(pessoaService, never()).buscarPorCpf(any());
+    }
+
+    @Test
+    void testVerificarCpf_NaoCadastrado() throws Exception {
+        when(pessoaService.cpfCadastrado("11144477735")).thenReturn(false);
+
+        mockMvc.perform(head("/api/pessoas/cpf/{cpf}", "11144477735"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testBuscarPorId_Success() throws Exception {
         // Given
@@ -149,6 +606,104 @@ class PessoaControllerTest {
         verify(pessoaService).buscarPorId(id);
     }
 
+    @Test
+    void testBuscarPorId_FieldsMantemEtag() throws Exception {
+        when(pessoaService.buscarPorId(1L)).thenReturn(pessoaDTO);
+
+        mockMvc.perform(get("/api/pessoas/{id}", 1L).param("fields", "nome"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-2\""))
+                .andExpect(jsonPath("$.nome").value("João Silva"))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andExpect(jsonPath("$.versao").doesNotExist());
+    }
+
+    @Test
+    void testBuscarPorId_RetornaEtagE304() throws Exception {
+        when(pessoaService.buscarPorId(1L)).thenReturn(pessoaDTO);
+
+        mockMvc.perform(get("/api/pessoas/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-2\""));
+
+        mockMvc.perform(get("/api/pessoas/{id}", 1L).header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testListarTodas_NaoModificadaNaoConsultaPessoas() throws Exception {
+        mockMvc.perform(get("/api/pessoas").header("If-None-Match", "\"r10-abc-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"r10-abc-0\""))
+                .andExpect(header().stringValues("Vary", hasItem(containsString("Accept-Encoding"))));
+
+        verify(pessoaService, never()).listarTodas(any());
+        verify(listagemSerializadaCache, never()).obter(any(), any());
+    }
+
+    @Test
+    void testListarTodas_EtagDeOutraRepresentacaoNaoGera304() throws Exception {
+        when(pessoaService.listarTodas()).thenReturn(List.of(pessoaDTO));
+        when(pessoaService.listarTodas(CamposPessoa.TODOS)).thenReturn(List.of(pessoaDTO));
+
+        // ETag dos bytes sem compressão não confirma a versão gzip, nem o JSON confirma o CBOR
+        mockMvc.perform(get("/api/pessoas").header("If-None-Match", "\"r10-abc-0\"")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"r10-abc-0-gz\""));
+        mockMvc.perform(get("/api/pessoas").header("If-None-Match", "\"r10-abc-0\"")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"r10-abc-0-cbor\""));
+        mockMvc.perform(get("/api/pessoas").header("If-None-Match", "\"r10-abc-0-cbor\"")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testAtualizar_IfMatchDivergente() throws Exception {
+        when(pessoaService.atualizarPessoa(eq(1L), any(PessoaDTO.class), eq("\"1-1\"")))
+                .thenThrow(new VersaoDivergenteException());
+
+        mockMvc.perform(put("/api/pessoas/{id}", 1L)
+                        .header("If-Match", "\"1-1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pessoaDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testAtualizar_RetornaNovoEtag() throws Exception {
+        PessoaDTO atualizada = new PessoaDTO();
+        atualizada.setId(1L);
+        atualizada.setVersao(3L);
+        when(pessoaService.atualizarPessoa(eq(1L), any(PessoaDTO.class), eq("\"1-2\""))).thenReturn(atualizada);
+
+        mockMvc.perform(put("/api/pessoas/{id}", 1L)
+                        .header("If-Match", "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pessoaDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""));
+    }
+
+    @Test
+    void testAtualizar_IdempotencyKeyIncluiIfMatchNaOperacao() throws Exception {
+        doReturn(ResponseEntity.ok().eTag("\"1-3\"").body(pessoaDTO))
+                .when(idempotenciaService).executar(eq("chave-2"), eq("PUT /api/pessoas/1 If-Match=\"1-2\""), any(PessoaDTO.class), any());
+
+        mockMvc.perform(put("/api/pessoas/{id}", 1L)
+                        .header("If-Match", "\"1-2\"")
+                        .header("Idempotency-Key", "chave-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pessoaDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""));
+
+        verify(pessoaService, never()).atualizarPessoa(any(), any(), any());
+    }
+
     @Test
     void testBuscarPorId_NotFound() throws Exception {
         // Given
@@ -173,7 +728,7 @@ class PessoaControllerTest {
         updatedPessoa.setTelefone("(11) 88888-8888");
         updatedPessoa.setCpf("123.456.789-00");
 
-        when(pessoaService.atualizarPessoa(eq(id), any(PessoaDTO.class)))
+        when(pessoaService.atualizarPessoa(eq(id), any(PessoaDTO.class), isNull()))
                 .thenReturn(updatedPessoa);
 
         // When & Then
@@ -184,14 +739,14 @@ class PessoaControllerTest {
                 .andExpect(jsonPath("$.nome").value("João Silva Atualizado"))
                 .andExpect(jsonPath("$.telefone").value("(11) 88888-8888"));
 
-        verify(pessoaService).atualizarPessoa(eq(id), any(PessoaDTO.class));
+        verify(pessoaService).atualizarPessoa(eq(id), any(PessoaDTO.class), isNull());
     }
 
     @Test
     void testAtualizar_NotFound() throws Exception {
         // Given
         Long id = 999L;
-        when(pessoaService.atualizarPessoa(eq(id), any(PessoaDTO.class)))
+        when(pessoaService.atualizarPessoa(eq(id), any(PessoaDTO.class), isNull()))
                 .thenThrow(new RuntimeException("Pessoa não encontrada"));
 
         // When & Then
@@ -200,7 +755,7 @@ class PessoaControllerTest {
                 .content(objectMapper.writeValueAsString(pessoaDTO)))
                 .andExpect(status().isBadRequest());
 
-        verify(pessoaService).atualizarPessoa(eq(id), any(PessoaDTO.class));
+        verify(pessoaService).atualizarPessoa(eq(id), any(PessoaDTO.class), isNull());
     }
 
     @Test
@@ -215,4 +770,12 @@ class PessoaControllerTest {
 
         verify(pessoaService).deletar(id);
     }
+
+    private static byte[] gzip(byte[] dados) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        }
+        return saida.toByteArray();
+    }
 }
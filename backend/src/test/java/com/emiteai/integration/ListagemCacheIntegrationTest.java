@@ -0,0 +1,98 @@
+package com.emiteai.integration;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.entities.Pessoa;
+import com.emiteai.repository.PessoaRepository;
+import com.emiteai.service.PessoaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/pessoas com o cache da listagem ligado. O perfil de teste desliga o cache (TTLs zerados)
+ * porque os demais testes gravam direto pelo repositório; aqui os TTLs são longos e as escritas
+ * passam pelo PessoaService, como em produção.
+ */
+@SpringBootTest(properties = {
+    "emiteai.cache.listagem.ttl=10m",
+    "emiteai.cache.listagem.revisao-ttl=10m"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ListagemCacheIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @SpyBean
+    private PessoaRepository pessoaRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        pessoaRepository.deleteAll();
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Ana Lima");
+        pessoa.setCpf("111.444.777-35");
+        pessoaRepository.save(pessoa);
+        clearInvocations(pessoaRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pessoaRepository.deleteAll();
+    }
+
+    @Test
+    void testListarTodas_SegundoGetServidoDoCacheEEscritaInvalida() throws Exception {
+        // Given: o primeiro GET carrega e serializa a listagem
+        MvcResult primeiro = listar();
+
+        // When
+        MvcResult segundo = listar();
+
+        // Then: mesmos bytes e mesmo ETag, sem nova consulta
+        verify(pessoaRepository, times(1)).findTodasComoDTO();
+        assertEquals(primeiro.getResponse().getHeader(HttpHeaders.ETAG), segundo.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(primeiro.getResponse().getContentAsString(), segundo.getResponse().getContentAsString());
+
+        // When: escrita pelo serviço
+        PessoaDTO nova = new PessoaDTO();
+        nova.setNome("Bruno Souza");
+        nova.setCpf("529.982.247-25");
+        pessoaService.cadastrarPessoa(nova);
+        MvcResult depoisDaEscrita = listar();
+
+        // Then: ETag novo e listagem consultada de novo, já com a pessoa cadastrada
+        verify(pessoaRepository, times(2)).findTodasComoDTO();
+        assertNotEquals(segundo.getResponse().getHeader(HttpHeaders.ETAG), depoisDaEscrita.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(depoisDaEscrita.getResponse().getContentAsString().contains("Bruno Souza"));
+    }
+
+    private MvcResult listar() throws Exception {
+        return mockMvc.perform(get("/api/pessoas").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andReturn();
+    }
+}
@@ -0,0 +1,72 @@
+package com.emiteai.repository;
+
+import com.emiteai.entities.Auditoria;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada chamada abre sua própria transação
+class AuditoriaEscritaRepositoryTest {
+
+    private static final String ENDPOINT = "/api/teste/pool-auditoria";
+
+    @Autowired
+    private AuditoriaEscritaRepository auditoriaEscritaRepository;
+
+    @Autowired
+    private AuditoriaRepository auditoriaRepository;
+
+    @Autowired
+    @Qualifier("dataSourceAuditoria")
+    private DataSource dataSourceAuditoria;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSourceAuditoria).update("DELETE FROM auditoria WHERE endpoint = ?", ENDPOINT);
+    }
+
+    @Test
+    void testInserirPeloPoolDeAuditoria() {
+        Auditoria auditoria = new Auditoria();
+        auditoria.setMetodoHttp("POST");
+        auditoria.setEndpoint(ENDPOINT);
+        auditoria.setStatusResposta(201);
+        auditoria.setTempoProcessamento(12L);
+        auditoria.setDadosRequisicao("{\"nome\":\"Teste\"}");
+
+        auditoriaEscritaRepository.inserir(auditoria);
+
+        List<Auditoria> gravadas = auditoriaRepository.findByEndpointContainingIgnoreCase(ENDPOINT);
+        assertEquals(1, gravadas.size());
+        assertEquals(201, gravadas.get(0).getStatusResposta());
+        assertEquals("{\"nome\":\"Teste\"}", gravadas.get(0).getDadosRequisicao());
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "auditoria").timer().count() > 0);
+    }
+
+    @Test
+    void testMetricasPorPool() {
+        for (String pool : List.of("primaria", "auditoria")) {
+            assertNotNull(meterRegistry.get("hikaricp.connections.pending").tag("pool", pool).gauge());
+            assertNotNull(meterRegistry.get("hikaricp.connections.acquire").tag("pool", pool).timer());
+        }
+    }
+}
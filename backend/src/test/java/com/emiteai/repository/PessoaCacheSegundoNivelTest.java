@@ -0,0 +1,134 @@
+package com.emiteai.repository;
+
+import com.emiteai.entities.Endereco;
+import com.emiteai.entities.Pessoa;
+import jakarta.persistence.EntityManagerFactory;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada leitura em sua própria transação
+class PessoaCacheSegundoNivelTest {
+
+    /**
+     * CacheManager só deste contexto. Com a URI padrão, todos os contextos de teste dividem o mesmo
+     * CacheManager do Ehcache (mesmo provider, URI e classloader): as regiões recebem entradas e
+     * invalidações de outras SessionFactories e são fechadas quando qualquer uma delas é encerrada.
+     */
+    @TestConfiguration
+    static class CacheManagerProprio {
+
+        @Bean(destroyMethod = "close")
+        CacheManager cacheManagerSegundoNivel() {
+            EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+            return provider.getCacheManager(URI.create("urn:emiteai:pessoa-cache-segundo-nivel-test"),
+                new XmlConfiguration(PessoaCacheSegundoNivelTest.class.getResource("/ehcache.xml")));
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer usarCacheManagerProprio(CacheManager cacheManagerSegundoNivel) {
+            return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+        }
+    }
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+    private Statistics estatisticas;
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+        entityManagerFactory.getCache().evictAll();
+
+        id = transacao.execute(status -> {
+            Pessoa pessoa = new Pessoa();
+            pessoa.setNome("Ana Lima");
+            pessoa.setCpf("111.444.777-35");
+            Endereco endereco = new Endereco();
+            endereco.setCep("01310100");
+            endereco.setPessoa(pessoa);
+            pessoa.setEndereco(endereco);
+            return pessoaRepository.save(pessoa).getId();
+        });
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transacao.executeWithoutResult(status -> pessoaRepository.deleteAll());
+        estatisticas.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void testFindByIdRepetidoNaoExecutaSql() {
+        // Primeira leitura pode ir ao banco e popular o cache
+        transacao.executeWithoutResult(status -> assertTrue(pessoaRepository.findById(id).isPresent()));
+        estatisticas.clear();
+
+        for (int i = 0; i < 3; i++) {
+            Pessoa pessoa = transacao.execute(status -> pessoaRepository.findById(id).orElseThrow());
+            assertEquals("Ana Lima", pessoa.getNome());
+            assertEquals("01310100", pessoa.getEndereco().getCep());
+        }
+
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertTrue(estatisticas.getSecondLevelCacheHitCount() >= 3);
+    }
+
+    @Test
+    void testBuscaPorCpfUsaCacheDeNaturalId() {
+        transacao.executeWithoutResult(status -> assertTrue(pessoaRepository.findByCpfNumero(11144477735L).isPresent()));
+        estatisticas.clear();
+
+        Pessoa pessoa = transacao.execute(status -> pessoaRepository.findByCpfNumero(11144477735L).orElseThrow());
+
+        assertEquals(id, pessoa.getId());
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertTrue(estatisticas.getNaturalIdCacheHitCount() >= 1);
+    }
+
+    @Test
+    void testAtualizacaoInvalidaEntrada() {
+        transacao.executeWithoutResult(status -> pessoaRepository.findById(id));
+        transacao.executeWithoutResult(status -> pessoaRepository.findById(id).orElseThrow().setNome("Ana Souza"));
+
+        Pessoa pessoa = transacao.execute(status -> pessoaRepository.findById(id).orElseThrow());
+
+        assertEquals("Ana Souza", pessoa.getNome());
+    }
+}
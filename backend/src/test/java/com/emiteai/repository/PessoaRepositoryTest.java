@@ -1,13 +1,20 @@
 package com.emiteai.repository;
 
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.entities.Endereco;
 import com.emiteai.entities.Pessoa;
+import com.emiteai.util.CamposPessoa;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -72,6 +79,38 @@ class PessoaRepositoryTest {
         assertFalse(exists);
     }
 
+    @Test
+    void testFindByCpf_IgnoraPontuacao() {
+        // Given
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Ana Lima");
+        pessoa.setCpf("111.444.777-35");
+        entityManager.persistAndFlush(pessoa);
+
+        // When & Then
+        assertEquals(11144477735L, pessoa.getCpfNumero());
+        assertTrue(pessoaRepository.findByCpf("11144477735").isPresent());
+        assertTrue(pessoaRepository.existsByCpf("111 444 777 35"));
+        assertFalse(pessoaRepository.existsByCpf("abc"));
+    }
+
+    @Test
+    void testFindIdsByCpfNumeroIn() {
+        // Given
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome("Ana Lima");
+        pessoa.setCpf("111.444.777-35");
+        entityManager.persistAndFlush(pessoa);
+
+        // When
+        List<Object[]> linhas = pessoaRepository.findIdsByCpfNumeroIn(List.of(11144477735L, 52998224725L));
+
+        // Then
+        assertEquals(1, linhas.size());
+        assertEquals(11144477735L, linhas.get(0)[0]);
+        assertEquals(pessoa.getId(), linhas.get(0)[1]);
+    }
+
     @Test
     void testSave_NewPessoa() {
         // Given
@@ -110,6 +149,189 @@ class PessoaRepositoryTest {
         assertEquals(2, pessoas.size());
     }
 
+    @Test
+    void testFindPaginaOrdenadaPorId() {
+        // Given
+        Pessoa pessoa1 = new Pessoa();
+        pessoa1.setNome("Pessoa 1");
+        pessoa1.setCpf("111.111.111-11");
+
+        Pessoa pessoa2 = new Pessoa();
+        pessoa2.setNome("Pessoa 2");
+        pessoa2.setCpf("222.222.222-22");
+
+        Pessoa pessoa3 = new Pessoa();
+        pessoa3.setNome("Pessoa 3");
+        pessoa3.setCpf("333.333.333-33");
+
+        entityManager.persistAndFlush(pessoa1);
+        entityManager.persistAndFlush(pessoa2);
+        entityManager.persistAndFlush(pessoa3);
+
+        // When
+        List<PessoaDTO> primeira = pessoaRepository.findPaginaOrdenadaPorId(0L, PageRequest.of(0, 2));
+        List<PessoaDTO> segunda = pessoaRepository.findPaginaOrdenadaPorId(primeira.get(1).getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(2, primeira.size());
+        assertEquals(pessoa1.getId(), primeira.get(0).getId());
+        assertEquals(pessoa2.getId(), primeira.get(1).getId());
+        assertEquals(1, segunda.size());
+        assertEquals(pessoa3.getId(), segunda.get(0).getId());
+    }
+
+    @Test
+    void testFindPaginaOrdenadaPorNome() {
+        // Given - nomes repetidos desempatados pelo id
+        Pessoa carlos = new Pessoa();
+        carlos.setNome("Carlos");
+        carlos.setCpf("111.111.111-11");
+
+        Pessoa ana1 = new Pessoa();
+        ana1.setNome("Ana");
+        ana1.setCpf("222.222.222-22");
+
+        Pessoa ana2 = new Pessoa();
+        ana2.setNome("Ana");
+        ana2.setCpf("333.333.333-33");
+
+        entityManager.persistAndFlush(carlos);
+        entityManager.persistAndFlush(ana1);
+        entityManager.persistAndFlush(ana2);
+
+        // When
+        List<PessoaDTO> primeira = pessoaRepository.findPrimeiraPaginaOrdenadaPorNome(PageRequest.of(0, 1));
+        List<PessoaDTO> restante = pessoaRepository.findPaginaOrdenadaPorNome(
+            primeira.get(0).getNome(), primeira.get(0).getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(ana1.getId(), primeira.get(0).getId());
+        assertEquals(2, restante.size());
+        assertEquals(ana2.getId(), restante.get(0).getId());
+        assertEquals(carlos.getId(), restante.get(1).getId());
+    }
+
+    @Test
+    void testStreamTodas() {
+        // Given
+        Pessoa pessoa1 = new Pessoa();
+        pessoa1.setNome("Pessoa 1");
+        pessoa1.setCpf("111.111.111-11");
+
+        Pessoa pessoa2 = new Pessoa();
+        pessoa2.setNome("Pessoa 2");
+        pessoa2.setCpf("222.222.222-22");
+
+        entityManager.persistAndFlush(pessoa1);
+        entityManager.persistAndFlush(pessoa2);
+        entityManager.clear();
+
+        // When
+        List<String> nomes;
+        try (Stream<PessoaDTO> stream = pessoaRepository.streamTodas()) {
+            nomes = stream.map(PessoaDTO::getNome).collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals(List.of("Pessoa 1", "Pessoa 2"), nomes);
+    }
+
+    @Test
+    void testBuscar_FiltrosCombinados() {
+        // Given
+        Pessoa ana = persistirComEndereco("Ana Souza", "111.111.111-11", "SP", "São Paulo", "Centro", "01001-000");
+        Pessoa anita = persistirComEndereco("anita_lima", "222.222.222-22", "SP", "Campinas", "Centro", "13010-000");
+        Pessoa bruno = persistirComEndereco("Bruno", "333.333.333-33", "RJ", "Rio de Janeiro", "Centro", "20040-020");
+
+        // When & Then
+        assertEquals(List.of(ana.getId(), anita.getId()),
+            ids(pessoaRepository.buscar(CamposPessoa.TODOS, "an", null, null, null, null, 0L, 10)));
+        assertEquals(List.of(anita.getId()),
+            ids(pessoaRepository.buscar(CamposPessoa.TODOS, "anita_", null, null, null, null, 0L, 10)));
+        assertTrue(pessoaRepository.buscar(CamposPessoa.TODOS, "an%", null, null, null, null, 0L, 10).isEmpty());
+        assertEquals(List.of(anita.getId()),
+            ids(pessoaRepository.buscar(CamposPessoa.TODOS, null, "SP", "Campinas", null, null, 0L, 10)));
+        assertEquals(List.of(bruno.getId()),
+            ids(pessoaRepository.buscar(CamposPessoa.TODOS, null, null, null, "Centro", 20040020, 0L, 10)));
+        assertEquals(List.of(anita.getId()),
+            ids(pessoaRepository.buscar(CamposPessoa.TODOS, null, null, null, "Centro", null, ana.getId(), 1)));
+        assertEquals("Campinas",
+            pessoaRepository.buscar(CamposPessoa.TODOS, null, "SP", "Campinas", null, null, 0L, 10).get(0).getEndereco().getMunicipio());
+    }
+
+    @Test
+    void testBuscar_SoCamposPedidos() {
+        // Given
+        Pessoa ana = persistirComEndereco("Ana Souza", "111.111.111-11", "SP", "São Paulo", "Centro", "01001-000");
+
+        // When - o filtro por estado exige o join, mas o endereço não volta sem ter sido pedido
+        List<PessoaDTO> pessoas = pessoaRepository.buscar(CamposPessoa.parse("id,cpf"), null, "SP", null, null, null, 0L, 10);
+
+        // Then
+        assertEquals(1, pessoas.size());
+        assertEquals(ana.getId(), pessoas.get(0).getId());
+        assertEquals("111.111.111-11", pessoas.get(0).getCpf());
+        assertNull(pessoas.get(0).getNome());
+        assertNull(pessoas.get(0).getEndereco());
+    }
+
+    @Test
+    void testFindPaginaComCampos_OrdenadaPorNome() {
+        // Given
+        Pessoa carlos = persistirComEndereco("Carlos", "111.111.111-11", "SP", "São Paulo", null, null);
+        Pessoa ana = persistirComEndereco("Ana", "222.222.222-22", "RJ", "Niterói", null, null);
+
+        // When
+        List<PessoaDTO> primeira = pessoaRepository.findPaginaComCampos(CamposPessoa.parse("id,endereco"), "nome", null, null, 1);
+        List<PessoaDTO> segunda = pessoaRepository.findPaginaComCampos(CamposPessoa.parse("id,endereco"), "nome", "Ana", ana.getId(), 1);
+
+        // Then - o nome vem mesmo sem ter sido pedido, porque forma o cursor
+        assertEquals(ana.getId(), primeira.get(0).getId());
+        assertEquals("Ana", primeira.get(0).getNome());
+        assertEquals("Niterói", primeira.get(0).getEndereco().getMunicipio());
+        assertNull(primeira.get(0).getCpf());
+        assertEquals(carlos.getId(), segunda.get(0).getId());
+    }
+
+    @Test
+    void testContarPorEstadoEMunicipio() {
+        // Given
+        persistirComEndereco("Ana", "111.111.111-11", "SP", "São Paulo", null, null);
+        persistirComEndereco("Bia", "222.222.222-22", "SP", "São Paulo", null, null);
+        persistirComEndereco("Caio", "333.333.333-33", "RJ", "Niterói", null, null);
+        Pessoa semEndereco = new Pessoa();
+        semEndereco.setNome("Davi");
+        semEndereco.setCpf("444.444.444-44");
+        entityManager.persistAndFlush(semEndereco);
+
+        // When
+        List<Object[]> linhas = pessoaRepository.contarPorEstadoEMunicipio();
+
+        // Then
+        assertEquals(2, linhas.size());
+        assertArrayEquals(new Object[]{"RJ", "Niterói", 1L}, linhas.get(0));
+        assertArrayEquals(new Object[]{"SP", "São Paulo", 2L}, linhas.get(1));
+    }
+
+    private Pessoa persistirComEndereco(String nome, String cpf, String estado, String municipio,
+                                        String bairro, String cep) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setCpf(cpf);
+        Endereco endereco = new Endereco();
+        endereco.setEstado(estado);
+        endereco.setMunicipio(municipio);
+        endereco.setBairro(bairro);
+        endereco.setCep(cep);
+        endereco.setPessoa(pessoa);
+        pessoa.setEndereco(endereco);
+        return entityManager.persistAndFlush(pessoa);
+    }
+
+    private List<Long> ids(List<PessoaDTO> pessoas) {
+        return pessoas.stream().map(PessoaDTO::getId).collect(Collectors.toList());
+    }
+
     @Test
     void testDeleteById() {
         // Given
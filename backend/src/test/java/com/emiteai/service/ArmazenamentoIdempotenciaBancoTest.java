@@ -0,0 +1,167 @@
+package com.emiteai.service;
+
+import com.emiteai.entities.Idempotencia;
+import com.emiteai.exception.IdempotenciaConflitanteException;
+import com.emiteai.exception.IdempotenciaEmAndamentoException;
+import com.emiteai.repository.IdempotenciaRepository;
+import com.emiteai.service.ArmazenamentoIdempotencia.Resposta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada chamada abre sua própria transação
+class ArmazenamentoIdempotenciaBancoTest {
+
+    @Autowired
+    private IdempotenciaRepository idempotenciaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ArmazenamentoIdempotenciaBanco armazenamento;
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaRepository.deleteAll();
+        armazenamento = new ArmazenamentoIdempotenciaBanco(idempotenciaRepository, transactionManager,
+            Duration.ofHours(1), Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        armazenamento.fechar();
+        idempotenciaRepository.deleteAll();
+    }
+
+    @Test
+    void testReservaConcluiEDevolveResposta() {
+        assertTrue(armazenamento.reservar("k1", "r1", "abc", Duration.ZERO).isEmpty());
+        armazenamento.concluir("k1", "r1", new Resposta(200, "\"1-0\"", "/api/pessoas/1", "{\"id\":1}"));
+
+        Optional<Resposta> repetida = armazenamento.reservar("k1", "r2", "abc", Duration.ZERO);
+
+        assertTrue(repetida.isPresent());
+        assertEquals(200, repetida.get().getStatus());
+        assertEquals("\"1-0\"", repetida.get().getEtag());
+        assertEquals("/api/pessoas/1", repetida.get().getLocation());
+        assertEquals("{\"id\":1}", repetida.get().getCorpo());
+    }
+
+    @Test
+    void testImpressaoDiferenteLancaConflito() {
+        armazenamento.reservar("k1", "r1", "abc", Duration.ZERO);
+
+        assertThrows(IdempotenciaConflitanteException.class, () -> armazenamento.reservar("k1", "r2", "def", Duration.ZERO));
+    }
+
+    @Test
+    void testEmAndamentoEsperaAteOLimite() {
+        armazenamento.reservar("k1", "r1", "abc", Duration.ZERO);
+
+        assertThrows(IdempotenciaEmAndamentoException.class, () -> armazenamento.reservar("k1", "r2", "abc", Duration.ofMillis(120)));
+    }
+
+    @Test
+    void testLiberarPermiteNovaReserva() {
+        armazenamento.reservar("k1", "r1", "abc", Duration.ZERO);
+        armazenamento.liberar("k1", "r1");
+
+        assertTrue(armazenamento.reservar("k1", "r2", "abc", Duration.ZERO).isEmpty());
+    }
+
+    @Test
+    void testChaveVencidaEhSubstituida() {
+        Idempotencia vencida = new Idempotencia("k1", "outra", "antiga", Instant.now().minusSeconds(60), null);
+        vencida.setStatus(200);
+        idempotenciaRepository.save(vencida);
+
+        assertTrue(armazenamento.reservar("k1", "r1", "nova", Duration.ZERO).isEmpty());
+        assertEquals("nova", idempotenciaRepository.findById("k1").orElseThrow().getImpressao());
+    }
+
+    @Test
+    void testReservaAbandonadaEhAssumidaQuandoOPrazoVence() {
+        // Given: instância que reservou a chave caiu antes de concluir; o TTL ainda vale por horas
+        Instant agora = Instant.now();
+        idempotenciaRepository.save(new Idempotencia("k1", "outra", "abc", agora.plus(Duration.ofHours(1)), agora.minusSeconds(1)));
+
+        // When
+        Optional<Resposta> reserva = armazenamento.reservar("k1", "r1", "abc", Duration.ZERO);
+
+        // Then: assumida por esta requisição, com novo prazo, e ninguém mais consegue assumi-la
+        assertTrue(reserva.isEmpty());
+        assertTrue(idempotenciaRepository.findById("k1").orElseThrow().getBloqueadoAte().isAfter(agora));
+        assertThrows(IdempotenciaEmAndamentoException.class, () -> armazenamento.reservar("k1", "r2", "abc", Duration.ZERO));
+    }
+
+    @Test
+    void testDonoAntigoNaoConcluiReservaAssumida() {
+        // Given: a reserva de r1 venceu e r2 a assumiu
+        armazenamento.reservar("k1", "r1", "abc", Duration.ZERO);
+        vencerPrazo("k1");
+        assertTrue(armazenamento.reservar("k1", "r2", "abc", Duration.ZERO).isEmpty());
+
+        // When: r1 termina depois de perder a chave, e r2 em seguida
+        armazenamento.concluir("k1", "r1", new Resposta(200, null, null, "{\"de\":\"r1\"}"));
+        armazenamento.concluir("k1", "r2", new Resposta(201, null, null, "{\"de\":\"r2\"}"));
+
+        // Then: fica a resposta de r2
+        Resposta guardada = armazenamento.reservar("k1", "r3", "abc", Duration.ZERO).orElseThrow();
+        assertEquals(201, guardada.getStatus());
+        assertEquals("{\"de\":\"r2\"}", guardada.getCorpo());
+    }
+
+    @Test
+    void testDonoAntigoNaoLiberaReservaAssumida() {
+        // Given: a reserva de r1 venceu e r2 a assumiu
+        armazenamento.reservar("k1", "r1", "abc", Duration.ZERO);
+        vencerPrazo("k1");
+        assertTrue(armazenamento.reservar("k1", "r2", "abc", Duration.ZERO).isEmpty());
+
+        // When: r1 falha depois de perder a chave
+        armazenamento.liberar("k1", "r1");
+
+        // Then: a reserva de r2 continua e uma terceira requisição não executa de novo
+        assertEquals("r2", idempotenciaRepository.findById("k1").orElseThrow().getDono());
+        assertThrows(IdempotenciaEmAndamentoException.class, () -> armazenamento.reservar("k1", "r3", "abc", Duration.ZERO));
+    }
+
+    @Test
+    void testReservaEmAndamentoTemPrazoRenovado() throws InterruptedException {
+        // Given: prazo curto, renovado enquanto a requisição original executa
+        armazenamento.fechar();
+        armazenamento = new ArmazenamentoIdempotenciaBanco(idempotenciaRepository, transactionManager,
+            Duration.ofHours(1), Duration.ofMillis(500));
+        armazenamento.reservar("k1", "r1", "abc", Duration.ZERO);
+
+        // When
+        Thread.sleep(1200);
+
+        // Then: passou de três prazos e a chave continua com a instância original
+        assertThrows(IdempotenciaEmAndamentoException.class, () -> armazenamento.reservar("k1", "r2", "abc", Duration.ZERO));
+        assertTrue(idempotenciaRepository.findById("k1").orElseThrow().getBloqueadoAte().isAfter(Instant.now()));
+    }
+
+    // Simula a instância de quem reservou parando de renovar o prazo
+    private void vencerPrazo(String chave) {
+        Idempotencia reserva = idempotenciaRepository.findById(chave).orElseThrow();
+        reserva.setBloqueadoAte(Instant.now().minusSeconds(1));
+        idempotenciaRepository.save(reserva);
+    }
+}
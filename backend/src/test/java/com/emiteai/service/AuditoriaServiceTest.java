@@ -1,6 +1,7 @@
 package com.emiteai.service;
 
 import com.emiteai.entities.Auditoria;
+import com.emiteai.repository.AuditoriaEscritaRepository;
 import com.emiteai.repository.AuditoriaRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +26,9 @@ class AuditoriaServiceTest {
     @Mock
     private AuditoriaRepository auditoriaRepository;
 
+    @Mock
+    private AuditoriaEscritaRepository auditoriaEscritaRepository;
+
     @Mock
     private ObjectMapper objectMapper;
 
@@ -61,7 +65,7 @@ class AuditoriaServiceTest {
         auditoriaService.registrarRequisicao(request, response, dadosRequisicao, dadosResposta, 100L, null);
 
         // Then
-        verify(auditoriaRepository, timeout(1000)).save(any(Auditoria.class));
+        verify(auditoriaEscritaRepository, timeout(1000)).inserir(any(Auditoria.class));
     }
 
     @Test
@@ -81,7 +85,7 @@ class AuditoriaServiceTest {
         auditoriaService.registrarRequisicao(request, response, null, null, 200L, erro);
 
         // Then
-        verify(auditoriaRepository, timeout(1000)).save(argThat(auditoria -> 
+        verify(auditoriaEscritaRepository, timeout(1000)).inserir(argThat(auditoria -> 
             auditoria.getErro() != null && auditoria.getErro().contains("RuntimeException: Erro de teste")));
     }
 
@@ -184,7 +188,7 @@ class AuditoriaServiceTest {
         auditoriaService.registrarRequisicao(request, response, dadosProblematicos, null, 50L, null);
 
         // Then
-        verify(auditoriaRepository, timeout(1000)).save(argThat(auditoria -> 
+        verify(auditoriaEscritaRepository, timeout(1000)).inserir(argThat(auditoria -> 
             auditoria.getDadosRequisicao() != null && 
             auditoria.getDadosRequisicao().contains("Erro ao serializar dados da requisição")));
     }
@@ -205,7 +209,7 @@ class AuditoriaServiceTest {
         auditoriaService.registrarRequisicao(request, response, null, null, 30L, null);
 
         // Then
-        verify(auditoriaRepository, timeout(1000)).save(argThat(auditoria -> 
+        verify(auditoriaEscritaRepository, timeout(1000)).inserir(argThat(auditoria -> 
             "203.0.113.1".equals(auditoria.getIpOrigem())));
     }
 
@@ -0,0 +1,129 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.dtos.SugestaoNomeDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.repository.PessoaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteNomeServiceTest {
+
+    @Mock
+    private PessoaRepository pessoaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AutocompleteNomeService autocomplete;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        autocomplete = new AutocompleteNomeService(pessoaRepository, transactionManager, meterRegistry);
+        when(pessoaRepository.streamIdsENomes()).thenReturn(Stream.of(
+            new Object[]{1L, "João da Silva"},
+            new Object[]{2L, "Joana Souza"},
+            new Object[]{3L, "José Lima"},
+            new Object[]{4L, "Maria"},
+            new Object[]{5L, "joão da silva"}));
+        autocomplete.carregar();
+    }
+
+    @Test
+    void testSugerir_PrefixoSemAcentoEmOrdemAlfabetica() {
+        assertEquals(List.of("Joana Souza", "João da Silva", "joão da silva"), nomes(autocomplete.sugerir("JOA", 10)));
+        assertEquals(List.of("José Lima"), nomes(autocomplete.sugerir("jose", 10)));
+        assertEquals(List.of("João da Silva", "joão da silva"), nomes(autocomplete.sugerir("joão d", 10)));
+        assertTrue(autocomplete.sugerir("jox", 10).isEmpty());
+        assertTrue(autocomplete.sugerir("   ", 10).isEmpty());
+    }
+
+    @Test
+    void testSugerir_TopK() {
+        List<SugestaoNomeDTO> sugestoes = autocomplete.sugerir("jo", 2);
+
+        assertEquals(2, sugestoes.size());
+        assertEquals(2L, sugestoes.get(0).getId());
+        assertThrows(RuntimeException.class, () -> autocomplete.sugerir("jo", 51));
+    }
+
+    @Test
+    void testAoAlterarPessoa_MantemTrieCompacta() {
+        double nosAntes = meterRegistry.get("pessoa.autocomplete.nos").gauge().value();
+
+        autocomplete.aoAlterarPessoa(new PessoaAlteradaEvent(
+            PessoaAlteradaEvent.Tipo.CRIACAO, 6L, 0L, null, pessoa(6L, "Joaquim")));
+        autocomplete.aoAlterarPessoa(new PessoaAlteradaEvent(
+            PessoaAlteradaEvent.Tipo.ATUALIZACAO, 4L, 0L, pessoa(4L, "Maria"), pessoa(4L, "Mariana")));
+
+        assertEquals(List.of("Joaquim"), nomes(autocomplete.sugerir("joaq", 10)));
+        assertEquals(List.of("Mariana"), nomes(autocomplete.sugerir("mar", 10)));
+
+        autocomplete.aoAlterarPessoa(new PessoaAlteradaEvent(
+            PessoaAlteradaEvent.Tipo.REMOCAO, 6L, 0L, pessoa(6L, "Joaquim"), null));
+        autocomplete.aoAlterarPessoa(new PessoaAlteradaEvent(
+            PessoaAlteradaEvent.Tipo.ATUALIZACAO, 4L, 0L, pessoa(4L, "Mariana"), pessoa(4L, "Maria")));
+
+        assertTrue(autocomplete.sugerir("joaq", 10).isEmpty());
+        assertEquals(nosAntes, meterRegistry.get("pessoa.autocomplete.nos").gauge().value());
+    }
+
+    @Test
+    void testCarregar_EventosDuranteACargaNaoSaoSobrescritosPeloSnapshot() {
+        // Remoção e renomeação chegam enquanto a carga ainda não leu as linhas (antigas) dessas pessoas
+        when(pessoaRepository.streamIdsENomes()).thenReturn(Stream.of(
+            new Object[]{1L, "João da Silva"},
+            new Object[]{3L, "José Lima"},
+            new Object[]{4L, "Maria"}
+        ).peek(linha -> {
+            if (linha[0].equals(1L)) {
+                autocomplete.aoAlterarPessoa(new PessoaAlteradaEvent(
+                    PessoaAlteradaEvent.Tipo.REMOCAO, 3L, 0L, pessoa(3L, "José Lima"), null));
+                autocomplete.aoAlterarPessoa(new PessoaAlteradaEvent(
+                    PessoaAlteradaEvent.Tipo.ATUALIZACAO, 4L, 0L, pessoa(4L, "Maria"), pessoa(4L, "Mariana")));
+            }
+        }));
+
+        autocomplete.carregar();
+
+        assertTrue(autocomplete.sugerir("jose", 10).isEmpty());
+        assertEquals(List.of("Mariana"), nomes(autocomplete.sugerir("mar", 10)));
+        assertEquals(List.of("João da Silva"), nomes(autocomplete.sugerir("joao", 10)));
+        assertEquals(2, meterRegistry.get("pessoa.autocomplete.entradas").gauge().value());
+    }
+
+    @Test
+    void testMetricas() {
+        assertEquals(5, meterRegistry.get("pessoa.autocomplete.entradas").gauge().value());
+        assertTrue(meterRegistry.get("pessoa.autocomplete.memoria").gauge().value() > 0);
+        assertEquals(1, meterRegistry.get("pessoa.autocomplete.carga").timer().count());
+    }
+
+    private PessoaDTO pessoa(Long id, String nome) {
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setId(id);
+        pessoa.setNome(nome);
+        return pessoa;
+    }
+
+    private List<String> nomes(List<SugestaoNomeDTO> sugestoes) {
+        List<String> nomes = new ArrayList<>();
+        sugestoes.forEach(sugestao -> nomes.add(sugestao.getNome()));
+        return nomes;
+    }
+}
@@ -0,0 +1,92 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.repository.PessoaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BuscaNomeTrigramaMemoriaTest {
+
+    @Mock
+    private PessoaRepository pessoaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BuscaNomeTrigramaMemoria busca;
+
+    @BeforeEach
+    void setUp() {
+        busca = new BuscaNomeTrigramaMemoria(pessoaRepository, transactionManager, 0.5);
+        busca.indexar(1L, "João da Silva");
+        busca.indexar(2L, "Maria Silveira");
+        busca.indexar(3L, "Sandra Souza");
+        busca.indexar(4L, "Carlos Silva");
+    }
+
+    @Test
+    void testTrigramas_RegrasDoPgTrgm() {
+        assertEquals(Set.of("  a", " an", "ana", "na ", "  l", " li", "lim", "ima", "ma "),
+            BuscaNomeTrigramaMemoria.trigramas("Ana LIMA!"));
+    }
+
+    @Test
+    void testBuscar_TrechoDoNome() {
+        List<BuscaNomeAproximada.Resultado> resultados = busca.buscar("silv", null, null, 10);
+
+        assertEquals(List.of(1L, 2L, 4L), ids(resultados));
+        assertEquals(0.8f, resultados.get(0).getSimilaridade());
+    }
+
+    @Test
+    void testBuscar_ErroDeDigitacaoOrdenadoPorSimilaridade() {
+        // "Slva" compartilha 3 de 5 trigramas com "Silva" e menos com "Silveira"
+        List<BuscaNomeAproximada.Resultado> resultados = busca.buscar("Slva", null, null, 10);
+
+        assertEquals(List.of(1L, 4L), ids(resultados));
+        assertTrue(busca.buscar("xyzw", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void testBuscar_PaginacaoPorCursor() {
+        List<BuscaNomeAproximada.Resultado> primeira = busca.buscar("silv", null, null, 2);
+        BuscaNomeAproximada.Resultado ultimo = primeira.get(1);
+        List<BuscaNomeAproximada.Resultado> segunda = busca.buscar("silv", ultimo.getSimilaridade(), ultimo.getId(), 2);
+
+        assertEquals(List.of(1L, 2L), ids(primeira));
+        assertEquals(List.of(4L), ids(segunda));
+    }
+
+    @Test
+    void testAoAlterarPessoa_AtualizaERemove() {
+        PessoaDTO anterior = pessoa(1L, "João da Silva");
+        busca.aoAlterarPessoa(new PessoaAlteradaEvent(PessoaAlteradaEvent.Tipo.ATUALIZACAO, 1L, 0L, anterior, pessoa(1L, "João Pereira")));
+        busca.aoAlterarPessoa(new PessoaAlteradaEvent(PessoaAlteradaEvent.Tipo.REMOCAO, 4L, 0L, pessoa(4L, "Carlos Silva"), null));
+        busca.aoAlterarPessoa(new PessoaAlteradaEvent(PessoaAlteradaEvent.Tipo.CRIACAO, 5L, 0L, null, pessoa(5L, "Ana Silva")));
+
+        assertEquals(List.of(2L, 5L), ids(busca.buscar("silv", null, null, 10)));
+        assertEquals(List.of(1L), ids(busca.buscar("pereira", null, null, 10)));
+    }
+
+    private PessoaDTO pessoa(Long id, String nome) {
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setId(id);
+        pessoa.setNome(nome);
+        return pessoa;
+    }
+
+    private List<Long> ids(List<BuscaNomeAproximada.Resultado> resultados) {
+        return resultados.stream().map(BuscaNomeAproximada.Resultado::getId).toList();
+    }
+}
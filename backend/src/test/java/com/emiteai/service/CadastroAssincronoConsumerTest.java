@@ -0,0 +1,78 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CadastroAssincronoConsumerTest {
+
+    @Mock
+    private CadastroAssincronoService cadastroAssincronoService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CadastroAssincronoConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReceberLote_MensagemIlegivelViraPessoaNula() {
+        // Given
+        Message valida = mensagem("a", "{\"nome\":\"Ana\",\"cpf\":\"529.982.247-25\"}");
+        Message ilegivel = mensagem("b", "{nome");
+
+        // When
+        consumer.receberLote(List.of(valida, ilegivel));
+
+        // Then
+        ArgumentCaptor<List<PessoaDTO>> pessoas = ArgumentCaptor.forClass(List.class);
+        verify(cadastroAssincronoService).processarLote(eq(List.of("a", "b")), pessoas.capture());
+        assertEquals("Ana", pessoas.getValue().get(0).getNome());
+        assertNull(pessoas.getValue().get(1));
+    }
+
+    @Test
+    void testReceberLote_FalhaDoLoteGravaUmAUmERegistraOsRejeitados() {
+        // Given: o lote falha por causa de "b", que também falha sozinho
+        Message a = mensagem("a", "{\"nome\":\"Ana\",\"cpf\":\"529.982.247-25\"}");
+        Message b = mensagem("b", "{\"nome\":\"Bruno\",\"cpf\":\"111.444.777-35\"}");
+        doThrow(new DataIntegrityViolationException("valor longo demais para a coluna"))
+            .when(cadastroAssincronoService).processarLote(eq(List.of("a", "b")), anyList());
+        doThrow(new DataIntegrityViolationException("valor longo demais para a coluna"))
+            .when(cadastroAssincronoService).processarLote(eq(List.of("b")), anyList());
+
+        // When
+        consumer.receberLote(List.of(a, b));
+
+        // Then
+        verify(cadastroAssincronoService).processarLote(eq(List.of("a")), anyList());
+        verify(cadastroAssincronoService).registrarInvalido("b", "Dados rejeitados pelo banco de dados");
+        verify(cadastroAssincronoService, never()).registrarInvalido(eq("a"), any());
+    }
+
+    private Message mensagem(String id, String corpo) {
+        return MessageBuilder.withBody(corpo.getBytes(StandardCharsets.UTF_8)).setMessageId(id).build();
+    }
+}
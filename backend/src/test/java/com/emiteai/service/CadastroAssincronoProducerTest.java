@@ -0,0 +1,81 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RabbitMQConfig;
+import com.emiteai.dtos.CadastroAssincronoDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CadastroAssincronoProducerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations canal;
+
+    @Mock
+    private PessoaService pessoaService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CadastroAssincronoProducer producer;
+
+    @Captor
+    private ArgumentCaptor<Message> mensagem;
+
+    private PessoaDTO pessoaDTO;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocacao ->
+            invocacao.<RabbitOperations.OperationsCallback<Object>>getArgument(0).doInRabbit(canal));
+
+        pessoaDTO = new PessoaDTO();
+        pessoaDTO.setNome("João Silva");
+        pessoaDTO.setCpf("529.982.247-25");
+    }
+
+    @Test
+    void testEnfileirar_PublicaComConfirmacaoEDevolveId() throws Exception {
+        // When
+        CadastroAssincronoDTO pedido = producer.enfileirar(pessoaDTO);
+
+        // Then
+        verify(canal).send(eq(RabbitMQConfig.CADASTRO_QUEUE_NAME), mensagem.capture());
+        verify(canal).waitForConfirmsOrDie(anyLong());
+        assertEquals(CadastroAssincronoDTO.Status.PENDENTE, pedido.getStatus());
+        assertEquals(pedido.getId(), mensagem.getValue().getMessageProperties().getMessageId());
+        assertEquals("João Silva", objectMapper.readValue(mensagem.getValue().getBody(), PessoaDTO.class).getNome());
+    }
+
+    @Test
+    void testEnfileirar_CpfCadastradoNaoPublica() {
+        // Given
+        doThrow(new RuntimeException("CPF já cadastrado")).when(pessoaService).validarCadastro(pessoaDTO);
+
+        // When
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> producer.enfileirar(pessoaDTO));
+
+        // Then
+        assertEquals("CPF já cadastrado", exception.getMessage());
+        verifyNoInteractions(rabbitTemplate);
+    }
+}
@@ -0,0 +1,130 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.CadastroAssincronoDTO;
+import com.emiteai.dtos.EnderecoDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.repository.CadastroAssincronoRepository;
+import com.emiteai.repository.PessoaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada lote do consumidor é uma transação
+class CadastroAssincronoServiceTest {
+
+    @Autowired
+    private CadastroAssincronoService cadastroAssincronoService;
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private CadastroAssincronoRepository cadastroRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        pessoaRepository.deleteAll();
+        cadastroRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pessoaRepository.deleteAll();
+        cadastroRepository.deleteAll();
+    }
+
+    @Test
+    void testProcessarLote_GravaPessoasEResultados() {
+        // Given
+        PessoaDTO existente = pessoaService.cadastrarPessoa(pessoa("Bruno", "111.444.777-35"));
+
+        // When
+        cadastroAssincronoService.processarLote(List.of("a", "b", "c"),
+            Arrays.asList(pessoa("Ana", "529.982.247-25"), pessoa("Bruno", "111.444.777-35"), null));
+
+        // Then
+        CadastroAssincronoDTO criado = cadastroAssincronoService.consultar("a");
+        assertEquals(CadastroAssincronoDTO.Status.CRIADO, criado.getStatus());
+        assertEquals("Ana", pessoaService.buscarPorId(criado.getPessoaId()).getNome());
+        CadastroAssincronoDTO duplicado = cadastroAssincronoService.consultar("b");
+        assertEquals(CadastroAssincronoDTO.Status.DUPLICADO, duplicado.getStatus());
+        assertEquals(existente.getId(), duplicado.getPessoaId());
+        assertEquals(CadastroAssincronoDTO.Status.INVALIDO, cadastroAssincronoService.consultar("c").getStatus());
+    }
+
+    @Test
+    void testProcessarLote_ReentregaIgnorada() {
+        // Given
+        cadastroAssincronoService.processarLote(List.of("a"), List.of(pessoa("Ana", "529.982.247-25")));
+
+        // When: mesma mensagem entregue de novo
+        cadastroAssincronoService.processarLote(List.of("a"), List.of(pessoa("Ana", "529.982.247-25")));
+
+        // Then
+        assertEquals(CadastroAssincronoDTO.Status.CRIADO, cadastroAssincronoService.consultar("a").getStatus());
+        assertEquals(1, pessoaRepository.count());
+    }
+
+    @Test
+    void testReceberLote_CampoLongoDemaisNaoDerrubaOsOutros() throws Exception {
+        // Given: um consumidor sobre o serviço real (o bean só existe com RabbitMQ)
+        CadastroAssincronoConsumer consumer = new CadastroAssincronoConsumer();
+        ReflectionTestUtils.setField(consumer, "cadastroAssincronoService", cadastroAssincronoService);
+        ReflectionTestUtils.setField(consumer, "objectMapper", objectMapper);
+        PessoaDTO estadoLongo = pessoa("Bruno", "111.444.777-35");
+        estadoLongo.setEndereco(new EnderecoDTO());
+        estadoLongo.getEndereco().setEstado("São Paulo");
+
+        // When
+        consumer.receberLote(List.of(
+            mensagem("a", pessoa("Ana", "529.982.247-25")),
+            mensagem("b", estadoLongo),
+            mensagem("c", pessoa("Carla", "390.533.447-05"))));
+
+        // Then
+        assertEquals(CadastroAssincronoDTO.Status.CRIADO, cadastroAssincronoService.consultar("a").getStatus());
+        assertEquals(CadastroAssincronoDTO.Status.INVALIDO, cadastroAssincronoService.consultar("b").getStatus());
+        assertEquals(CadastroAssincronoDTO.Status.CRIADO, cadastroAssincronoService.consultar("c").getStatus());
+        assertEquals(2, pessoaRepository.count());
+    }
+
+    @Test
+    void testConsultar_SemResultadoEstaPendente() {
+        assertEquals(CadastroAssincronoDTO.Status.PENDENTE, cadastroAssincronoService.consultar("desconhecido").getStatus());
+    }
+
+    private Message mensagem(String id, PessoaDTO pessoa) throws Exception {
+        return MessageBuilder.withBody(objectMapper.writeValueAsBytes(pessoa)).setMessageId(id).build();
+    }
+
+    private PessoaDTO pessoa(String nome, String cpf) {
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setNome(nome);
+        pessoa.setCpf(cpf);
+        return pessoa;
+    }
+}
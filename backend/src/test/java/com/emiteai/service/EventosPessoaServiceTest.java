@@ -0,0 +1,202 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.EventoPessoaDTO;
+import com.emiteai.dtos.MudancaDTO;
+import com.emiteai.dtos.PaginaMudancasDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventosPessoaServiceTest {
+
+    private final PessoaService pessoaService = mock(PessoaService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EventosPessoaService eventos;
+
+    @BeforeEach
+    void setUp() {
+        eventos = new EventosPessoaService(pessoaService, meterRegistry, 2, 10, 1, 4,
+            Duration.ofSeconds(30), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventos.fechar();
+    }
+
+    @Test
+    void testAoAlterarPessoa_EnviaComRevisaoComoId() throws Exception {
+        // Given
+        EmitterGravado emitter = new EmitterGravado();
+        eventos.assinar(null, emitter);
+
+        // When
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.CRIACAO, 1L, 11));
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.REMOCAO, 1L, 12));
+
+        // Then
+        assertEquals(List.of(11L, 12L), emitter.revisoes(2));
+        assertEquals("12", emitter.ids.get(1));
+        verifyNoInteractions(pessoaService);
+    }
+
+    @Test
+    void testAssinar_ComUltimaRevisaoReenviaAntesDoFluxoAoVivo() throws Exception {
+        // Given: o feed vai até a revisão 12; a 13 só está entre os eventos recentes
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.ATUALIZACAO, 2L, 12));
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.CRIACAO, 3L, 13));
+        when(pessoaService.listarMudancas(10L, null, 500)).thenReturn(new PaginaMudancasDTO(List.of(
+            new MudancaDTO(11, 1L, MudancaDTO.Tipo.REMOCAO, null),
+            new MudancaDTO(12, 2L, MudancaDTO.Tipo.UPSERT, new PessoaDTO())), null, 12));
+        EmitterGravado emitter = new EmitterGravado();
+
+        // When
+        eventos.assinar(10L, emitter);
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.ATUALIZACAO, 3L, 14));
+
+        // Then
+        assertEquals(List.of(11L, 12L, 13L, 14L), emitter.revisoes(4));
+        assertEquals(PessoaAlteradaEvent.Tipo.REMOCAO, emitter.enviados.get(0).getTipo());
+        assertEquals(PessoaAlteradaEvent.Tipo.ATUALIZACAO, emitter.enviados.get(1).getTipo());
+    }
+
+    @Test
+    void testAoAlterarPessoa_AssinanteLentoDesconectado() throws Exception {
+        // Given: o envio do primeiro evento fica preso e a fila comporta só 2
+        EmitterGravado lento = new EmitterGravado();
+        lento.bloqueio = new CountDownLatch(1);
+        eventos.assinar(null, lento);
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.CRIACAO, (long) i, i));
+        }
+        lento.bloqueio.countDown();
+
+        // Then
+        assertTrue(lento.encerrado.await(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("pessoa.eventos.assinantes").gauge().value());
+        assertTrue(meterRegistry.get("pessoa.eventos.desconexoes").tag("motivo", "fila-cheia").counter().count() >= 1);
+    }
+
+    @Test
+    void testAoAlterarPessoa_EnvioPresoNaoAtrasaOsDemais() throws Exception {
+        // Given: uma thread fixa, ocupada por um envio que nunca termina sozinho
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        eventos.fechar();
+        eventos = new EventosPessoaService(pessoaService, meterRegistry, 256, 10, 1, 4,
+            Duration.ofMillis(200), Duration.ofMinutes(1));
+        EmitterGravado lento = new EmitterGravado();
+        lento.bloqueio = new CountDownLatch(1);
+        EmitterGravado rapido = new EmitterGravado();
+        eventos.assinar(null, lento);
+        eventos.assinar(null, rapido);
+
+        // When
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.CRIACAO, 1L, 1));
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.CRIACAO, 2L, 2));
+
+        // Then: o rápido recebe tudo enquanto o lento está preso, e o lento cai pelo prazo de envio
+        assertEquals(List.of(1L, 2L), rapido.revisoes(2));
+        assertTrue(lento.encerrado.await(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("pessoa.eventos.desconexoes").tag("motivo", "envio-lento").counter().count());
+        assertEquals(1, meterRegistry.get("pessoa.eventos.assinantes").gauge().value());
+        assertEquals(1, rapido.encerrado.getCount());
+    }
+
+    @Test
+    void testAoAlterarPessoa_PoolCheioNaoEncerraNaThreadDeQuemPublica() throws Exception {
+        // Given: uma única thread de envio, presa no assinante lento
+        eventos.fechar();
+        eventos = new EventosPessoaService(pessoaService, meterRegistry, 256, 10, 1, 1,
+            Duration.ofSeconds(1), Duration.ofMinutes(1));
+        EmitterGravado lento = new EmitterGravado();
+        lento.bloqueio = new CountDownLatch(1);
+        eventos.assinar(null, lento);
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.CRIACAO, 1L, 1));
+        assertTrue(lento.enviando.await(5, TimeUnit.SECONDS));
+        EmitterGravado recusado = new EmitterGravado();
+        eventos.assinar(null, recusado);
+
+        // When: o envio para o novo assinante é recusado pelo pool
+        eventos.aoAlterarPessoa(evento(PessoaAlteradaEvent.Tipo.CRIACAO, 2L, 2));
+
+        // Then: quem publicou (a thread do commit) não chama complete(); o vigia encerra depois
+        assertEquals(1, recusado.encerrado.getCount());
+        assertTrue(recusado.encerrado.await(5, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread(), recusado.encerradoPor);
+        lento.bloqueio.countDown();
+    }
+
+    private PessoaAlteradaEvent evento(PessoaAlteradaEvent.Tipo tipo, Long id, long revisao) {
+        PessoaDTO pessoa = null;
+        if (tipo != PessoaAlteradaEvent.Tipo.REMOCAO) {
+            pessoa = new PessoaDTO();
+            pessoa.setId(id);
+        }
+        return new PessoaAlteradaEvent(tipo, id, revisao, null, pessoa);
+    }
+
+    private static class EmitterGravado extends SseEmitter {
+
+        private final List<EventoPessoaDTO> enviados = new ArrayList<>();
+        private final List<String> ids = new ArrayList<>();
+        private final BlockingQueue<Long> revisoes = new LinkedBlockingQueue<>();
+        private final CountDownLatch encerrado = new CountDownLatch(1);
+        private final CountDownLatch enviando = new CountDownLatch(1);
+        private volatile Thread encerradoPor;
+        private CountDownLatch bloqueio;
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            enviando.countDown();
+            if (bloqueio != null) {
+                try {
+                    bloqueio.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (DataWithMediaType parte : evento.build()) {
+                if (parte.getData() instanceof EventoPessoaDTO dto) {
+                    enviados.add(dto);
+                    revisoes.add(dto.getRevisao());
+                } else if (parte.getData() instanceof String texto && texto.startsWith("id:")) {
+                    ids.add(texto.substring(3, texto.indexOf('\n')));
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            encerradoPor = Thread.currentThread();
+            encerrado.countDown();
+        }
+
+        private List<Long> revisoes(int quantidade) throws InterruptedException {
+            List<Long> recebidas = new ArrayList<>();
+            for (int i = 0; i < quantidade; i++) {
+                Long revisao = revisoes.poll(5, TimeUnit.SECONDS);
+                assertNotNull(revisao, "evento não enviado");
+                recebidas.add(revisao);
+            }
+            return recebidas;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.FacetaEstadoDTO;
+import com.emiteai.repository.PessoaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FacetasServiceTest {
+
+    @Mock
+    private PessoaRepository pessoaRepository;
+
+    private FacetasService facetasService;
+
+    @BeforeEach
+    void setUp() {
+        facetasService = new FacetasService(pessoaRepository, new SimpleMeterRegistry(), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testPorEstadoEMunicipio_AgrupaPorEstado() {
+        // Given
+        when(pessoaRepository.contarPorEstadoEMunicipio()).thenReturn(List.of(
+            new Object[]{"RJ", "Niterói", 1L},
+            new Object[]{"SP", "Campinas", 2L},
+            new Object[]{"SP", "São Paulo", 5L}));
+
+        // When
+        List<FacetaEstadoDTO> estados = facetasService.porEstadoEMunicipio();
+
+        // Then
+        assertEquals(2, estados.size());
+        assertEquals("RJ", estados.get(0).getEstado());
+        assertEquals(1, estados.get(0).getTotal());
+        assertEquals(7, estados.get(1).getTotal());
+        assertEquals("São Paulo", estados.get(1).getMunicipios().get(0).getMunicipio());
+        assertEquals(2, estados.get(1).getMunicipios().get(1).getTotal());
+    }
+
+    @Test
+    void testPorEstadoEMunicipio_ConsultaUmaVezDentroDoTtl() {
+        // Given
+        when(pessoaRepository.contarPorEstadoEMunicipio()).thenReturn(List.of());
+
+        // When
+        facetasService.porEstadoEMunicipio();
+        facetasService.porEstadoEMunicipio();
+
+        // Then
+        verify(pessoaRepository, times(1)).contarPorEstadoEMunicipio();
+    }
+}
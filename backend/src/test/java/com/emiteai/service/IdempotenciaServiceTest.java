@@ -0,0 +1,158 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.exception.IdempotenciaConflitanteException;
+import com.emiteai.exception.IdempotenciaEmAndamentoException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotenciaService idempotenciaService;
+    private AtomicInteger execucoes;
+    private PessoaDTO pessoaDTO;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ArmazenamentoIdempotencia armazenamento = new ArmazenamentoIdempotenciaMemoria(meterRegistry, 100, Duration.ofHours(1));
+        idempotenciaService = new IdempotenciaService(armazenamento, new ObjectMapper(), meterRegistry, Duration.ofSeconds(2));
+        execucoes = new AtomicInteger();
+
+        pessoaDTO = new PessoaDTO();
+        pessoaDTO.setNome("João Silva");
+        pessoaDTO.setCpf("529.982.247-25");
+    }
+
+    @Test
+    void testRepeticaoDevolveRespostaOriginalSemExecutar() {
+        ResponseEntity<Object> primeira = idempotenciaService.executar("k1", "POST /api/pessoas", pessoaDTO, this::criar);
+        ResponseEntity<Object> repetida = idempotenciaService.executar("k1", "POST /api/pessoas", pessoaDTO, this::criar);
+
+        assertEquals(1, execucoes.get());
+        assertEquals(200, repetida.getStatusCode().value());
+        assertEquals("\"1-0\"", repetida.getHeaders().getETag());
+        assertEquals(URI.create("/api/pessoas/1"), repetida.getHeaders().getLocation());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA));
+        assertNull(primeira.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA));
+        assertEquals("João Silva", ((JsonNode) repetida.getBody()).get("nome").asText());
+        assertEquals(1.0, meterRegistry.get("pessoa.idempotencia.repeticoes").counter().count());
+    }
+
+    @Test
+    void testMesmaChaveComOutroCorpoLancaConflito() {
+        idempotenciaService.executar("k1", "POST /api/pessoas", pessoaDTO, this::criar);
+
+        PessoaDTO outra = new PessoaDTO();
+        outra.setNome("Maria");
+        assertThrows(IdempotenciaConflitanteException.class,
+            () -> idempotenciaService.executar("k1", "POST /api/pessoas", outra, this::criar));
+        assertThrows(IdempotenciaConflitanteException.class,
+            () -> idempotenciaService.executar("k1", "PUT /api/pessoas/1", pessoaDTO, this::criar));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void testSemChaveExecutaSempre() {
+        idempotenciaService.executar(null, "POST /api/pessoas", pessoaDTO, this::criar);
+        idempotenciaService.executar(null, "POST /api/pessoas", pessoaDTO, this::criar);
+
+        assertEquals(2, execucoes.get());
+    }
+
+    @Test
+    void testChaveLongaDemaisERejeitada() {
+        assertThrows(RuntimeException.class,
+            () -> idempotenciaService.executar("x".repeat(256), "POST /api/pessoas", pessoaDTO, this::criar));
+        assertEquals(0, execucoes.get());
+    }
+
+    @Test
+    void testFalhaLiberaChaveParaNovaTentativa() {
+        assertThrows(RuntimeException.class, () -> idempotenciaService.executar("k1", "POST /api/pessoas", pessoaDTO, () -> {
+            execucoes.incrementAndGet();
+            throw new RuntimeException("CPF já cadastrado");
+        }));
+        idempotenciaService.executar("k1", "POST /api/pessoas", pessoaDTO,
+            () -> ResponseEntity.badRequest().build());
+
+        ResponseEntity<Object> resposta = idempotenciaService.executar("k1", "POST /api/pessoas", pessoaDTO, this::criar);
+
+        assertEquals(2, execucoes.get());
+        assertNull(resposta.getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA));
+    }
+
+    @Test
+    void testRequisicaoSimultaneaEsperaPelaOriginal() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<Object>> original = executor.submit(() ->
+                idempotenciaService.executar("k1", "POST /api/pessoas", pessoaDTO, () -> {
+                    iniciada.countDown();
+                    aguardar(liberar);
+                    return criar();
+                }));
+            assertTrue(iniciada.await(2, TimeUnit.SECONDS));
+            Future<ResponseEntity<Object>> repetida = executor.submit(() ->
+                idempotenciaService.executar("k1", "POST /api/pessoas", pessoaDTO, this::criar));
+
+            Thread.sleep(100);
+            assertFalse(repetida.isDone());
+            liberar.countDown();
+
+            assertNull(original.get(2, TimeUnit.SECONDS).getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA));
+            assertEquals("true", repetida.get(2, TimeUnit.SECONDS).getHeaders().getFirst(IdempotenciaService.HEADER_REPETIDA));
+            assertEquals(1, execucoes.get());
+        } finally {
+            liberar.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testEsperaEsgotadaLancaEmAndamento() {
+        ArmazenamentoIdempotencia armazenamento = new ArmazenamentoIdempotenciaMemoria(meterRegistry, 100, Duration.ofHours(1));
+        IdempotenciaService semEspera = new IdempotenciaService(armazenamento, new ObjectMapper(), new SimpleMeterRegistry(), Duration.ZERO);
+        armazenamento.reservar("k1", "r1", "impressao", Duration.ZERO);
+
+        assertThrows(IdempotenciaEmAndamentoException.class,
+            () -> armazenamento.reservar("k1", "r2", "impressao", Duration.ofMillis(20)));
+        assertThrows(IdempotenciaConflitanteException.class,
+            () -> semEspera.executar("k1", "POST /api/pessoas", pessoaDTO, this::criar));
+    }
+
+    private ResponseEntity<Object> criar() {
+        execucoes.incrementAndGet();
+        PessoaDTO criada = new PessoaDTO();
+        criada.setId(1L);
+        criada.setNome(pessoaDTO.getNome());
+        criada.setVersao(0L);
+        return ResponseEntity.ok().eTag("\"1-0\"").location(URI.create("/api/pessoas/1")).body(criada);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
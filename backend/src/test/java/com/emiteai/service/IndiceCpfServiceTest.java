@@ -0,0 +1,123 @@
+package com.emiteai.service;
+
+import com.emiteai.repository.PessoaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceCpfServiceTest {
+
+    @Mock
+    private PessoaRepository pessoaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IndiceCpfService indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceCpfService(pessoaRepository, transactionManager, 10_000, 0.01);
+    }
+
+    @Test
+    void testAntesDaCargaSempreConsultaBanco() {
+        assertTrue(indice.possivelmenteCadastrado("111.444.777-35"));
+    }
+
+    @Test
+    void testCargaSemFalsosNegativos() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(pessoaRepository.streamCpfsNumericos()).thenReturn(Stream.of(12345678909L, 11144477735L));
+
+        // When
+        indice.carregar();
+
+        // Then: pontuação não importa
+        assertTrue(indice.possivelmenteCadastrado("12345678909"));
+        assertTrue(indice.possivelmenteCadastrado("111.444.777-35"));
+        assertFalse(indice.possivelmenteCadastrado("529.982.247-25"));
+    }
+
+    @Test
+    void testTaxaDeFalsoPositivoDentroDoConfigurado() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(pessoaRepository.streamCpfsNumericos()).thenReturn(Stream.iterate(0L, i -> i + 2).limit(10_000));
+
+        // When
+        indice.carregar();
+
+        // Then
+        int falsosPositivos = 0;
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(indice.possivelmenteCadastrado(i * 2));
+            if (indice.possivelmenteCadastrado(i * 2 + 1)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 300, "falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void testCpfConfirmadoDuranteRecargaNaoSomeDoFiltro() {
+        // Given: a pessoa foi gravada antes da recarga, mas a transação só confirma depois do snapshot
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(pessoaRepository.streamCpfsNumericos()).thenReturn(Stream.of(12345678909L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            indice.registrar("529.982.247-25");
+            indice.carregar();
+
+            // When
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertTrue(indice.possivelmenteCadastrado("529.982.247-25"));
+        assertTrue(indice.possivelmenteCadastrado("123.456.789-09"));
+    }
+
+    @Test
+    void testRegistrarAposCarga() {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(pessoaRepository.streamCpfsNumericos()).thenReturn(Stream.empty());
+        indice.carregar();
+        assertFalse(indice.possivelmenteCadastrado("111.444.777-35"));
+
+        // When
+        indice.registrar("111.444.777-35");
+
+        // Then
+        assertTrue(indice.possivelmenteCadastrado("11144477735"));
+    }
+
+    @Test
+    void testCpfNaoNormalizavelVaiAoBanco() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(pessoaRepository.streamCpfsNumericos()).thenReturn(Stream.empty());
+        indice.carregar();
+
+        assertTrue(indice.possivelmenteCadastrado("abc"));
+        assertTrue(indice.possivelmenteCadastrado("123"));
+    }
+}
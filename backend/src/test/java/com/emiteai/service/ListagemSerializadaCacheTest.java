@@ -0,0 +1,70 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ListagemSerializadaCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger cargas = new AtomicInteger();
+    private ListagemSerializadaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ListagemSerializadaCache(objectMapper, new SimpleMeterRegistry(), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testObter_SerializaUmaVezPorEtag() throws Exception {
+        // When
+        ListagemSerializadaCache.Listagem primeira = cache.obter("\"r1\"", carga("Ana"));
+        ListagemSerializadaCache.Listagem segunda = cache.obter("\"r1\"", carga("Ana"));
+
+        // Then
+        assertSame(primeira, segunda);
+        assertEquals(1, cargas.get());
+        assertEquals("Ana", objectMapper.readValue(primeira.getJson(), PessoaDTO[].class)[0].getNome());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(primeira.getGzip()))) {
+            assertArrayEquals(primeira.getJson(), gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void testObter_NovoEtagOuEscritaRecarregam() throws Exception {
+        // Given
+        cache.obter("\"r1\"", carga("Ana"));
+
+        // When
+        ListagemSerializadaCache.Listagem novoEtag = cache.obter("\"r2\"", carga("Bia"));
+        cache.aoAlterarPessoa(mock(PessoaAlteradaEvent.class));
+        ListagemSerializadaCache.Listagem aposEscrita = cache.obter("\"r2\"", carga("Caio"));
+
+        // Then
+        assertEquals(3, cargas.get());
+        assertEquals("Bia", objectMapper.readValue(novoEtag.getJson(), PessoaDTO[].class)[0].getNome());
+        assertEquals("Caio", objectMapper.readValue(aposEscrita.getJson(), PessoaDTO[].class)[0].getNome());
+    }
+
+    private Supplier<List<PessoaDTO>> carga(String nome) {
+        return () -> {
+            cargas.incrementAndGet();
+            PessoaDTO pessoa = new PessoaDTO();
+            pessoa.setNome(nome);
+            return List.of(pessoa);
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.events.PessoaAlteradaEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PessoaCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PessoaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PessoaCache(meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testMissesConcorrentesFazemUmaUnicaCarga() throws Exception {
+        // Given
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<PessoaDTO>> resultados = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return cache.porId(1L, () -> {
+                    cargas.incrementAndGet();
+                    sleep(100);
+                    return pessoa(1L, "111.444.777-35");
+                });
+            }));
+        }
+        largada.countDown();
+        for (Future<PessoaDTO> resultado : resultados) {
+            assertEquals(1L, resultado.get(5, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void testFalhaNaCargaNaoEhArmazenada() {
+        assertThrows(RuntimeException.class, () -> cache.porId(1L, () -> {
+            throw new RuntimeException("Pessoa não encontrada");
+        }));
+
+        assertEquals("111.444.777-35", cache.porId(1L, () -> pessoa(1L, "111.444.777-35")).getCpf());
+    }
+
+    @Test
+    void testEventoInvalidaIdECpfs() {
+        // Given
+        cache.porId(1L, () -> pessoa(1L, "111.444.777-35"));
+        cache.porCpf(11144477735L, () -> pessoa(1L, "111.444.777-35"));
+
+        // When: CPF alterado
+        cache.aoAlterarPessoa(new PessoaAlteradaEvent(PessoaAlteradaEvent.Tipo.ATUALIZACAO, 1L, 0L,
+            pessoa(1L, "11144477735"), pessoa(1L, "529.982.247-25")));
+
+        // Then
+        AtomicInteger cargas = new AtomicInteger();
+        cache.porId(1L, () -> { cargas.incrementAndGet(); return pessoa(1L, "529.982.247-25"); });
+        cache.porCpf(11144477735L, () -> { cargas.incrementAndGet(); return pessoa(1L, "111.444.777-35"); });
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void testMetricasDeAcertoErroEEvicao() {
+        // Given: registro próprio, o do setUp já tem métricas com as mesmas tags
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        PessoaCache pequeno = new PessoaCache(registro, 1, Duration.ofMinutes(1));
+
+        // When
+        pequeno.porId(1L, () -> pessoa(1L, "111.444.777-35"));
+        pequeno.porId(1L, () -> pessoa(1L, "111.444.777-35"));
+        pequeno.porId(2L, () -> pessoa(2L, "529.982.247-25"));
+        pequeno.porId(3L, () -> pessoa(3L, "123.456.789-09"));
+
+        // Then
+        assertEquals(1.0, registro.get("cache.gets").tag("cache", "pessoa.id").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(3.0, registro.get("cache.gets").tag("cache", "pessoa.id").tag("result", "miss")
+            .functionCounter().count());
+        assertNotNull(registro.find("cache.evictions").tag("cache", "pessoa.id").functionCounter());
+    }
+
+    private PessoaDTO pessoa(Long id, String cpf) {
+        PessoaDTO dto = new PessoaDTO();
+        dto.setId(id);
+        dto.setCpf(cpf);
+        return dto;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
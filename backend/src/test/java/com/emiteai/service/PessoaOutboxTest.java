@@ -0,0 +1,164 @@
+package com.emiteai.service;
+
+import com.emiteai.config.RabbitMQConfig;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.entities.PessoaOutbox;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.repository.PessoaOutboxRepository;
+import com.emiteai.repository.PessoaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.AmqpNackReceivedException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // o outbox acompanha o commit de cada escrita
+class PessoaOutboxTest {
+
+    /**
+     * O perfil de teste desliga o RabbitMQ, e com ele o PessoaOutboxService; aqui o relay usa um
+     * broker de mentira, então o outbox é gravado normalmente.
+     */
+    @TestConfiguration
+    static class OutboxSemRabbitMQ {
+
+        @Bean
+        PessoaOutboxService pessoaOutboxService() {
+            return new PessoaOutboxService();
+        }
+    }
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private PessoaOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations canal = mock(RabbitOperations.class);
+    private final List<Message> publicadas = new ArrayList<>();
+    private final List<String> chaves = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        pessoaRepository.deleteAll();
+        outboxRepository.deleteAll();
+
+        // Broker de mentira: grava o que foi enviado no canal e confirma, a não ser que o teste diga o contrário
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocacao ->
+            invocacao.<RabbitOperations.OperationsCallback<Object>>getArgument(0).doInRabbit(canal));
+        doAnswer(invocacao -> {
+            chaves.add(invocacao.getArgument(1));
+            publicadas.add(invocacao.getArgument(2));
+            return null;
+        }).when(canal).send(eq(RabbitMQConfig.EXCHANGE_PESSOAS), anyString(), any(Message.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pessoaRepository.deleteAll();
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void testEscritasGravamNoOutbox() {
+        PessoaDTO criada = pessoaService.cadastrarPessoa(pessoa("Ana", "529.982.247-25"));
+        pessoaService.atualizarPessoa(criada.getId(), pessoa("Ana Maria", "529.982.247-25"), null);
+        pessoaService.deletar(criada.getId());
+
+        List<PessoaOutbox> eventos = outboxRepository.findAll();
+        eventos.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        assertEquals(List.of(PessoaAlteradaEvent.Tipo.CRIACAO, PessoaAlteradaEvent.Tipo.ATUALIZACAO, PessoaAlteradaEvent.Tipo.REMOCAO),
+                     eventos.stream().map(PessoaOutbox::getTipo).toList());
+        assertTrue(eventos.get(1).getPayload().contains("\"nome\":\"Ana Maria\""));
+        assertTrue(eventos.get(0).getRevisao() < eventos.get(2).getRevisao());
+    }
+
+    @Test
+    void testEscritaDesfeitaNaoGravaNoOutbox() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            pessoaService.cadastrarPessoa(pessoa("Ana", "529.982.247-25"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void testRelayPublicaEmLotesConfirmadosEApaga() {
+        // Given
+        pessoaService.cadastrarPessoa(pessoa("Ana", "529.982.247-25"));
+        pessoaService.cadastrarPessoa(pessoa("Bruno", "111.444.777-35"));
+        pessoaService.cadastrarPessoa(pessoa("Carla", "123.456.789-09"));
+        List<Long> ids = outboxRepository.findAll().stream().map(PessoaOutbox::getId).sorted().toList();
+
+        // When
+        relay().publicarPendentes();
+
+        // Then
+        verify(canal, times(2)).waitForConfirmsOrDie(anyLong());
+        assertEquals(ids.stream().map(String::valueOf).toList(),
+                     publicadas.stream().map(m -> m.getMessageProperties().getMessageId()).toList());
+        assertEquals(List.of("pessoa.criacao", "pessoa.criacao", "pessoa.criacao"), chaves);
+        assertTrue(new String(publicadas.get(0).getBody(), StandardCharsets.UTF_8).contains("\"nome\":\"Ana\""));
+        assertEquals(0, outboxRepository.count());
+        assertEquals(3, meterRegistry.get("pessoa.outbox.publicados").counter().count());
+    }
+
+    @Test
+    void testRelaySemConfirmacaoMantemOLote() {
+        // Given
+        pessoaService.cadastrarPessoa(pessoa("Ana", "529.982.247-25"));
+        doThrow(new AmqpNackReceivedException("nack", mock(Message.class))).when(canal).waitForConfirmsOrDie(anyLong());
+
+        // When
+        relay().publicarPendentes();
+
+        // Then
+        assertEquals(1, outboxRepository.count());
+        assertEquals(0, meterRegistry.get("pessoa.outbox.publicados").counter().count());
+    }
+
+    private PessoaOutboxRelay relay() {
+        return new PessoaOutboxRelay(outboxRepository, rabbitTemplate, transactionManager, meterRegistry, 2, Duration.ofSeconds(1));
+    }
+
+    private PessoaDTO pessoa(String nome, String cpf) {
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setNome(nome);
+        pessoa.setCpf(cpf);
+        return pessoa;
+    }
+}
@@ -0,0 +1,129 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.PaginaPessoasDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.entities.Endereco;
+import com.emiteai.entities.Pessoa;
+import com.emiteai.repository.PessoaRepository;
+import com.emiteai.util.CamposPessoa;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada chamada abre sua própria transação
+class PessoaServiceConsultasTest {
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+
+        transacao.executeWithoutResult(status -> {
+            pessoaRepository.deleteAll();
+            pessoaRepository.save(pessoa("Carlos", "111.444.777-35", "01310100"));
+            pessoaRepository.save(pessoa("Ana", "529.982.247-25", "20040020"));
+            pessoaRepository.save(pessoa("Bruno", "123.456.789-09", null));
+        });
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transacao.executeWithoutResult(status -> pessoaRepository.deleteAll());
+        estatisticas.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void testListarTodas_UmaInstrucaoSql() {
+        List<PessoaDTO> pessoas = pessoaService.listarTodas();
+
+        assertEquals(3, pessoas.size());
+        assertEquals("01310100", pessoas.get(0).getEndereco().getCep());
+        assertNull(pessoas.get(2).getEndereco());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void testListarPagina_UmaInstrucaoSqlPorPagina() {
+        PaginaPessoasDTO primeira = pessoaService.listarPagina(null, 2, "nome");
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+
+        PaginaPessoasDTO segunda = pessoaService.listarPagina(primeira.getProximoCursor(), 2, "nome");
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+
+        assertEquals(List.of("Ana", "Bruno"), primeira.getItens().stream().map(PessoaDTO::getNome).toList());
+        assertEquals("20040020", primeira.getItens().get(0).getEndereco().getCep());
+        assertEquals("Carlos", segunda.getItens().get(0).getNome());
+        assertNull(segunda.getProximoCursor());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void testListarTodasComCampos_SemJoinComEndereco() {
+        List<PessoaDTO> pessoas = pessoaService.listarTodas(CamposPessoa.parse("id,nome,cpf"));
+
+        assertEquals(List.of("Carlos", "Ana", "Bruno"), pessoas.stream().map(PessoaDTO::getNome).toList());
+        assertEquals("111.444.777-35", pessoas.get(0).getCpf());
+        assertNull(pessoas.get(0).getEndereco());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertFalse(estatisticas.getQueries()[0].contains("JOIN"));
+    }
+
+    @Test
+    void testExportarNdjson_UmaInstrucaoSql() throws Exception {
+        long total = pessoaService.exportarNdjson(new ByteArrayOutputStream());
+
+        assertEquals(3, total);
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    private Pessoa pessoa(String nome, String cpf, String cep) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setCpf(cpf);
+        if (cep != null) {
+            Endereco endereco = new Endereco();
+            endereco.setCep(cep);
+            endereco.setPessoa(pessoa);
+            pessoa.setEndereco(endereco);
+        }
+        return pessoa;
+    }
+}
@@ -0,0 +1,216 @@
+package com.emiteai.service;
+
+import com.emiteai.dtos.MudancaDTO;
+import com.emiteai.dtos.PaginaMudancasDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.entities.Endereco;
+import com.emiteai.entities.Pessoa;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.repository.PessoaOutboxRepository;
+import com.emiteai.repository.PessoaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // as revisões só são gravadas no commit
+@RecordApplicationEvents
+class PessoaServiceMudancasTest {
+
+    @Autowired
+    private PessoaService pessoaService;
+
+    @Autowired
+    private PessoaRepository pessoaRepository;
+
+    @Autowired
+    private PessoaOutboxRepository outboxRepository;
+
+    @Autowired
+    private EnversAuditService enversAuditService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private TransactionTemplate transacao;
+    private long revisaoInicial;
+    private Long idAna;
+    private Long idBruno;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        transacao.executeWithoutResult(status -> pessoaRepository.deleteAll());
+        // Outros contextos de teste usam o mesmo banco H2 e deixam revisões próprias nele
+        jdbcTemplate.execute("DELETE FROM endereco_aud");
+        jdbcTemplate.execute("DELETE FROM pessoa_aud");
+        jdbcTemplate.execute("DELETE FROM revinfo");
+        revisaoInicial = enversAuditService.findLatestRevision();
+
+        // Revisões: Ana criada, Bruno criado com endereço, Ana renomeada, Bruno removido
+        idAna = transacao.execute(status -> pessoaRepository.save(pessoa("Ana", "529.982.247-25", null)).getId());
+        idBruno = transacao.execute(status -> pessoaRepository.save(pessoa("Bruno", "123.456.789-09", "01310100")).getId());
+        transacao.executeWithoutResult(status -> pessoaRepository.findById(idAna).orElseThrow().setNome("Ana Maria"));
+        transacao.executeWithoutResult(status -> pessoaRepository.deleteById(idBruno));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transacao.executeWithoutResult(status -> pessoaRepository.deleteAll());
+    }
+
+    @Test
+    void testEnversCarregaEnderecoAntesDoFimDaTransacao() {
+        Number primeiraRevisao = enversAuditService.findRevisionsByPessoa(idBruno).get(0);
+
+        // Sem transação nem open-in-view aqui: o endereço já precisa estar carregado
+        Pessoa bruno = enversAuditService.findPessoaAtRevision(idBruno, primeiraRevisao);
+
+        assertEquals("01310100", bruno.getEndereco().getCep());
+    }
+
+    @Test
+    void testListarMudancas_EmOrdemDeRevisaoComEstadoAtual() {
+        PaginaMudancasDTO pagina = pessoaService.listarMudancas(revisaoInicial, null, 10);
+
+        List<MudancaDTO> itens = pagina.getItens();
+        assertEquals(4, itens.size()); // pessoa e endereço na mesma revisão contam uma vez
+        assertEquals(List.of(idAna, idBruno, idAna, idBruno), itens.stream().map(MudancaDTO::getId).toList());
+        assertEquals(MudancaDTO.Tipo.UPSERT, itens.get(0).getTipo());
+        assertEquals("Ana Maria", itens.get(0).getPessoa().getNome());
+        assertEquals(MudancaDTO.Tipo.REMOCAO, itens.get(1).getTipo());
+        assertNull(itens.get(1).getPessoa());
+        assertTrue(itens.get(0).getRevisao() < itens.get(1).getRevisao());
+        assertNull(pagina.getProximoCursor());
+        assertEquals(itens.get(3).getRevisao(), pagina.getRevisaoAtual());
+    }
+
+    @Test
+    void testListarMudancas_PaginasSeguemOCursor() {
+        List<MudancaDTO> todas = new ArrayList<>();
+        PaginaMudancasDTO pagina = pessoaService.listarMudancas(revisaoInicial, null, 1);
+        long revisaoAtual = pagina.getRevisaoAtual();
+        todas.addAll(pagina.getItens());
+        while (pagina.getProximoCursor() != null) {
+            pagina = pessoaService.listarMudancas(revisaoInicial, pagina.getProximoCursor(), 1);
+            assertEquals(revisaoAtual, pagina.getRevisaoAtual());
+            todas.addAll(pagina.getItens());
+        }
+
+        assertEquals(List.of(idAna, idBruno, idAna, idBruno), todas.stream().map(MudancaDTO::getId).toList());
+    }
+
+    @Test
+    void testListarMudancas_DesdeRevisaoAtualVazio() {
+        long revisaoAtual = pessoaService.listarMudancas(revisaoInicial, null, 10).getRevisaoAtual();
+
+        PaginaMudancasDTO pagina = pessoaService.listarMudancas(revisaoAtual, null, 10);
+
+        assertTrue(pagina.getItens().isEmpty());
+        assertNull(pagina.getProximoCursor());
+        assertEquals(revisaoAtual, pagina.getRevisaoAtual());
+    }
+
+    @Test
+    void testListarMudancas_SoRevisoesPosteriores() {
+        List<MudancaDTO> todas = pessoaService.listarMudancas(revisaoInicial, null, 10).getItens();
+
+        List<MudancaDTO> itens = pessoaService.listarMudancas(todas.get(1).getRevisao(), null, 10).getItens();
+
+        assertEquals(todas.subList(2, 4).stream().map(MudancaDTO::getRevisao).toList(),
+                     itens.stream().map(MudancaDTO::getRevisao).toList());
+    }
+
+    @Test
+    void testListarMudancas_RevisaoDeOutraInstanciaNaoEscondeAsSeguintes() {
+        // Given: outra instância tira o próximo número da sequência e confirma a revisão
+        Long revisaoOutraInstancia = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR revinfo_rev_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO revinfo (rev, revtstmp) VALUES (?, ?)", revisaoOutraInstancia, System.currentTimeMillis());
+        long revisaoAtual = pessoaService.listarMudancas(revisaoInicial, null, 10).getRevisaoAtual();
+        assertEquals(revisaoOutraInstancia, revisaoAtual);
+
+        // When: esta instância confirma uma revisão depois
+        transacao.executeWithoutResult(status -> pessoaRepository.findById(idAna).orElseThrow().setNome("Ana Lima"));
+
+        // Then: a revisão tem número maior e o cliente sincronizado a recebe
+        List<MudancaDTO> itens = pessoaService.listarMudancas(revisaoAtual, null, 10).getItens();
+        assertEquals(List.of(idAna), itens.stream().map(MudancaDTO::getId).toList());
+        assertEquals("Ana Lima", itens.get(0).getPessoa().getNome());
+    }
+
+    @Test
+    void testVersaoRevisoes_MudaComRevisaoMenorConfirmadaDepois() {
+        // Given: a revisão seguinte já foi confirmada; a transação que tirou o número anterior ainda não
+        Long menor = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR revinfo_rev_seq", Long.class);
+        Long maior = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR revinfo_rev_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO revinfo (rev, revtstmp) VALUES (?, ?)", maior, System.currentTimeMillis());
+        String antes = enversAuditService.findVersaoRevisoes();
+
+        // When
+        jdbcTemplate.update("INSERT INTO revinfo (rev, revtstmp) VALUES (?, ?)", menor, System.currentTimeMillis());
+
+        // Then: o máximo é o mesmo, mas a versão não
+        String depois = enversAuditService.findVersaoRevisoes();
+        assertEquals(maior, enversAuditService.findLatestRevision());
+        assertTrue(antes.startsWith(maior + "."));
+        assertNotEquals(antes, depois);
+    }
+
+    @Test
+    void testSemRabbitMQAsEscritasNaoGravamOutbox() {
+        // O perfil de teste desliga o RabbitMQ: sem o relay, linhas no outbox nunca seriam apagadas
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void testEventoDeEscritaTrazARevisaoDoFeed() {
+        PessoaDTO dto = new PessoaDTO();
+        dto.setNome("Carlos");
+        dto.setCpf("111.444.777-35");
+        PessoaDTO criada = pessoaService.cadastrarPessoa(dto);
+
+        PessoaAlteradaEvent evento = eventos.stream(PessoaAlteradaEvent.class).reduce((a, b) -> b).orElseThrow();
+        List<MudancaDTO> itens = pessoaService.listarMudancas(revisaoInicial, null, 10).getItens();
+        MudancaDTO mudanca = itens.get(itens.size() - 1);
+
+        assertEquals(criada.getId(), mudanca.getId());
+        assertEquals(mudanca.getRevisao(), evento.getRevisao());
+    }
+
+    private Pessoa pessoa(String nome, String cpf, String cep) {
+        Pessoa pessoa = new Pessoa();
+        pessoa.setNome(nome);
+        pessoa.setCpf(cpf);
+        if (cep != null) {
+            Endereco endereco = new Endereco();
+            endereco.setCep(cep);
+            endereco.setPessoa(pessoa);
+            pessoa.setEndereco(endereco);
+        }
+        return pessoa;
+    }
+}
@@ -1,22 +1,47 @@
 package com.emiteai.service;
 
+import com.emiteai.dtos.FiltroBuscaDTO;
+import com.emiteai.dtos.MudancaDTO;
+import com.emiteai.dtos.PaginaMudancasDTO;
+import com.emiteai.dtos.PaginaPessoasDTO;
+import com.emiteai.dtos.EnderecoDTO;
 import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.dtos.ResultadoBuscaDTO;
+import com.emiteai.dtos.ResultadoLoteDTO;
 import com.emiteai.entities.Pessoa;
+import com.emiteai.events.PessoaAlteradaEvent;
+import com.emiteai.exception.VersaoDivergenteException;
 import com.emiteai.repository.PessoaRepository;
+import com.emiteai.util.CamposPessoa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +50,27 @@ class PessoaServiceTest {
     @Mock
     private PessoaRepository pessoaRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private IndiceCpfService indiceCpf;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BuscaNomeAproximada buscaNomeAproximada;
+
+    @Mock
+    private EnversAuditService enversAuditService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private PessoaCache pessoaCache = new PessoaCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
     @InjectMocks
     private PessoaService pessoaService;
 
@@ -36,19 +82,20 @@ class PessoaServiceTest {
         pessoaDTO = new PessoaDTO();
         pessoaDTO.setNome("João Silva");
         pessoaDTO.setTelefone("(11) 99999-9999");
-        pessoaDTO.setCpf("123.456.789-00");
+        pessoaDTO.setCpf("123.456.789-09");
 
         pessoa = new Pessoa();
         pessoa.setId(1L);
         pessoa.setNome("João Silva");
         pessoa.setTelefone("(11) 99999-9999");
-        pessoa.setCpf("123.456.789-00");
+        pessoa.setCpf("123.456.789-09");
     }
 
     @Test
     void testCadastrarPessoa_Success() {
         // Given
-        when(pessoaRepository.existsByCpf(anyString())).thenReturn(false);
+        when(indiceCpf.possivelmenteCadastrado(anyLong())).thenReturn(true);
+        when(pessoaRepository.existsByCpfNumero(anyLong())).thenReturn(false);
         when(pessoaRepository.save(any(Pessoa.class))).thenReturn(pessoa);
 
         // When
@@ -57,23 +104,202 @@ class PessoaServiceTest {
         // Then
         assertNotNull(result);
         assertEquals("João Silva", result.getNome());
-        assertEquals("123.456.789-00", result.getCpf());
-        verify(pessoaRepository).existsByCpf("123.456.789-00");
+        assertEquals("123.456.789-09", result.getCpf());
+        verify(pessoaRepository).existsByCpfNumero(12345678909L);
         verify(pessoaRepository).save(any(Pessoa.class));
+        verify(eventPublisher).publishEvent(argThat((PessoaAlteradaEvent e) ->
+            e.getTipo() == PessoaAlteradaEvent.Tipo.CRIACAO && e.getAnterior() == null
+                && "123.456.789-09".equals(e.getAtual().getCpf())));
+    }
+
+    @Test
+    void testCadastrarPessoa_IndiceDescartaCpfSemConsultarBanco() {
+        // Given
+        when(indiceCpf.possivelmenteCadastrado(12345678909L)).thenReturn(false);
+
+        // When
+        pessoaService.cadastrarPessoa(pessoaDTO);
+
+        // Then
+        verify(pessoaRepository, never()).existsByCpfNumero(anyLong());
+        verify(pessoaRepository).save(any(Pessoa.class));
+    }
+
+    @Test
+    void testCpfCadastrado() {
+        when(indiceCpf.possivelmenteCadastrado(11144477735L)).thenReturn(false);
+        when(indiceCpf.possivelmenteCadastrado(12345678909L)).thenReturn(true);
+        when(pessoaRepository.existsByCpfNumero(12345678909L)).thenReturn(true);
+
+        assertFalse(pessoaService.cpfCadastrado("111.444.777-35"));
+        assertTrue(pessoaService.cpfCadastrado("123.456.789-09"));
+        verify(pessoaRepository, times(1)).existsByCpfNumero(anyLong());
     }
 
     @Test
     void testCadastrarPessoa_CpfAlreadyExists() {
         // Given
-        when(pessoaRepository.existsByCpf(anyString())).thenReturn(true);
+        when(indiceCpf.possivelmenteCadastrado(anyLong())).thenReturn(true);
+        when(pessoaRepository.existsByCpfNumero(anyLong())).thenReturn(true);
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, 
             () -> pessoaService.cadastrarPessoa(pessoaDTO));
         
         assertEquals("CPF já cadastrado", exception.getMessage());
-        verify(pessoaRepository).existsByCpf("123.456.789-00");
+        verify(pessoaRepository).existsByCpfNumero(12345678909L);
+        verify(pessoaRepository, never()).save(any(Pessoa.class));
+    }
+
+    @Test
+    void testCadastrarPessoa_CpfInvalidoNaoAcessaBanco() {
+        // Given
+        pessoaDTO.setCpf("123.456.789-00");
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> pessoaService.cadastrarPessoa(pessoaDTO));
+
+        assertEquals("CPF inválido", exception.getMessage());
+        verifyNoInteractions(pessoaRepository, indiceCpf);
+    }
+
+    @Test
+    void testCadastrarLote_CpfInvalidoEFormatosEquivalentes() {
+        // Given: mesmo CPF com e sem pontuação e um CPF com dígito verificador errado
+        List<PessoaDTO> lote = List.of(
+            novoDTO("Ana", "111.444.777-35"),
+            novoDTO("Ana de Novo", "11144477735"),
+            novoDTO("Carlos", "111.444.777-36"));
+
+        // When
+        List<ResultadoLoteDTO> resultados = pessoaService.cadastrarLote(lote, false);
+
+        // Then
+        assertEquals(ResultadoLoteDTO.Status.CRIADO, resultados.get(0).getStatus());
+        assertEquals(ResultadoLoteDTO.Status.DUPLICADO, resultados.get(1).getStatus());
+        assertEquals(ResultadoLoteDTO.Status.INVALIDO, resultados.get(2).getStatus());
+        assertEquals("CPF inválido", resultados.get(2).getMensagem());
+        verify(pessoaRepository, times(1)).save(any(Pessoa.class));
+    }
+
+    @Test
+    void testCadastrarLote_ResultadoPorItem() {
+        // Given
+        PessoaDTO nova = novoDTO("Nova Pessoa", "111.444.777-35");
+        EnderecoDTO endereco = new EnderecoDTO();
+        endereco.setCep("01001000");
+        endereco.setEstado("SP");
+        nova.setEndereco(endereco);
+        PessoaDTO existente = novoDTO("João Silva", "123.456.789-09");
+        PessoaDTO repetida = novoDTO("Repetida", "111.444.777-35");
+        PessoaDTO invalida = novoDTO("", "999.888.777-66");
+
+        when(indiceCpf.possivelmenteCadastrado(anyLong())).thenReturn(true);
+        when(pessoaRepository.findIdsByCpfNumeroIn(anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[]{12345678909L, 1L}));
+        when(pessoaRepository.save(any(Pessoa.class))).thenAnswer(invocation -> {
+            Pessoa salva = invocation.getArgument(0);
+            salva.setId(10L);
+            return salva;
+        });
+
+        // When
+        List<ResultadoLoteDTO> resultados = pessoaService.cadastrarLote(
+            Arrays.asList(nova, existente, repetida, invalida, null), false);
+
+        // Then
+        assertEquals(5, resultados.size());
+        assertEquals(ResultadoLoteDTO.Status.CRIADO, resultados.get(0).getStatus());
+        assertEquals(10L, resultados.get(0).getId());
+        assertEquals(ResultadoLoteDTO.Status.DUPLICADO, resultados.get(1).getStatus());
+        assertEquals(1L, resultados.get(1).getId());
+        assertEquals(ResultadoLoteDTO.Status.DUPLICADO, resultados.get(2).getStatus());
+        assertEquals(ResultadoLoteDTO.Status.INVALIDO, resultados.get(3).getStatus());
+        assertEquals(ResultadoLoteDTO.Status.INVALIDO, resultados.get(4).getStatus());
+        assertEquals(4, resultados.get(4).getIndice());
+
+        // Uma única consulta de CPFs para o lote inteiro
+        verify(pessoaRepository, times(1)).findIdsByCpfNumeroIn(anyCollection());
+        verify(pessoaRepository, times(1)).save(argThat(p ->
+            p.getEndereco() != null && "01001000".equals(p.getEndereco().getCep())));
+        verify(pessoaRepository, never()).existsByCpfNumero(anyLong());
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void testCadastrarLote_CampoMaiorQueAColunaSoInvalidaOItem() {
+        // Given
+        PessoaDTO telefoneLongo = novoDTO("Bruno", "529.982.247-25");
+        telefoneLongo.setTelefone("9".repeat(51));
+        PessoaDTO estadoLongo = novoDTO("Carla", "390.533.447-05");
+        estadoLongo.setEndereco(new EnderecoDTO());
+        estadoLongo.getEndereco().setEstado("São Paulo");
+        List<PessoaDTO> lote = List.of(novoDTO("Ana", "111.444.777-35"), telefoneLongo, estadoLongo,
+            novoDTO("Daniel", "123.456.789-09"));
+
+        // When
+        List<ResultadoLoteDTO> resultados = pessoaService.cadastrarLote(lote, false);
+
+        // Then
+        assertEquals(List.of(ResultadoLoteDTO.Status.CRIADO, ResultadoLoteDTO.Status.INVALIDO,
+                ResultadoLoteDTO.Status.INVALIDO, ResultadoLoteDTO.Status.CRIADO),
+            resultados.stream().map(ResultadoLoteDTO::getStatus).toList());
+        assertEquals("Telefone excede 50 caracteres", resultados.get(1).getMensagem());
+        assertEquals("Estado excede 2 caracteres", resultados.get(2).getMensagem());
+        verify(pessoaRepository, times(2)).save(any(Pessoa.class));
+    }
+
+    @Test
+    void testCadastrarLote_Upsert() {
+        // Given
+        PessoaDTO alterada = novoDTO("João Silva Atualizado", "123.456.789-09");
+        when(indiceCpf.possivelmenteCadastrado(anyLong())).thenReturn(true);
+        when(pessoaRepository.findIdsByCpfNumeroIn(anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[]{12345678909L, 1L}));
+        when(pessoaRepository.findAllById(List.of(1L))).thenReturn(List.of(pessoa));
+
+        // When
+        List<ResultadoLoteDTO> resultados = pessoaService.cadastrarLote(List.of(alterada), true);
+
+        // Then
+        assertEquals(ResultadoLoteDTO.Status.ATUALIZADO, resultados.get(0).getStatus());
+        assertEquals(1L, resultados.get(0).getId());
+        assertEquals("João Silva Atualizado", pessoa.getNome());
         verify(pessoaRepository, never()).save(any(Pessoa.class));
+        verify(eventPublisher).publishEvent(argThat((PessoaAlteradaEvent e) ->
+            e.getTipo() == PessoaAlteradaEvent.Tipo.ATUALIZACAO
+                && "João Silva".equals(e.getAnterior().getNome())
+                && "João Silva Atualizado".equals(e.getAtual().getNome())));
+    }
+
+    @Test
+    void testCadastrarLote_CpfsDescartadosPeloIndiceNaoSaoConsultados() {
+        // Given
+        when(indiceCpf.possivelmenteCadastrado(anyLong())).thenReturn(false);
+
+        // When
+        List<ResultadoLoteDTO> resultados = pessoaService.cadastrarLote(
+            List.of(novoDTO("Ana", "111.444.777-35"), novoDTO("Bia", "529.982.247-25")), false);
+
+        // Then
+        assertTrue(resultados.stream().allMatch(r -> r.getStatus() == ResultadoLoteDTO.Status.CRIADO));
+        verify(pessoaRepository, never()).findIdsByCpfNumeroIn(anyCollection());
+        verify(eventPublisher, times(2)).publishEvent(any(PessoaAlteradaEvent.class));
+    }
+
+    @Test
+    void testCadastrarLote_Vazio() {
+        assertThrows(RuntimeException.class, () -> pessoaService.cadastrarLote(List.of(), false));
+        verifyNoInteractions(pessoaRepository);
+    }
+
+    private PessoaDTO novoDTO(String nome, String cpf) {
+        PessoaDTO dto = new PessoaDTO();
+        dto.setNome(nome);
+        dto.setCpf(cpf);
+        return dto;
     }
 
     @Test
@@ -89,8 +315,7 @@ class PessoaServiceTest {
         pessoa2.setNome("Maria");
         pessoa2.setCpf("222.222.222-22");
 
-        List<Pessoa> pessoas = Arrays.asList(pessoa1, pessoa2);
-        when(pessoaRepository.findAll()).thenReturn(pessoas);
+        when(pessoaRepository.findTodasComoDTO()).thenReturn(dtos(pessoa1, pessoa2));
 
         // When
         List<PessoaDTO> result = pessoaService.listarTodas();
@@ -100,41 +325,294 @@ class PessoaServiceTest {
         assertEquals(2, result.size());
         assertEquals("João", result.get(0).getNome());
         assertEquals("Maria", result.get(1).getNome());
-        verify(pessoaRepository).findAll();
+        verify(pessoaRepository).findTodasComoDTO();
+    }
+
+    @Test
+    void testListarPagina_OrdenadoPorId() {
+        // Given
+        Pessoa pessoa2 = new Pessoa();
+        pessoa2.setId(2L);
+        pessoa2.setNome("Maria");
+        pessoa2.setCpf("222.222.222-22");
+
+        Pessoa pessoa3 = new Pessoa();
+        pessoa3.setId(3L);
+        pessoa3.setNome("Ana");
+        pessoa3.setCpf("333.333.333-33");
+
+        when(pessoaRepository.findPaginaOrdenadaPorId(eq(0L), any(Pageable.class)))
+            .thenReturn(dtos(pessoa, pessoa2, pessoa3));
+
+        // When
+        PaginaPessoasDTO result = pessoaService.listarPagina(null, 2, "id");
+
+        // Then
+        assertEquals(2, result.getItens().size());
+        assertEquals(1L, result.getItens().get(0).getId());
+        assertEquals(2L, result.getItens().get(1).getId());
+        assertEquals("2", result.getProximoCursor());
+        verify(pessoaRepository).findPaginaOrdenadaPorId(eq(0L), argThat(p -> p.getPageSize() == 3));
+    }
+
+    @Test
+    void testListarPagina_UltimaPaginaSemCursor() {
+        // Given
+        when(pessoaRepository.findPaginaOrdenadaPorId(eq(1L), any(Pageable.class)))
+            .thenReturn(List.of());
+
+        // When
+        PaginaPessoasDTO result = pessoaService.listarPagina("1", 20, "id");
+
+        // Then
+        assertTrue(result.getItens().isEmpty());
+        assertNull(result.getProximoCursor());
+    }
+
+    @Test
+    void testListarPagina_OrdenadoPorNome_CursorIdaEVolta() {
+        // Given
+        Pessoa pessoa2 = new Pessoa();
+        pessoa2.setId(2L);
+        pessoa2.setNome("Maria: da Silva");
+        pessoa2.setCpf("222.222.222-22");
+
+        when(pessoaRepository.findPrimeiraPaginaOrdenadaPorNome(any(Pageable.class)))
+            .thenReturn(dtos(pessoa2, pessoa));
+        when(pessoaRepository.findPaginaOrdenadaPorNome(eq("Maria: da Silva"), eq(2L), any(Pageable.class)))
+            .thenReturn(dtos(pessoa));
+
+        // When
+        PaginaPessoasDTO primeira = pessoaService.listarPagina(null, 1, "nome");
+        PaginaPessoasDTO segunda = pessoaService.listarPagina(primeira.getProximoCursor(), 1, "nome");
+
+        // Then
+        assertEquals("Maria: da Silva", primeira.getItens().get(0).getNome());
+        assertNotNull(primeira.getProximoCursor());
+        assertEquals("João Silva", segunda.getItens().get(0).getNome());
+        assertNull(segunda.getProximoCursor());
+    }
+
+    @Test
+    void testListarPagina_ParametrosInvalidos() {
+        assertThrows(RuntimeException.class, () -> pessoaService.listarPagina(null, 0, "id"));
+        assertThrows(RuntimeException.class, () -> pessoaService.listarPagina(null, 101, "id"));
+        assertThrows(RuntimeException.class, () -> pessoaService.listarPagina(null, 10, "telefone"));
+        assertThrows(RuntimeException.class, () -> pessoaService.listarPagina("abc", 10, "id"));
+        assertThrows(RuntimeException.class, () -> pessoaService.listarPagina("###", 10, "nome"));
+        verifyNoInteractions(pessoaRepository);
+    }
+
+    @Test
+    void testBuscar_FiltrosNormalizados() {
+        // Given
+        Pessoa pessoa2 = new Pessoa();
+        pessoa2.setId(2L);
+        pessoa2.setNome("Joana");
+        when(pessoaRepository.buscar(CamposPessoa.TODOS, "jo", "SP", "São Paulo", null, 1001000, 0L, 2))
+            .thenReturn(dtos(pessoa, pessoa2));
+
+        // When
+        PaginaPessoasDTO result = pessoaService.buscar(
+            new FiltroBuscaDTO(" Jo ", "sp", "São Paulo", " ", "01001-000"), null, 1);
+
+        // Then
+        assertEquals(1, result.getItens().size());
+        assertEquals("1", result.getProximoCursor());
+    }
+
+    @Test
+    void testBuscar_CepInvalido() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> pessoaService.buscar(new FiltroBuscaDTO(null, null, null, null, "123"), null, 10));
+
+        assertEquals("CEP inválido", exception.getMessage());
+        verifyNoInteractions(pessoaRepository);
+    }
+
+    @Test
+    void testBuscarPorNomeAproximado_OrdemPorSimilaridadeECursor() {
+        // Given
+        Pessoa pessoa2 = new Pessoa();
+        pessoa2.setId(2L);
+        pessoa2.setNome("Maria Silveira");
+        when(buscaNomeAproximada.buscar("silv", null, null, 3)).thenReturn(List.of(
+            new BuscaNomeAproximada.Resultado(2L, 0.9f),
+            new BuscaNomeAproximada.Resultado(1L, 0.8f),
+            new BuscaNomeAproximada.Resultado(3L, 0.6f)));
+        when(pessoaRepository.findDTOsByIdIn(List.of(2L, 1L))).thenReturn(dtos(pessoa, pessoa2));
+        when(buscaNomeAproximada.buscar("silv", 0.8f, 1L, 2)).thenReturn(List.of());
+
+        // When
+        PaginaPessoasDTO primeira = pessoaService.buscarPorNomeAproximado(" silv ", null, 2);
+        PaginaPessoasDTO segunda = pessoaService.buscarPorNomeAproximado("silv", primeira.getProximoCursor(), 1);
+
+        // Then
+        assertEquals(List.of(2L, 1L), primeira.getItens().stream().map(PessoaDTO::getId).toList());
+        assertNotNull(primeira.getProximoCursor());
+        assertTrue(segunda.getItens().isEmpty());
+        assertNull(segunda.getProximoCursor());
+    }
+
+    @Test
+    void testBuscarPorNomeAproximado_TermoCurto() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> pessoaService.buscarPorNomeAproximado(" ab ", null, 10));
+
+        assertEquals("Informe ao menos 3 caracteres", exception.getMessage());
+        verifyNoInteractions(buscaNomeAproximada);
+    }
+
+    @Test
+    void testValidarCadastro_ExigeNomeECpfNovo() {
+        // Given
+        PessoaDTO semNome = new PessoaDTO();
+        semNome.setCpf("529.982.247-25");
+        when(indiceCpf.possivelmenteCadastrado(52998224725L)).thenReturn(true);
+        when(pessoaRepository.existsByCpfNumero(52998224725L)).thenReturn(true);
+        pessoaDTO.setCpf("529.982.247-25");
+
+        // When & Then
+        assertEquals("Nome e CPF são obrigatórios",
+            assertThrows(RuntimeException.class, () -> pessoaService.validarCadastro(semNome)).getMessage());
+        assertEquals("CPF já cadastrado",
+            assertThrows(RuntimeException.class, () -> pessoaService.validarCadastro(pessoaDTO)).getMessage());
+        verify(pessoaRepository, never()).save(any());
+    }
+
+    @Test
+    void testValidarCadastro_CampoMaiorQueAColuna() {
+        // Given
+        PessoaDTO nomeLongo = new PessoaDTO();
+        nomeLongo.setNome("a".repeat(256));
+        nomeLongo.setCpf("529.982.247-25");
+        PessoaDTO estadoLongo = new PessoaDTO();
+        estadoLongo.setNome("Ana");
+        estadoLongo.setCpf("529.982.247-25");
+        estadoLongo.setEndereco(new EnderecoDTO());
+        estadoLongo.getEndereco().setEstado("São Paulo");
+
+        // When & Then
+        assertEquals("Nome excede 255 caracteres",
+            assertThrows(RuntimeException.class, () -> pessoaService.validarCadastro(nomeLongo)).getMessage());
+        assertEquals("Estado excede 2 caracteres",
+            assertThrows(RuntimeException.class, () -> pessoaService.validarCadastro(estadoLongo)).getMessage());
+        verifyNoInteractions(pessoaRepository);
+    }
+
+    @Test
+    void testListarMudancas_RevisaoFinalFixadaNoCursor() {
+        // Given
+        when(enversAuditService.findLatestRevisionAte(anyLong())).thenReturn(20L);
+        when(pessoaRepository.findMudancas(10L, Long.MAX_VALUE, 20L, 3)).thenReturn(List.of(
+            new Object[]{12, 1L}, new Object[]{15, 7L}, new Object[]{15, 9L}));
+        when(pessoaRepository.findDTOsByIdIn(List.of(1L, 7L))).thenReturn(dtos(pessoa));
+        when(pessoaRepository.findMudancas(15L, 7L, 20L, 3)).thenReturn(List.<Object[]>of(new Object[]{15, 9L}));
+        when(pessoaRepository.findDTOsByIdIn(List.of(9L))).thenReturn(List.of());
+
+        // When
+        PaginaMudancasDTO primeira = pessoaService.listarMudancas(10L, null, 2);
+        PaginaMudancasDTO segunda = pessoaService.listarMudancas(10L, primeira.getProximoCursor(), 2);
+
+        // Then
+        assertEquals(List.of(MudancaDTO.Tipo.UPSERT, MudancaDTO.Tipo.REMOCAO),
+                     primeira.getItens().stream().map(MudancaDTO::getTipo).toList());
+        assertEquals(20L, primeira.getRevisaoAtual());
+        assertEquals(9L, segunda.getItens().get(0).getId());
+        assertNull(segunda.getProximoCursor());
+        assertEquals(20L, segunda.getRevisaoAtual());
+        verify(enversAuditService, times(1)).findLatestRevisionAte(anyLong());
+    }
+
+    @Test
+    void testListarMudancas_SemRevisoesNovas() {
+        when(enversAuditService.findLatestRevisionAte(anyLong())).thenReturn(8L);
+
+        PaginaMudancasDTO pagina = pessoaService.listarMudancas(10L, null, 50);
+
+        assertTrue(pagina.getItens().isEmpty());
+        assertEquals(10L, pagina.getRevisaoAtual());
+        verify(pessoaRepository, never()).findMudancas(anyLong(), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testListarMudancas_CursorInvalido() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> pessoaService.listarMudancas(0L, "xyz", 50));
+
+        assertEquals("Cursor inválido", exception.getMessage());
+        verifyNoInteractions(enversAuditService);
+    }
+
+    @Test
+    void testExportarNdjson() throws Exception {
+        // Given
+        Pessoa pessoa2 = new Pessoa();
+        pessoa2.setId(2L);
+        pessoa2.setNome("Maria");
+        pessoa2.setCpf("222.222.222-22");
+
+        when(pessoaRepository.streamTodas()).thenReturn(dtos(pessoa, pessoa2).stream());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // When
+        long total = pessoaService.exportarNdjson(saida);
+
+        // Then
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, total);
+        assertEquals(2, linhas.length);
+        assertEquals("João Silva", objectMapper.readTree(linhas[0]).get("nome").asText());
+        assertEquals(2L, objectMapper.readTree(linhas[1]).get("id").asLong());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void testExportarNdjson_TabelaVazia() throws Exception {
+        // Given
+        when(pessoaRepository.streamTodas()).thenReturn(Stream.empty());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // When
+        long total = pessoaService.exportarNdjson(saida);
+
+        // Then
+        assertEquals(0, total);
+        assertEquals(0, saida.size());
     }
 
     @Test
     void testBuscarPorCpf_Success() {
         // Given
-        when(pessoaRepository.findByCpf(anyString())).thenReturn(Optional.of(pessoa));
+        when(pessoaRepository.findDTOByCpfNumero(12345678909L)).thenReturn(Optional.of(new PessoaDTO(pessoa)));
 
         // When
-        PessoaDTO result = pessoaService.buscarPorCpf("123.456.789-00");
+        PessoaDTO result = pessoaService.buscarPorCpf("123.456.789-09");
 
         // Then
         assertNotNull(result);
         assertEquals("João Silva", result.getNome());
-        assertEquals("123.456.789-00", result.getCpf());
-        verify(pessoaRepository).findByCpf("123.456.789-00");
+        assertEquals("123.456.789-09", result.getCpf());
+        verify(pessoaRepository).findDTOByCpfNumero(12345678909L);
     }
 
     @Test
     void testBuscarPorCpf_NotFound() {
         // Given
-        when(pessoaRepository.findByCpf(anyString())).thenReturn(Optional.empty());
+        when(pessoaRepository.findDTOByCpfNumero(99999999999L)).thenReturn(Optional.empty());
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class,
             () -> pessoaService.buscarPorCpf("999.999.999-99"));
         
         assertEquals("Pessoa não encontrada", exception.getMessage());
-        verify(pessoaRepository).findByCpf("999.999.999-99");
+        verify(pessoaRepository).findDTOByCpfNumero(99999999999L);
     }
 
     @Test
     void testBuscarPorId_Success() {
         // Given
-        when(pessoaRepository.findById(1L)).thenReturn(Optional.of(pessoa));
+        when(pessoaRepository.findDTOById(1L)).thenReturn(Optional.of(new PessoaDTO(pessoa)));
 
         // When
         PessoaDTO result = pessoaService.buscarPorId(1L);
@@ -143,20 +621,120 @@ class PessoaServiceTest {
         assertNotNull(result);
         assertEquals("João Silva", result.getNome());
         assertEquals(1L, result.getId());
-        verify(pessoaRepository).findById(1L);
+        verify(pessoaRepository).findDTOById(1L);
     }
 
     @Test
     void testBuscarPorId_NotFound() {
         // Given
-        when(pessoaRepository.findById(999L)).thenReturn(Optional.empty());
+        when(pessoaRepository.findDTOById(999L)).thenReturn(Optional.empty());
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class,
             () -> pessoaService.buscarPorId(999L));
         
         assertEquals("Pessoa não encontrada", exception.getMessage());
-        verify(pessoaRepository).findById(999L);
+        verify(pessoaRepository).findDTOById(999L);
+    }
+
+    @Test
+    void testBuscarPorId_SegundaChamadaVemDoCache() {
+        // Given
+        when(pessoaRepository.findDTOById(1L)).thenReturn(Optional.of(new PessoaDTO(pessoa)));
+
+        // When
+        pessoaService.buscarPorId(1L);
+        PessoaDTO result = pessoaService.buscarPorId(1L);
+
+        // Then
+        assertEquals("João Silva", result.getNome());
+        verify(pessoaRepository, times(1)).findDTOById(1L);
+    }
+
+    @Test
+    void testBuscarPorCpf_FormatosEquivalentesCompartilhamEntrada() {
+        // Given
+        when(pessoaRepository.findDTOByCpfNumero(12345678909L)).thenReturn(Optional.of(new PessoaDTO(pessoa)));
+
+        // When
+        pessoaService.buscarPorCpf("123.456.789-09");
+        pessoaService.buscarPorCpf("12345678909");
+
+        // Then
+        verify(pessoaRepository, times(1)).findDTOByCpfNumero(12345678909L);
+    }
+
+    @Test
+    void testBuscarPorIds_OrdemDaRequisicaoEMarcadores() {
+        // Given
+        Pessoa pessoa2 = new Pessoa();
+        pessoa2.setId(2L);
+        pessoa2.setNome("Maria");
+        when(pessoaRepository.findDTOsByIdIn(anyCollection())).thenReturn(dtos(pessoa2, pessoa));
+
+        // When
+        List<ResultadoBuscaDTO> resultados = pessoaService.buscarPorIds(Arrays.asList(1L, 99L, 2L, null, 1L));
+
+        // Then
+        assertEquals(5, resultados.size());
+        assertEquals("João Silva", resultados.get(0).getPessoa().getNome());
+        assertEquals(ResultadoBuscaDTO.Status.NAO_ENCONTRADO, resultados.get(1).getStatus());
+        assertNull(resultados.get(1).getPessoa());
+        assertEquals("99", resultados.get(1).getChave());
+        assertEquals("Maria", resultados.get(2).getPessoa().getNome());
+        assertEquals(ResultadoBuscaDTO.Status.INVALIDO, resultados.get(3).getStatus());
+        assertEquals(ResultadoBuscaDTO.Status.ENCONTRADO, resultados.get(4).getStatus());
+        assertEquals(4, resultados.get(4).getIndice());
+
+        // Ids repetidos consultados uma única vez
+        verify(pessoaRepository).findDTOsByIdIn(argThat(ids -> ids.size() == 3));
+    }
+
+    @Test
+    void testBuscarPorIds_ConsultasEmBlocos() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            ids.add(id);
+        }
+        ReflectionTestUtils.setField(pessoaService, "limiteBuscaMultipla", 2000);
+        when(pessoaRepository.findDTOsByIdIn(anyCollection())).thenReturn(List.of());
+
+        // When
+        List<ResultadoBuscaDTO> resultados = pessoaService.buscarPorIds(ids);
+
+        // Then
+        assertEquals(1500, resultados.size());
+        verify(pessoaRepository).findDTOsByIdIn(argThat(bloco -> bloco.size() == 1000));
+        verify(pessoaRepository).findDTOsByIdIn(argThat(bloco -> bloco.size() == 500));
+    }
+
+    @Test
+    void testBuscarPorIds_LimiteExcedidoOuVazio() {
+        ReflectionTestUtils.setField(pessoaService, "limiteBuscaMultipla", 2);
+
+        assertThrows(RuntimeException.class, () -> pessoaService.buscarPorIds(List.of(1L, 2L, 3L)));
+        assertThrows(RuntimeException.class, () -> pessoaService.buscarPorIds(List.of()));
+        verifyNoInteractions(pessoaRepository);
+    }
+
+    @Test
+    void testBuscarPorCpfs_FormatosEquivalentesEInvalidos() {
+        // Given
+        when(pessoaRepository.findDTOsByCpfNumeroIn(anyCollection())).thenReturn(dtos(pessoa));
+
+        // When
+        List<ResultadoBuscaDTO> resultados = pessoaService.buscarPorCpfs(
+            Arrays.asList("12345678909", "abc", "111.444.777-35", "123.456.789-09"));
+
+        // Then
+        assertEquals(ResultadoBuscaDTO.Status.ENCONTRADO, resultados.get(0).getStatus());
+        assertEquals("12345678909", resultados.get(0).getChave());
+        assertEquals(ResultadoBuscaDTO.Status.INVALIDO, resultados.get(1).getStatus());
+        assertEquals(ResultadoBuscaDTO.Status.NAO_ENCONTRADO, resultados.get(2).getStatus());
+        assertEquals(1L, resultados.get(3).getPessoa().getId());
+        verify(pessoaRepository).findDTOsByCpfNumeroIn(argThat(cpfs ->
+            cpfs.size() == 2 && cpfs.contains(12345678909L) && cpfs.contains(11144477735L)));
     }
 
     @Test
@@ -165,7 +743,7 @@ class PessoaServiceTest {
         PessoaDTO updateDTO = new PessoaDTO();
         updateDTO.setNome("João Silva Atualizado");
         updateDTO.setTelefone("(11) 88888-8888");
-        updateDTO.setCpf("123.456.789-00");
+        updateDTO.setCpf("123.456.789-09");
 
         when(pessoaRepository.findById(1L)).thenReturn(Optional.of(pessoa));
         when(pessoaRepository.save(any(Pessoa.class))).thenReturn(pessoa);
@@ -179,6 +757,37 @@ class PessoaServiceTest {
         verify(pessoaRepository).save(any(Pessoa.class));
     }
 
+    @Test
+    void testAtualizarPessoa_IfMatch() {
+        // Given
+        pessoa.setVersao(2L);
+        when(pessoaRepository.findById(1L)).thenReturn(Optional.of(pessoa));
+        PessoaDTO updateDTO = novoDTO("João Silva Atualizado", "123.456.789-09");
+
+        // When & Then: versão desatualizada
+        assertThrows(VersaoDivergenteException.class,
+            () -> pessoaService.atualizarPessoa(1L, updateDTO, "\"1-1\""));
+        verify(pessoaRepository, never()).save(any(Pessoa.class));
+        assertEquals("João Silva", pessoa.getNome());
+
+        // When & Then: versão atual
+        pessoaService.atualizarPessoa(1L, updateDTO, "\"1-2\"");
+        verify(pessoaRepository).save(pessoa);
+        verify(entityManager).flush();
+        assertEquals("João Silva Atualizado", pessoa.getNome());
+    }
+
+    @Test
+    void testAtualizarPessoa_CpfInvalido() {
+        PessoaDTO updateDTO = novoDTO("João Silva", "000.000.000-00");
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> pessoaService.atualizarPessoa(1L, updateDTO));
+
+        assertEquals("CPF inválido", exception.getMessage());
+        verifyNoInteractions(pessoaRepository);
+    }
+
     @Test
     void testAtualizarPessoa_NotFound() {
         // Given
@@ -198,10 +807,33 @@ class PessoaServiceTest {
 
     @Test
     void testDeletar() {
+        // Given
+        when(pessoaRepository.findById(1L)).thenReturn(Optional.of(pessoa));
+
         // When
         pessoaService.deletar(1L);
 
         // Then
-        verify(pessoaRepository).deleteById(1L);
+        verify(pessoaRepository).delete(pessoa);
+        verify(eventPublisher).publishEvent(argThat((PessoaAlteradaEvent e) ->
+            e.getTipo() == PessoaAlteradaEvent.Tipo.REMOCAO && e.getAtual() == null
+                && "123.456.789-09".equals(e.getAnterior().getCpf())));
+    }
+
+    @Test
+    void testDeletar_Inexistente() {
+        // Given
+        when(pessoaRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // When
+        pessoaService.deletar(999L);
+
+        // Then
+        verify(pessoaRepository, never()).delete(any(Pessoa.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private List<PessoaDTO> dtos(Pessoa... pessoas) {
+        return Arrays.stream(pessoas).map(PessoaDTO::new).toList();
     }
 }
@@ -0,0 +1,54 @@
+package com.emiteai.service;
+
+import com.emiteai.events.PessoaAlteradaEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VersaoListagemServiceTest {
+
+    @Mock
+    private EnversAuditService enversAuditService;
+
+    @InjectMocks
+    private VersaoListagemService versaoListagemService;
+
+    @Test
+    void testEtag_ReaproveitaRevisaoDentroDoTtl() {
+        // Given
+        ReflectionTestUtils.setField(versaoListagemService, "ttlRevisao", Duration.ofMinutes(1));
+        when(enversAuditService.findVersaoRevisoes()).thenReturn("7.3");
+
+        // When
+        String primeiro = versaoListagemService.etag();
+        String segundo = versaoListagemService.etag();
+        versaoListagemService.aoAlterarPessoa(mock(PessoaAlteradaEvent.class));
+        String aposCommit = versaoListagemService.etag();
+
+        // Then - uma consulta só; o commit desta instância muda o ETag sem consultar o banco
+        assertEquals(primeiro, segundo);
+        assertNotEquals(primeiro, aposCommit);
+        assertTrue(primeiro.startsWith("\"r7.3-"));
+        verify(enversAuditService, times(1)).findVersaoRevisoes();
+    }
+
+    @Test
+    void testEtag_SemTtlConsultaSempre() {
+        // Given
+        ReflectionTestUtils.setField(versaoListagemService, "ttlRevisao", Duration.ZERO);
+        when(enversAuditService.findVersaoRevisoes()).thenReturn("7.3", "7.4");
+
+        // When & Then
+        assertTrue(versaoListagemService.etag().startsWith("\"r7.3-"));
+        assertTrue(versaoListagemService.etag().startsWith("\"r7.4-"));
+    }
+}
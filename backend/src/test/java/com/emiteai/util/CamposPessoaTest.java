@@ -0,0 +1,51 @@
+package com.emiteai.util;
+
+import com.emiteai.dtos.EnderecoDTO;
+import com.emiteai.dtos.PessoaDTO;
+import com.emiteai.util.CamposPessoa.Campo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CamposPessoaTest {
+
+    @Test
+    void testParse_VazioSignificaTodos() {
+        assertSame(CamposPessoa.TODOS, CamposPessoa.parse(null));
+        assertSame(CamposPessoa.TODOS, CamposPessoa.parse(" "));
+        assertTrue(CamposPessoa.parse("id,nome,telefone,cpf,endereco,versao").todos());
+    }
+
+    @Test
+    void testParse_IgnoraEspacosEMaiusculas() {
+        CamposPessoa campos = CamposPessoa.parse(" ID , Nome,,cpf");
+
+        assertFalse(campos.todos());
+        assertTrue(campos.contem(Campo.NOME));
+        assertFalse(campos.contem(Campo.ENDERECO));
+        assertEquals(CamposPessoa.parse("id,nome,cpf"), campos);
+    }
+
+    @Test
+    void testParse_CampoInvalido() {
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> CamposPessoa.parse("id,salario"));
+        assertTrue(erro.getMessage().startsWith("Campo inválido: salario"));
+    }
+
+    @Test
+    void testAplicar_SoCamposPedidosNaOrdemDoDto() {
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setId(1L);
+        pessoa.setNome("Ana");
+        pessoa.setCpf("111.444.777-35");
+        pessoa.setEndereco(new EnderecoDTO());
+
+        Map<String, Object> json = CamposPessoa.parse("cpf,id").aplicar(pessoa);
+
+        assertEquals(List.of("id", "cpf"), List.copyOf(json.keySet()));
+        assertEquals("111.444.777-35", json.get("cpf"));
+    }
+}
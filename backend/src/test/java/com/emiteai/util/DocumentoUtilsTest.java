@@ -0,0 +1,48 @@
+package com.emiteai.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentoUtilsTest {
+
+    @Test
+    void testParseCpf_IgnoraPontuacao() {
+        assertEquals(12345678909L, DocumentoUtils.parseCpf("123.456.789-09"));
+        assertEquals(12345678909L, DocumentoUtils.parseCpf("12345678909"));
+        assertEquals(191L, DocumentoUtils.parseCpf("000.000.001-91"));
+    }
+
+    @Test
+    void testParseCpf_QuantidadeDeDigitosErrada() {
+        assertEquals(DocumentoUtils.INVALIDO, DocumentoUtils.parseCpf(null));
+        assertEquals(DocumentoUtils.INVALIDO, DocumentoUtils.parseCpf(""));
+        assertEquals(DocumentoUtils.INVALIDO, DocumentoUtils.parseCpf("1234567890"));
+        assertEquals(DocumentoUtils.INVALIDO, DocumentoUtils.parseCpf("123456789012"));
+        assertEquals(DocumentoUtils.INVALIDO, DocumentoUtils.parseCpf("123.456.789/09"));
+    }
+
+    @Test
+    void testParseCpfValido() {
+        assertEquals(11144477735L, DocumentoUtils.parseCpfValido("111.444.777-35"));
+        assertEquals(52998224725L, DocumentoUtils.parseCpfValido("529.982.247-25"));
+        assertEquals(DocumentoUtils.INVALIDO, DocumentoUtils.parseCpfValido("111.444.777-36"));
+        assertEquals(DocumentoUtils.INVALIDO, DocumentoUtils.parseCpfValido("123.456.789-00"));
+    }
+
+    @Test
+    void testCpfValido_RejeitaDigitosRepetidos() {
+        assertFalse(DocumentoUtils.cpfValido(0L));
+        assertFalse(DocumentoUtils.cpfValido(11111111111L));
+        assertFalse(DocumentoUtils.cpfValido(99999999999L));
+        assertFalse(DocumentoUtils.cpfValido(-1L));
+    }
+
+    @Test
+    void testParseCep() {
+        assertEquals(1310100, DocumentoUtils.parseCep("01310-100"));
+        assertEquals(1310100, DocumentoUtils.parseCep("01310100"));
+        assertEquals(-1, DocumentoUtils.parseCep("0131010"));
+        assertEquals(-1, DocumentoUtils.parseCep("ABCDE-FGH"));
+    }
+}
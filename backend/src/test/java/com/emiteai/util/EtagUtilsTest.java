@@ -0,0 +1,33 @@
+package com.emiteai.util;
+
+import com.emiteai.dtos.EnderecoDTO;
+import com.emiteai.dtos.PessoaDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EtagUtilsTest {
+
+    @Test
+    void testEtagComEsemEndereco() {
+        PessoaDTO pessoa = new PessoaDTO();
+        pessoa.setId(7L);
+        pessoa.setVersao(3L);
+        assertEquals("\"7-3\"", EtagUtils.etag(pessoa));
+
+        EnderecoDTO endereco = new EnderecoDTO();
+        endereco.setVersao(0L);
+        pessoa.setEndereco(endereco);
+        assertEquals("\"7-3-0\"", EtagUtils.etag(pessoa));
+    }
+
+    @Test
+    void testCorrespondeUsaComparacaoForte() {
+        assertTrue(EtagUtils.corresponde("\"7-3\"", "\"7-3\""));
+        assertTrue(EtagUtils.corresponde("\"1-1\", \"7-3\"", "\"7-3\""));
+        assertTrue(EtagUtils.corresponde("*", "\"7-3\""));
+        assertFalse(EtagUtils.corresponde("W/\"7-3\"", "\"7-3\""));
+        assertFalse(EtagUtils.corresponde("\"7-2\"", "\"7-3\""));
+        assertFalse(EtagUtils.corresponde(null, "\"7-3\""));
+    }
+}
@@ -0,0 +1,19 @@
+package com.emiteai.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NomeUtilsTest {
+
+    @Test
+    void testNormalizar_AcentosMaiusculasEEspacos() {
+        assertEquals("joao da silva", NomeUtils.normalizar("  JOÃO   da\tSilva "));
+        assertEquals("conceicao", NomeUtils.normalizar("Conceição"));
+    }
+
+    @Test
+    void testNormalizar_Nulo() {
+        assertEquals("", NomeUtils.normalizar(null));
+    }
+}
@@ -52,7 +52,7 @@ describe('App Integration Tests', () => {
     const mockPessoas = [
       { id: 1, nome: 'João Silva', cpf: '12345678901' }
     ];
-    mockedAxios.get.mockResolvedValueOnce({ data: mockPessoas });
+    mockedAxios.get.mockResolvedValueOnce({ data: { itens: mockPessoas, proximoCursor: null } });
 
     render(<MockedApp />);
 
@@ -104,7 +104,7 @@ describe('App Integration Tests', () => {
     const user = userEvent.setup();
     
     // Mock empty list for listagem
-    mockedAxios.get.mockResolvedValueOnce({ data: [] });
+    mockedAxios.get.mockResolvedValueOnce({ data: { itens: [], proximoCursor: null } });
 
     render(<MockedApp />);
 
@@ -175,4 +175,19 @@ describe('CadastroPessoa Component', () => {
       expect(screen.queryByRole('progressbar')).not.toBeInTheDocument();
     });
   });
+
+  test('warns when typed CPF is already registered', async () => {
+    const user = userEvent.setup();
+    mockedAxios.head.mockResolvedValueOnce({ status: 200 });
+
+    render(<MockedCadastroPessoa />);
+
+    await user.type(screen.getByLabelText('CPF'), '12345678909');
+
+    await waitFor(() => {
+      expect(mockedAxios.head).toHaveBeenCalledWith('/api/pessoas/cpf/12345678909', expect.any(Object));
+      expect(screen.getByText('CPF já cadastrado')).toBeInTheDocument();
+    });
+    expect(screen.getByRole('button', { name: 'Salvar' })).toBeDisabled();
+  });
 });
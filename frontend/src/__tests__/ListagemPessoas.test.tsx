@@ -1,4 +1,4 @@
-import { render, screen, waitFor } from '@testing-library/react';
+import { render, screen, waitFor, fireEvent } from '@testing-library/react';
 import { ThemeProvider, createTheme } from '@mui/material/styles';
 import axios from 'axios';
 import ListagemPessoas from '../app/pages/ListagemPessoas';
@@ -36,7 +36,7 @@ describe('ListagemPessoas Component', () => {
       { id: 3, nome: 'Pedro Oliveira', cpf: '11122233344' }
     ];
 
-    mockedAxios.get.mockResolvedValueOnce({ data: mockPessoas });
+    mockedAxios.get.mockResolvedValueOnce({ data: { itens: mockPessoas, proximoCursor: null } });
 
     render(<MockedListagemPessoas />);
 
@@ -50,11 +50,11 @@ describe('ListagemPessoas Component', () => {
       expect(screen.getByText('Pedro Oliveira - 11122233344')).toBeInTheDocument();
     });
 
-    expect(mockedAxios.get).toHaveBeenCalledWith('/api/pessoas');
+    expect(mockedAxios.get).toHaveBeenCalledWith('/api/pessoas/busca', { params: { limit: 20 } });
   });
 
   test('renders empty list when no pessoas are returned', async () => {
-    mockedAxios.get.mockResolvedValueOnce({ data: [] });
+    mockedAxios.get.mockResolvedValueOnce({ data: { itens: [], proximoCursor: null } });
 
     render(<MockedListagemPessoas />);
 
@@ -82,13 +82,33 @@ describe('ListagemPessoas Component', () => {
   });
 
   test('calls API with correct endpoint', async () => {
-    mockedAxios.get.mockResolvedValueOnce({ data: [] });
+    mockedAxios.get.mockResolvedValueOnce({ data: { itens: [], proximoCursor: null } });
 
     render(<MockedListagemPessoas />);
 
     await waitFor(() => {
-      expect(mockedAxios.get).toHaveBeenCalledWith('/api/pessoas');
+      expect(mockedAxios.get).toHaveBeenCalledWith('/api/pessoas/busca', { params: { limit: 20 } });
       expect(mockedAxios.get).toHaveBeenCalledTimes(1);
     });
   });
+
+  test('sends filters to the search endpoint', async () => {
+    mockedAxios.get.mockResolvedValue({ data: { itens: [], proximoCursor: null } });
+
+    render(<MockedListagemPessoas />);
+
+    await waitFor(() => {
+      expect(mockedAxios.get).toHaveBeenCalledTimes(1);
+    });
+
+    fireEvent.change(screen.getByLabelText('Nome'), { target: { value: 'Ana' } });
+    fireEvent.change(screen.getByLabelText('UF'), { target: { value: 'sp' } });
+    fireEvent.click(screen.getByText('Buscar'));
+
+    await waitFor(() => {
+      expect(mockedAxios.get).toHaveBeenLastCalledWith('/api/pessoas/busca', {
+        params: { limit: 20, nome: 'Ana', estado: 'SP' }
+      });
+    });
+  });
 });
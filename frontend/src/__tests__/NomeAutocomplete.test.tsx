@@ -0,0 +1,45 @@
+import React, { useState } from 'react';
+import { render, screen, waitFor, fireEvent } from '@testing-library/react';
+import axios from 'axios';
+import NomeAutocomplete, { SugestaoNome } from '../app/components/NomeAutocomplete';
+
+jest.mock('axios');
+const mockedAxios = axios as jest.Mocked<typeof axios>;
+
+const Wrapper = ({ onSelecionar }: { onSelecionar: (sugestao: SugestaoNome) => void }) => {
+  const [nome, setNome] = useState('');
+  return <NomeAutocomplete value={nome} onChange={setNome} onSelecionar={onSelecionar} />;
+};
+
+describe('NomeAutocomplete Component', () => {
+  beforeEach(() => {
+    jest.clearAllMocks();
+  });
+
+  test('fetches suggestions for the typed prefix and reports the selected one', async () => {
+    mockedAxios.get.mockResolvedValueOnce({ data: [{ id: 7, nome: 'João Silva' }] });
+    const onSelecionar = jest.fn();
+
+    render(<Wrapper onSelecionar={onSelecionar} />);
+    fireEvent.change(screen.getByLabelText('Nome'), { target: { value: 'jo' } });
+
+    await waitFor(() => {
+      expect(mockedAxios.get).toHaveBeenCalledWith(
+        expect.stringContaining('/api/pessoas/autocomplete'),
+        { params: { q: 'jo', limit: 8 } }
+      );
+    });
+
+    fireEvent.click(await screen.findByText('João Silva'));
+
+    expect(onSelecionar).toHaveBeenCalledWith({ id: 7, nome: 'João Silva' });
+  });
+
+  test('does not query the server for a single character', async () => {
+    render(<Wrapper onSelecionar={jest.fn()} />);
+    fireEvent.change(screen.getByLabelText('Nome'), { target: { value: 'j' } });
+
+    await new Promise((resolve) => setTimeout(resolve, 300));
+    expect(mockedAxios.get).not.toHaveBeenCalled();
+  });
+});
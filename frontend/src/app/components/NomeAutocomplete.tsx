@@ -0,0 +1,92 @@
+import React, { useEffect, useState } from 'react';
+import { Autocomplete, TextField } from '@mui/material';
+import axios from 'axios';
+import { buildApiUrl, API_CONFIG } from '../../config/api';
+
+export interface SugestaoNome {
+  id: number;
+  nome: string;
+}
+
+interface NomeAutocompleteProps {
+  value: string;
+  onChange: (valor: string) => void;
+  onSelecionar?: (sugestao: SugestaoNome) => void;
+  label?: string;
+  name?: string;
+  required?: boolean;
+  fullWidth?: boolean;
+  size?: 'small' | 'medium';
+}
+
+// Espera o usuário parar de digitar antes de consultar o servidor
+const ATRASO_CONSULTA_MS = 150;
+const LIMITE_SUGESTOES = 8;
+
+export default function NomeAutocomplete({
+  value,
+  onChange,
+  onSelecionar,
+  label = 'Nome',
+  name = 'nome',
+  required,
+  fullWidth,
+  size
+}: NomeAutocompleteProps) {
+  const [sugestoes, setSugestoes] = useState<SugestaoNome[]>([]);
+
+  useEffect(() => {
+    const termo = value.trim();
+    if (termo.length < 2) {
+      setSugestoes([]);
+      return;
+    }
+
+    let cancelado = false;
+    const temporizador = setTimeout(async () => {
+      try {
+        const response = await axios.get<SugestaoNome[]>(
+          buildApiUrl(`${API_CONFIG.ENDPOINTS.PESSOAS}/autocomplete`),
+          { params: { q: termo, limit: LIMITE_SUGESTOES } }
+        );
+        // Descarta respostas de termos que já foram substituídos
+        if (!cancelado) setSugestoes(response.data ?? []);
+      } catch {
+        if (!cancelado) setSugestoes([]);
+      }
+    }, ATRASO_CONSULTA_MS);
+
+    return () => {
+      cancelado = true;
+      clearTimeout(temporizador);
+    };
+  }, [value]);
+
+  return (
+    <Autocomplete
+      freeSolo
+      options={sugestoes}
+      filterOptions={(opcoes) => opcoes}
+      getOptionLabel={(opcao) => (typeof opcao === 'string' ? opcao : opcao.nome)}
+      isOptionEqualToValue={(opcao, valor) => opcao.id === valor.id}
+      renderOption={(props, opcao) => (
+        <li {...props} key={opcao.id}>{opcao.nome}</li>
+      )}
+      inputValue={value}
+      onInputChange={(_, valor, motivo) => {
+        if (motivo !== 'reset') onChange(valor);
+      }}
+      onChange={(_, opcao) => {
+        if (opcao && typeof opcao !== 'string') {
+          onChange(opcao.nome);
+          onSelecionar?.(opcao);
+        }
+      }}
+      fullWidth={fullWidth}
+      size={size}
+      renderInput={(params) => (
+        <TextField {...params} name={name} label={label} required={required} />
+      )}
+    />
+  );
+}
@@ -3,6 +3,7 @@ import { TextField, Button, Container, Typography, Box, CircularProgress, Alert
 import axios from 'axios';
 import { buildApiUrl, API_CONFIG } from '../../config/api';
 import { useParams, useNavigate } from 'react-router-dom';
+import NomeAutocomplete from '../components/NomeAutocomplete';
 
 interface Endereco {
   id?: number;
@@ -34,6 +35,8 @@ export default function CadastroPessoa() {
   const [loadingPessoa, setLoadingPessoa] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [success, setSuccess] = useState(false);
+  const [cpfCadastrado, setCpfCadastrado] = useState(false);
+  const [etag, setEtag] = useState<string | null>(null);
 
   // Função para limpar caracteres não numéricos do CEP
   const formatCep = (cep: string) => {
@@ -125,6 +128,30 @@ export default function CadastroPessoa() {
     }
   }, [form.cep]); // eslint-disable-line react-hooks/exhaustive-deps
 
+  // Verifica se o CPF já está cadastrado (HEAD: sem corpo, resolvido em memória no backend na maioria dos casos)
+  const verificarCpf = async (cpf: string) => {
+    try {
+      const response = await axios.head(
+        buildApiUrl(`${API_CONFIG.ENDPOINTS.PESSOAS}/cpf/${cpf}`),
+        { validateStatus: (status) => status === 200 || status === 404 }
+      );
+      setCpfCadastrado(response.status === 200);
+    } catch (err) {
+      // Falha na verificação não bloqueia o cadastro; o backend valida no envio
+      setCpfCadastrado(false);
+    }
+  };
+
+  // Effect para validar o CPF assim que os 11 dígitos forem digitados
+  useEffect(() => {
+    const cleanCpf = form.cpf.replace(/\D/g, '');
+    if (!isEditing && cleanCpf.length === 11) {
+      verificarCpf(cleanCpf);
+    } else {
+      setCpfCadastrado(false);
+    }
+  }, [form.cpf, isEditing]); // eslint-disable-line react-hooks/exhaustive-deps
+
   // Função para carregar dados da pessoa quando estiver editando
   const loadPessoa = async (pessoaId: string) => {
     setLoadingPessoa(true);
@@ -133,6 +160,8 @@ export default function CadastroPessoa() {
     try {
       const response = await axios.get(buildApiUrl(`${API_CONFIG.ENDPOINTS.PESSOAS}/${pessoaId}`));
       const pessoa: Pessoa = response.data;
+      // Versão lida, enviada no If-Match ao salvar para não sobrescrever alterações de outra pessoa
+      setEtag(response.headers?.etag ?? null);
       
       // Preencher o formulário com os dados da pessoa
       setForm({
@@ -189,7 +218,12 @@ export default function CadastroPessoa() {
       
       if (isEditing && id) {
         // Atualizar pessoa existente
-        await axios.put(buildApiUrl(`${API_CONFIG.ENDPOINTS.PESSOAS}/${id}`), pessoaData);
+        const response = await axios.put(
+          buildApiUrl(`${API_CONFIG.ENDPOINTS.PESSOAS}/${id}`),
+          pessoaData,
+          etag ? { headers: { 'If-Match': etag } } : undefined
+        );
+        setEtag(response.headers?.etag ?? null);
         setSuccess(true);
         
         // Navegar de volta para a listagem após sucesso
@@ -208,7 +242,9 @@ export default function CadastroPessoa() {
     } catch (err: any) {
       console.error('Erro ao salvar pessoa:', err);
       
-      if (err.response?.data?.message) {
+      if (err.response?.status === 412) {
+        setError("Esta pessoa foi alterada por outro usuário. Recarregue a página para ver a versão atual.");
+      } else if (err.response?.data?.message) {
         setError(err.response.data.message);
       } else {
         setError(isEditing ? "Erro ao atualizar pessoa" : "Erro ao salvar pessoa");
@@ -238,12 +274,12 @@ export default function CadastroPessoa() {
       )}
 
       <Box display="flex" flexDirection="column" gap={2}>
-        <TextField 
-          name="nome" 
-          label="Nome" 
-          value={form.nome} 
-          onChange={handleChange} 
-          fullWidth 
+        {/* Sugere pessoas já cadastradas; escolher uma abre a edição em vez de criar um cadastro repetido */}
+        <NomeAutocomplete
+          value={form.nome}
+          onChange={(nome) => setForm((atual) => ({ ...atual, nome }))}
+          onSelecionar={isEditing ? undefined : (sugestao) => navigate(`/cadastro-pessoa/${sugestao.id}`)}
+          fullWidth
           required
         />
         
@@ -265,7 +301,8 @@ export default function CadastroPessoa() {
           fullWidth 
           required
           placeholder="000.000.000-00"
-          helperText="Formato: 000.000.000-00"
+          error={cpfCadastrado}
+          helperText={cpfCadastrado ? "CPF já cadastrado" : "Formato: 000.000.000-00"}
         />
         
         <Box position="relative">
@@ -334,7 +371,7 @@ export default function CadastroPessoa() {
         <Button 
           variant="contained" 
           onClick={handleSubmit} 
-          disabled={loading || loadingCep || loadingPessoa}
+          disabled={loading || loadingCep || loadingPessoa || cpfCadastrado}
           size="large"
         >
           {loading ? (
@@ -16,12 +16,14 @@ import {
   Grid,
   Chip,
   IconButton,
-  Tooltip
+  Tooltip,
+  TextField
 } from '@mui/material';
 import { Edit, Delete, Phone, LocationOn, Person } from '@mui/icons-material';
 import axios from 'axios';
 import { buildApiUrl, API_CONFIG } from '../../config/api';
 import { useNavigate } from 'react-router-dom';
+import NomeAutocomplete from '../components/NomeAutocomplete';
 
 interface Endereco {
   id: number;
@@ -41,23 +43,59 @@ interface Pessoa {
   endereco?: Endereco;
 }
 
+interface PaginaPessoas {
+  itens: Pessoa[];
+  proximoCursor: string | null;
+}
+
+interface Filtros {
+  nome: string;
+  estado: string;
+  municipio: string;
+}
+
+const TAMANHO_PAGINA = 20;
+const FILTROS_VAZIOS: Filtros = { nome: '', estado: '', municipio: '' };
+
 export default function ListagemPessoas() {
   const [pessoas, setPessoas] = useState<Pessoa[]>([]);
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [success, setSuccess] = useState<string | null>(null);
   const [deleteDialogOpen, setDeleteDialogOpen] = useState(false);
   const [pessoaToDelete, setPessoaToDelete] = useState<Pessoa | null>(null);
   const [deleting, setDeleting] = useState(false);
+  const [filtros, setFiltros] = useState<Filtros>(FILTROS_VAZIOS);
+  // Filtros da última busca: "Carregar mais" continua a mesma consulta mesmo se os campos mudarem
+  const [filtrosAplicados, setFiltrosAplicados] = useState<Filtros>(FILTROS_VAZIOS);
   const navigate = useNavigate();
 
-  const loadPessoas = async () => {
+  // Busca uma página filtrada no servidor usando o cursor (keyset) retornado pela página anterior
+  const fetchPagina = async (filtrosBusca: Filtros, after?: string) => {
+    const params: Record<string, string | number> = { limit: TAMANHO_PAGINA };
+    (Object.keys(filtrosBusca) as (keyof Filtros)[]).forEach((campo) => {
+      if (filtrosBusca[campo].trim()) params[campo] = filtrosBusca[campo].trim();
+    });
+    if (after) params.after = after;
+
+    const response = await axios.get<PaginaPessoas>(
+      buildApiUrl(`${API_CONFIG.ENDPOINTS.PESSOAS}/busca`),
+      { params }
+    );
+    return response.data;
+  };
+
+  const loadPessoas = async (filtrosBusca: Filtros = filtrosAplicados) => {
     setLoading(true);
     setError(null);
     
     try {
-      const response = await axios.get(buildApiUrl(API_CONFIG.ENDPOINTS.PESSOAS));
-      setPessoas(response.data);
+      const pagina = await fetchPagina(filtrosBusca);
+      setFiltrosAplicados(filtrosBusca);
+      setPessoas(pagina.itens);
+      setProximoCursor(pagina.proximoCursor);
     } catch (err) {
       console.error('Erro ao carregar pessoas:', err);
       setError("Erro ao carregar pessoas");
@@ -66,10 +104,40 @@ export default function ListagemPessoas() {
     }
   };
 
+  const loadMore = async () => {
+    if (!proximoCursor) return;
+
+    setLoadingMore(true);
+    setError(null);
+
+    try {
+      const pagina = await fetchPagina(filtrosAplicados, proximoCursor);
+      setPessoas((atuais) => [...atuais, ...pagina.itens]);
+      setProximoCursor(pagina.proximoCursor);
+    } catch (err) {
+      console.error('Erro ao carregar mais pessoas:', err);
+      setError("Erro ao carregar mais pessoas");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     loadPessoas();
   }, []); // eslint-disable-line react-hooks/exhaustive-deps
 
+  const handleBuscar = (event: React.FormEvent) => {
+    event.preventDefault();
+    loadPessoas(filtros);
+  };
+
+  const handleLimparFiltros = () => {
+    setFiltros(FILTROS_VAZIOS);
+    loadPessoas(FILTROS_VAZIOS);
+  };
+
+  const filtrando = Object.values(filtrosAplicados).some((valor) => valor.trim() !== '');
+
   const handleEdit = (pessoa: Pessoa) => {
     // Navegar para a página de cadastro com o ID da pessoa para edição
     navigate(`/cadastro-pessoa/${pessoa.id}`);
@@ -146,7 +214,40 @@ export default function ListagemPessoas() {
       {error && <Alert severity="error" sx={{ mb: 2 }}>{error}</Alert>}
       {success && <Alert severity="success" sx={{ mb: 2 }}>{success}</Alert>}
 
-      {pessoas.length === 0 ? (
+      <Box component="form" onSubmit={handleBuscar} display="flex" gap={1} mb={2} flexWrap="wrap">
+        <Box minWidth={220}>
+          <NomeAutocomplete
+            size="small"
+            value={filtros.nome}
+            onChange={(nome) => setFiltros((atuais) => ({ ...atuais, nome }))}
+            onSelecionar={(sugestao) => loadPessoas({ ...filtros, nome: sugestao.nome })}
+          />
+        </Box>
+        <TextField
+          label="UF"
+          size="small"
+          value={filtros.estado}
+          onChange={(e) => setFiltros({ ...filtros, estado: e.target.value.toUpperCase() })}
+          inputProps={{ maxLength: 2 }}
+          sx={{ width: 80 }}
+        />
+        <TextField
+          label="Município"
+          size="small"
+          value={filtros.municipio}
+          onChange={(e) => setFiltros({ ...filtros, municipio: e.target.value })}
+        />
+        <Button type="submit" variant="outlined">Buscar</Button>
+        {filtrando && <Button onClick={handleLimparFiltros}>Limpar</Button>}
+      </Box>
+
+      {pessoas.length === 0 && filtrando ? (
+        <Box textAlign="center" mt={4}>
+          <Typography variant="h6" color="textSecondary">
+            Nenhuma pessoa encontrada
+          </Typography>
+        </Box>
+      ) : pessoas.length === 0 ? (
         <Box textAlign="center" mt={4}>
           <Typography variant="h6" color="textSecondary">
             Nenhuma pessoa cadastrada
@@ -244,6 +345,18 @@ export default function ListagemPessoas() {
               </CardContent>
             </Card>
           ))}
+
+          {proximoCursor && (
+            <Box display="flex" justifyContent="center">
+              <Button 
+                variant="outlined" 
+                onClick={loadMore}
+                disabled={loadingMore}
+              >
+                {loadingMore ? <CircularProgress size={20} /> : 'Carregar mais'}
+              </Button>
+            </Box>
+          )}
         </Box>
       )}
 